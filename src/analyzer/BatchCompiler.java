@@ -0,0 +1,111 @@
+package analyzer;
+
+import analyzer.ast.ParseException;
+import analyzer.ast.TokenMgrError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compiles many programs in a single JVM on a work-stealing pool.
+ * Every worker thread reuses its own parser and visitors (see CompilerContext),
+ * the outputs are buffered and printed in the order of the input files so the
+ * result does not depend on the scheduling.
+ */
+
+public class BatchCompiler {
+
+    private final VisitorKind m_kind;
+    private final int m_threads;
+
+    public BatchCompiler(VisitorKind kind, int threads) {
+        m_kind = kind;
+        m_threads = threads;
+    }
+
+    // Expand the arguments: a directory gives all its files (sorted by name), a file is kept as is
+    public static List<Path> collectFiles(List<Path> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                List<Path> content = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                    for (Path file : stream) {
+                        if (Files.isRegularFile(file)) {
+                            content.add(file);
+                        }
+                    }
+                }
+                Collections.sort(content);
+                files.addAll(content);
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    // Compile all the files and print their outputs in order, the throughput is reported on stderr
+    public void run(List<Path> files, PrintWriter output) throws InterruptedException {
+        long start = System.nanoTime();
+
+        ExecutorService pool = Executors.newWorkStealingPool(m_threads);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (final Path file : files) {
+                results.add(pool.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return compile(file);
+                    }
+                }));
+            }
+
+            for (int i = 0; i < files.size(); i++) {
+                output.println("==> " + files.get(i) + " <==");
+                String result;
+                try {
+                    result = results.get(i).get();
+                } catch (ExecutionException e) {
+                    result = e.getCause().toString();
+                }
+                output.print(result);
+                if (!result.endsWith("\n")) {
+                    output.println();
+                }
+            }
+            output.flush();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.println(String.format("%d files in %.3f s (%.1f files/s, %d threads)",
+                files.size(), seconds, files.size() / seconds, m_threads));
+    }
+
+    // Compile one file, the errors are part of the output like they are for a single compilation
+    public String compile(Path file) {
+        CompilerContext context = CompilerContext.current();
+        try (InputStream input = Files.newInputStream(file)) {
+            return context.compile(m_kind, input);
+        } catch (IOException | ParseException | TokenMgrError | SemantiqueError e) {
+            return context.output() + e.getMessage();
+        }
+    }
+}
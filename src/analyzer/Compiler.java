@@ -0,0 +1,165 @@
+package analyzer;
+
+import analyzer.ast.ASTProgram;
+import analyzer.ast.ExpressionInterner;
+import analyzer.ast.LineIndex;
+import analyzer.ast.ParseException;
+import analyzer.ast.ParserVisitor;
+import analyzer.visitors.CodeGenerator;
+import analyzer.visitors.SemantiqueVisitor;
+import analyzer.visitors.SymbolTable;
+
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.EnumMap;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The stages of a compilation, run once whatever the number of backends:
+ * parse, semantic check, annotate, code generation of each backend asked. The check is
+ * done by one SemantiqueVisitor, which stamps the types and the symbol ids on the nodes.
+ * The code generators read them from the nodes and share its SymbolTable instead of
+ * typing the tree again (see CodeGenerator). Nothing is printed: the outputs and the
+ * error are returned in a Result.
+ *
+ * The annotate stage is the ExpressionInterner, only run if setInterning(true) was called.
+ * The check stops at the first semantic error unless setAllErrors(true) was called.
+ * The parse is done by a CompilerContext (its parser, parse cache and arena are used).
+ * Like the context, a Compiler keeps its visitors from one compilation to the next and
+ * must not be shared between threads.
+ */
+
+public class Compiler {
+
+    private final CompilerContext m_context;
+    private final SemantiqueVisitor m_checker = new SemantiqueVisitor(null);
+    private final EnumMap<VisitorKind, CodeGenerator> m_generators = new EnumMap<>(VisitorKind.class);
+
+    private final StringWriter m_output = new StringWriter();
+    private final PrintWriter m_writer = new PrintWriter(m_output);
+
+    private final Diagnostics m_diagnostics = new Diagnostics();
+    private boolean m_interning = false;
+    private boolean m_allErrors = false;
+
+    public Compiler() {
+        this(new CompilerContext());
+    }
+
+    public Compiler(CompilerContext context) {
+        m_context = context;
+    }
+
+    // Whether the expressions are interned (see ExpressionInterner) before the code generation
+    public void setInterning(boolean interning) {
+        m_interning = interning;
+    }
+
+    // Whether the check goes on after the first semantic error to give all of them in
+    // Result.diagnostics (see SemantiqueVisitor.reset(PrintWriter, Diagnostics))
+    public void setAllErrors(boolean allErrors) {
+        m_allErrors = allErrors;
+    }
+
+    // Compile the program with each backend. The program is parsed and checked once, the
+    // output of VisitorKind.Semantic is the one of the check ("all good").
+    public Result compile(InputStream input, VisitorKind... backends) {
+        m_diagnostics.clear();
+        ASTProgram tree;
+        try {
+            tree = m_context.parse(input);
+        } catch (ParseException e) {
+            return new Result(null, null, e.getMessage(), m_diagnostics, null, null);
+        }
+
+        SymbolTable symbols = m_checker.getSymbols();
+        if (m_allErrors) {
+            m_checker.reset(m_writer, m_diagnostics);
+        } else {
+            m_checker.reset(m_writer);
+        }
+        String check = null;
+        try {
+            check = run(tree, m_checker);
+        } catch (SemantiqueError e) {
+            m_diagnostics.add(e);
+        }
+        if (!m_diagnostics.isEmpty()) {
+            LineIndex lines = m_context.lineIndex();
+            return new Result(tree, symbols, m_diagnostics.describe(0, lines), m_diagnostics, lines, null);
+        }
+
+        if (m_interning) {
+            tree = (ASTProgram) new ExpressionInterner().intern(tree);
+        }
+
+        EnumMap<VisitorKind, String> outputs = new EnumMap<>(VisitorKind.class);
+        for (VisitorKind kind : backends) {
+            if (kind == VisitorKind.Semantic) {
+                outputs.put(kind, check);
+                continue;
+            }
+            CodeGenerator generator = m_generators.get(kind);
+            if (generator == null) {
+                generator = (CodeGenerator) kind.create(m_writer);
+                m_generators.put(kind, generator);
+            }
+            generator.reset(m_writer, symbols);
+            outputs.put(kind, run(tree, generator));
+        }
+        return new Result(tree, symbols, null, m_diagnostics, null, outputs);
+    }
+
+    // What the visitor prints when it visits tree
+    private String run(ASTProgram tree, ParserVisitor visitor) {
+        m_output.getBuffer().setLength(0);
+        try {
+            tree.jjtAccept(visitor, null);
+        } finally {
+            m_writer.flush();
+        }
+        return m_output.toString();
+    }
+
+    // What a compilation gives. The tree, the symbols and the diagnostics are the ones of
+    // the Compiler: they are only valid until its next compilation.
+    public static class Result {
+        // Null if the program has a syntax error
+        public final ASTProgram tree;
+        public final SymbolTable symbols;
+        // The message of the syntax error or of the first semantic error, with its position,
+        // null without error
+        public final String error;
+        // The semantic errors, only the first one unless setAllErrors(true) was called
+        public final Diagnostics diagnostics;
+        private final LineIndex m_lines;
+        private final EnumMap<VisitorKind, String> m_outputs;
+
+        private Result(ASTProgram tree, SymbolTable symbols, String error, Diagnostics diagnostics, LineIndex lines,
+                       EnumMap<VisitorKind, String> outputs) {
+            this.tree = tree;
+            this.symbols = symbols;
+            this.error = error;
+            this.diagnostics = diagnostics;
+            m_lines = lines;
+            m_outputs = outputs;
+        }
+
+        // The message of the semantic error i with its line and column
+        public String describe(int i) {
+            return diagnostics.describe(i, m_lines);
+        }
+
+        public boolean isOk() {
+            return error == null;
+        }
+
+        // The code generated by the backend, null if it was not asked or if there is an error
+        public String output(VisitorKind kind) {
+            return m_outputs == null ? null : m_outputs.get(kind);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package analyzer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The thin client of CompilerServer. A client keeps its connection
+ * open, so it can send many compilations without reconnecting.
+ */
+
+public class CompilerClient implements Closeable {
+
+    private final Socket m_socket;
+    private final DataInputStream m_in;
+    private final DataOutputStream m_out;
+
+    public CompilerClient(int port) throws IOException {
+        m_socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        m_in = new DataInputStream(new BufferedInputStream(m_socket.getInputStream()));
+        m_out = new DataOutputStream(new BufferedOutputStream(m_socket.getOutputStream()));
+    }
+
+    // Send one program and wait for the output (or the error message) of the server
+    public Response compile(VisitorKind kind, byte[] source) throws IOException {
+        m_out.writeUTF(kind.getName());
+        m_out.writeInt(source.length);
+        m_out.write(source);
+        m_out.flush();
+
+        byte status = m_in.readByte();
+        byte[] output = new byte[m_in.readInt()];
+        m_in.readFully(output);
+        return new Response(status, new String(output, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_socket.close();
+    }
+
+    public static class Response {
+        public final byte status;
+        public final String output;
+
+        public Response(byte status, String output) {
+            this.status = status;
+            this.output = output;
+        }
+
+        public boolean isOk() {
+            return status == CompilerServer.STATUS_OK;
+        }
+    }
+}
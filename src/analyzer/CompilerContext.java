@@ -0,0 +1,219 @@
+package analyzer;
+
+import analyzer.ast.ASTProgram;
+import analyzer.ast.ByteBufferCharStream;
+import analyzer.ast.JavaCharStream;
+import analyzer.ast.LineIndex;
+import analyzer.ast.NodeArena;
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.visitors.ReusableVisitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Everything a thread needs to compile programs one after the other:
+ * one parser (with its token manager and char stream) reset with ReInit, the buffer
+ * holding the source, one visitor of each kind and the buffer of the output.
+ * After the first compilation of a thread, almost nothing is allocated before parsing,
+ * and the nodes of the trees come from the arena of the context (see NodeArena).
+ *
+ * The contexts are pooled per thread, see current(). A context must not be used by
+ * another thread, and the tree of a parse is only valid until the next one.
+ */
+
+public class CompilerContext {
+
+    private static final ThreadLocal<CompilerContext> POOL = new ThreadLocal<CompilerContext>() {
+        @Override
+        protected CompilerContext initialValue() {
+            return new CompilerContext();
+        }
+    };
+
+    // The context of the current thread, created on the first call
+    public static CompilerContext current() {
+        return POOL.get();
+    }
+
+    private byte[] m_source = new byte[8192];
+    private int m_length = 0;
+    private LineIndex m_lines;
+    private final ByteBufferCharStream m_stream = new ByteBufferCharStream(ByteBuffer.wrap(m_source, 0, 0));
+    private final Parser m_parser = Parser.Create(m_stream);
+
+    private final EnumMap<VisitorKind, ReusableVisitor> m_visitors = new EnumMap<>(VisitorKind.class);
+
+    private final StringWriter m_output = new StringWriter();
+    private final PrintWriter m_writer = new PrintWriter(m_output);
+
+    private ParseCache m_parseCache = ParseCache.fromProperties();
+    private OutputCache m_outputCache = OutputCache.shared();
+    private NodeArena m_arena = new NodeArena();
+
+    // The cache of the trees used by parse(), null to always parse. By default it is the
+    // one of the property analyzer.parseCache (see ParseCache).
+    public void setParseCache(ParseCache parseCache) {
+        m_parseCache = parseCache;
+    }
+
+    // The cache of the outputs used by compile(), null to always compile. By default it is
+    // the one of the property analyzer.outputCache (see OutputCache).
+    public void setOutputCache(OutputCache outputCache) {
+        m_outputCache = outputCache;
+    }
+
+    // The arena giving the nodes of the trees parsed by this context, null to allocate
+    // new nodes (the trees then stay valid after the next parse).
+    public void setNodeArena(NodeArena arena) {
+        m_arena = arena;
+    }
+
+    // Same as Parser.ParseTree(InputStream), with the parser of this context. When the
+    // source is in the parse cache, its tree is loaded instead.
+    public ASTProgram parse(InputStream input) throws ParseException {
+        return parse(read(input));
+    }
+
+    // Parse the first length bytes of m_source
+    private ASTProgram parse(int length) throws ParseException {
+        String key = null;
+        if (m_parseCache != null) {
+            key = m_parseCache.key(m_source, 0, length);
+            ASTProgram cached = m_parseCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        if (m_arena != null) {
+            m_arena.reset();
+        }
+        NodeArena previous = NodeArena.install(m_arena);
+        m_stream.ReInit(ByteBuffer.wrap(m_source, 0, length));
+        if (m_stream.isPlainAscii()) {
+            m_parser.ReInit(m_stream);
+        } else {
+            m_parser.ReInit(new JavaCharStream(new ByteArrayInputStream(m_source, 0, length)));
+        }
+        try {
+            ASTProgram tree = m_parser.Program();
+            if (key != null) {
+                m_parseCache.put(key, tree);
+            }
+            return tree;
+        } finally {
+            NodeArena.install(previous);
+            // The parser keeps the root on its stack, the tree must not live as long as the context
+            m_stream.ReInit(ByteBuffer.wrap(m_source, 0, 0));
+            m_parser.ReInit(m_stream);
+        }
+    }
+
+    // The visitor of this kind, reset to print in writer
+    public ReusableVisitor visitor(VisitorKind kind, PrintWriter writer) {
+        ReusableVisitor visitor = m_visitors.get(kind);
+        if (visitor == null) {
+            visitor = kind.create(writer);
+            m_visitors.put(kind, visitor);
+        } else {
+            visitor.reset(writer);
+        }
+        return visitor;
+    }
+
+    // Same as Main.Run, with the parser and the visitor of this context
+    public void run(VisitorKind kind, InputStream input, PrintWriter output) throws ParseException {
+        ASTProgram root = parse(input);
+        root.jjtAccept(visitor(kind, output), null);
+        output.flush();
+    }
+
+    // Compile a program and return what the visitor printed. The errors are thrown
+    // like with run(), what was printed before the error is then in output().
+    // With an output cache, a program compiled before gives the same output (or
+    // SemantiqueError) without being parsed nor visited.
+    public String compile(VisitorKind kind, InputStream input) throws ParseException {
+        m_output.getBuffer().setLength(0);
+        int length = read(input);
+
+        OutputCache cache = m_outputCache;
+        String key = null;
+        if (cache != null) {
+            key = cache.key(kind, m_source, 0, length);
+            OutputCache.Entry entry = cache.get(key);
+            if (entry != null) {
+                m_writer.print(entry.output);
+                m_writer.flush();
+                if (entry.error != null) {
+                    throw new SemantiqueError(entry.error);
+                }
+                return m_output.toString();
+            }
+        }
+
+        ASTProgram root = parse(length);
+        try {
+            root.jjtAccept(visitor(kind, m_writer), null);
+        } catch (SemantiqueError e) {
+            if (key != null) {
+                cache.put(key, new OutputCache.Entry(output(), e.getMessage()));
+            }
+            throw e;
+        }
+        m_writer.flush();
+        if (key != null) {
+            cache.put(key, new OutputCache.Entry(m_output.toString(), null));
+        }
+        return m_output.toString();
+    }
+
+    // The lines of the last source read, to find the line and the column of the positions
+    // of its nodes and of its SemantiqueError (see SemantiqueError.describe())
+    public LineIndex lineIndex() {
+        if (m_lines == null) {
+            m_lines = LineIndex.of(m_source, 0, m_length);
+        }
+        return m_lines;
+    }
+
+    // What was printed by the last call to compile()
+    public String output() {
+        m_writer.flush();
+        return m_output.toString();
+    }
+
+    // Read the whole input in m_source and return its length
+    private int read(InputStream input) throws ParseException {
+        m_lines = null;
+        m_length = 0;
+        try {
+            return m_length = readAll(input);
+        } catch (IOException e) {
+            throw new ParseException("Unable to read the input: " + e.getMessage());
+        }
+    }
+
+    private int readAll(InputStream input) throws IOException {
+        int length = 0;
+        int n;
+        while ((n = input.read(m_source, length, m_source.length - length)) != -1) {
+            length += n;
+            if (length == m_source.length) {
+                byte[] source = new byte[m_source.length * 2];
+                System.arraycopy(m_source, 0, source, 0, length);
+                m_source = source;
+            }
+        }
+        return length;
+    }
+}
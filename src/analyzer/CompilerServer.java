@@ -0,0 +1,198 @@
+package analyzer;
+
+import analyzer.ast.ParseException;
+import analyzer.ast.TokenMgrError;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A long-lived compiler. It listens on a local socket and compiles
+ * the programs sent by CompilerClient, so the parser and the visitors stay warm
+ * in the JIT between two compilations.
+ *
+ * The protocol is the same in both directions, a connection can send many requests:
+ *  request  : visitor kind (UTF), source length (int), source bytes
+ *  response : status (byte), output length (int), output bytes (UTF-8)
+ * A source longer than MAX_SOURCE (or a negative length) is answered with
+ * STATUS_BAD_REQUEST and the connection is closed.
+ *
+ * Each connection is read by its own thread and hands its requests to the pool of
+ * compiler threads, so clients keeping an idle connection open do not hold a
+ * compiler thread: the number of threads only bounds the concurrent compilations.
+ *
+ * The socket is bound to the loopback interface only, but there is no
+ * authentication: any user of the machine can connect to the port and have
+ * programs compiled, so the server must not run on a shared machine.
+ */
+
+public class CompilerServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 32100;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_SEMANTIC_ERROR = 1;
+    public static final byte STATUS_PARSE_ERROR = 2;
+    public static final byte STATUS_INTERNAL_ERROR = 3;
+    public static final byte STATUS_BAD_REQUEST = 4;
+
+    public static final int MAX_SOURCE = 64 * 1024 * 1024;
+
+    private final int m_port;
+    private final ExecutorService m_workers;
+    private final ExecutorService m_connections = Executors.newCachedThreadPool();
+    private ServerSocket m_server;
+
+    public CompilerServer(int port, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The server needs at least one thread, not " + threads);
+        }
+        m_port = port;
+        m_workers = Executors.newFixedThreadPool(threads);
+    }
+
+    // Open the socket and return its port, the one chosen by the system if the port is 0
+    public int bind() throws IOException {
+        m_server = new ServerSocket(m_port, 50, InetAddress.getLoopbackAddress());
+        return m_server.getLocalPort();
+    }
+
+    // Accept the connections until close() is called or the process is killed
+    public void serve() throws IOException {
+        if (m_server == null) {
+            bind();
+        }
+        try (ServerSocket server = m_server) {
+            System.err.println("Compiler server listening on " + server.getLocalSocketAddress());
+            while (true) {
+                final Socket socket = server.accept();
+                m_connections.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        handle(socket);
+                    }
+                });
+            }
+        } catch (SocketException e) {
+            if (!m_server.isClosed()) {
+                throw e;
+            }
+        } finally {
+            m_connections.shutdownNow();
+            m_workers.shutdownNow();
+        }
+    }
+
+    // Stop accepting connections, serve() returns
+    @Override
+    public void close() throws IOException {
+        if (m_server != null) {
+            m_server.close();
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            while (true) {
+                String kindName;
+                try {
+                    kindName = in.readUTF();
+                } catch (java.io.EOFException e) {
+                    return;
+                }
+                int length = in.readInt();
+                if (length < 0 || length > MAX_SOURCE) {
+                    // The source is not read, the next request could not be found
+                    writeMessage(out, STATUS_BAD_REQUEST, "Invalid source length " + length + " (at most " + MAX_SOURCE + " bytes)");
+                    return;
+                }
+                byte[] source = new byte[length];
+                in.readFully(source);
+
+                StringBuilder message = new StringBuilder();
+                byte status = submit(kindName, source, message);
+                writeMessage(out, status, message.toString());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Compile on a worker thread and wait for the status, message is filled by the worker
+    private byte submit(final String kindName, final byte[] source, final StringBuilder message) throws IOException {
+        Future<Byte> status = m_workers.submit(new Callable<Byte>() {
+            @Override
+            public Byte call() {
+                return compile(CompilerContext.current(), kindName, source, message);
+            }
+        });
+        try {
+            return status.get();
+        } catch (InterruptedException e) {
+            status.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The server is stopping");
+        } catch (ExecutionException e) {
+            message.append(e.getCause().toString());
+            return STATUS_INTERNAL_ERROR;
+        }
+    }
+
+    // The worker threads are pooled, so each one keeps its CompilerContext between requests
+    private static byte compile(CompilerContext context, String kindName, byte[] source, StringBuilder message) {
+        try {
+            message.append(context.compile(VisitorKind.fromName(kindName), new ByteArrayInputStream(source)));
+            return STATUS_OK;
+        } catch (SemantiqueError e) {
+            message.append(context.output()).append(e.getMessage());
+            return STATUS_SEMANTIC_ERROR;
+        } catch (ParseException | TokenMgrError e) {
+            message.append(context.output()).append(e.getMessage());
+            return STATUS_PARSE_ERROR;
+        } catch (RuntimeException e) {
+            message.append(context.output()).append(e.toString());
+            return STATUS_INTERNAL_ERROR;
+        } catch (StackOverflowError e) {
+            // A program nested too deeply, the context was reset by the parse and the visitors
+            // are reset by the next compilation
+            message.append(context.output()).append("Program nested too deeply: ").append(e.toString());
+            return STATUS_INTERNAL_ERROR;
+        } catch (Error e) {
+            // JavaCharStream reports a unicode escape without its four hexadecimal digits with a plain Error
+            if (e.getClass() != Error.class) {
+                throw e;
+            }
+            message.append(context.output()).append(e.getMessage());
+            return STATUS_PARSE_ERROR;
+        }
+    }
+
+    static void writeMessage(DataOutputStream out, byte status, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(status);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.flush();
+    }
+}
@@ -0,0 +1,152 @@
+package analyzer;
+
+import analyzer.ast.LineIndex;
+import analyzer.ast.PositionedNode;
+import analyzer.ast.VarType;
+
+import java.util.Arrays;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The errors found by a SemantiqueVisitor which goes on after the first one
+ * (see SemantiqueVisitor.reset(PrintWriter, Diagnostics)), in the order of the visit.
+ * Each error is kept as a kind, the position of its node and the types involved; its
+ * message is only built when it is asked, and it is the message the SemantiqueError
+ * thrown for it would have.
+ */
+
+public class Diagnostics {
+
+    private static final byte UNDEFINED = 0;
+    private static final byte CONDITION = 1;
+    private static final byte ASSIGNMENT = 2;
+    private static final byte EXPRESSION = 3;
+    private static final byte EXPRESSIONS = 4;
+    private static final byte OTHER = 5;
+
+    private static final VarType[] TYPES = VarType.values();
+
+    private byte[] m_kinds = new byte[16];
+    private long[] m_positions = new long[16];
+    // The codes of the types involved (ordinal + 1, 0 for none), one per byte
+    private int[] m_types = new int[16];
+    // The identifier of UNDEFINED, the message of OTHER
+    private String[] m_texts = new String[16];
+    private int m_size = 0;
+
+    // "Invalid use of undefined Identifier name"
+    public void undefined(String name, long position) {
+        add(UNDEFINED, position, 0, name);
+    }
+
+    // "Invalid type in condition"
+    public void condition(long position) {
+        add(CONDITION, position, 0, null);
+    }
+
+    // "Invalid type in assignment"
+    public void assignment(long position) {
+        add(ASSIGNMENT, position, 0, null);
+    }
+
+    // "Invalid type in expression got type was expecting expected"
+    public void expression(VarType type, VarType expected, long position) {
+        add(EXPRESSION, position, code(type) | code(expected) << 16, null);
+    }
+
+    // "Invalid type in expression got type and other was expecting expected"
+    public void expression(VarType type, VarType other, VarType expected, long position) {
+        add(EXPRESSIONS, position, code(type) | code(other) << 8 | code(expected) << 16, null);
+    }
+
+    // Any other error, kept with its message
+    public void add(SemantiqueError error) {
+        add(OTHER, error.getPosition(), 0, error.getMessage());
+    }
+
+    // The errors of other after those of this one
+    public void addAll(Diagnostics other) {
+        addAll(other, 0);
+    }
+
+    // Same, with the positions moved by delta chars (for a part of the source which moved)
+    public void addAll(Diagnostics other, int delta) {
+        for (int i = 0; i < other.m_size; i++) {
+            long position = other.m_positions[i];
+            if (delta != 0 && position != PositionedNode.UNKNOWN) {
+                position = PositionedNode.position(PositionedNode.begin(position) + delta, PositionedNode.end(position) + delta);
+            }
+            add(other.m_kinds[i], position, other.m_types[i], other.m_texts[i]);
+        }
+    }
+
+    public int size() {
+        return m_size;
+    }
+
+    public boolean isEmpty() {
+        return m_size == 0;
+    }
+
+    public String message(int i) {
+        switch (m_kinds[i]) {
+            case UNDEFINED:
+                return "Invalid use of undefined Identifier " + m_texts[i];
+            case CONDITION:
+                return "Invalid type in condition";
+            case ASSIGNMENT:
+                return "Invalid type in assignment";
+            case EXPRESSION:
+                return "Invalid type in expression got " + type(i, 0) + " was expecting " + type(i, 16);
+            case EXPRESSIONS:
+                return "Invalid type in expression got " + type(i, 0) + " and " + type(i, 8) + " was expecting " + type(i, 16);
+            default:
+                return m_texts[i];
+        }
+    }
+
+    // Offsets of the node in error packed like PositionedNode.getPosition(), -1 when unknown
+    public long position(int i) {
+        return m_positions[i];
+    }
+
+    // The error i, as thrown by a SemantiqueVisitor which stops at the first one
+    public SemantiqueError get(int i) {
+        return new SemantiqueError(message(i), m_positions[i]);
+    }
+
+    // The message of the error i followed by its line and column in the source of lines
+    public String describe(int i, LineIndex lines) {
+        return get(i).describe(lines);
+    }
+
+    public void clear() {
+        Arrays.fill(m_texts, 0, m_size, null);
+        m_size = 0;
+    }
+
+    private void add(byte kind, long position, int types, String text) {
+        if (m_size == m_kinds.length) {
+            m_kinds = Arrays.copyOf(m_kinds, m_size * 2);
+            m_positions = Arrays.copyOf(m_positions, m_size * 2);
+            m_types = Arrays.copyOf(m_types, m_size * 2);
+            m_texts = Arrays.copyOf(m_texts, m_size * 2);
+        }
+        m_kinds[m_size] = kind;
+        m_positions[m_size] = position;
+        m_types[m_size] = types;
+        m_texts[m_size] = text;
+        m_size++;
+    }
+
+    private VarType type(int i, int shift) {
+        int code = (m_types[i] >>> shift) & 0xff;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    private static int code(VarType type) {
+        return type == null ? 0 : type.ordinal() + 1;
+    }
+}
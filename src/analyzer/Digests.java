@@ -0,0 +1,123 @@
+package analyzer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The SHA-256 digests used by the caches: to name their files, and to
+ * identify the version of the compiler from the bytes of its own classes.
+ */
+
+class Digests {
+
+    private Digests() {
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String hex(byte[] hash) {
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[2 * i] = Character.forDigit((hash[i] >> 4) & 0xF, 16);
+            hex[2 * i + 1] = Character.forDigit(hash[i] & 0xF, 16);
+        }
+        return new String(hex);
+    }
+
+    // Add the name and the bytes of every file under prefix (like "analyzer/") in the code
+    // source of anchor, a directory or a jar, in the order of the names. Returns the names,
+    // null if the code source can not be read (the digest must then not be used alone).
+    static List<String> updateWithCodeSource(MessageDigest digest, Class<?> anchor, String prefix) {
+        try {
+            CodeSource source = anchor.getProtectionDomain().getCodeSource();
+            URL location = source == null ? null : source.getLocation();
+            if (location == null) {
+                return null;
+            }
+            Path root = Paths.get(location.toURI());
+            if (Files.isDirectory(root)) {
+                return updateWithDirectory(digest, root, prefix);
+            }
+            try (JarFile jar = new JarFile(root.toFile())) {
+                return updateWithJar(digest, jar, prefix);
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static List<String> updateWithDirectory(MessageDigest digest, Path root, String prefix) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root.resolve(prefix))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    names.add(root.relativize(file).toString().replace(root.getFileSystem().getSeparator(), "/"));
+                }
+            }
+        }
+        Collections.sort(names);
+        for (String name : names) {
+            update(digest, name, Files.readAllBytes(root.resolve(name)));
+        }
+        return names;
+    }
+
+    private static List<String> updateWithJar(MessageDigest digest, JarFile jar, String prefix) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements(); ) {
+            JarEntry entry = entries.nextElement();
+            if (!entry.isDirectory() && entry.getName().startsWith(prefix)) {
+                names.add(entry.getName());
+            }
+        }
+        Collections.sort(names);
+        for (String name : names) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (InputStream input = jar.getInputStream(jar.getJarEntry(name))) {
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = input.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, n);
+                }
+            }
+            update(digest, name, bytes.toByteArray());
+        }
+        return names;
+    }
+
+    // The name, then the length and the bytes, so two different sets of files can not give
+    // the same sequence of bytes
+    private static void update(MessageDigest digest, String name, byte[] bytes) {
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+}
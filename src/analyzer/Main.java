@@ -4,8 +4,14 @@ import analyzer.ast.*;
 import analyzer.visitors.SemantiqueVisitor;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created: 17-08-02
@@ -18,16 +24,80 @@ import java.io.PrintWriter;
 
 public class Main {
 
+    // The exit status of -client when there is no response, after the statuses of CompilerServer
+    private static final int CLIENT_FAILURE = 5;
+
+    // The exit status when the arguments are wrong (EX_USAGE of sysexits.h)
+    private static final int USAGE_ERROR = 64;
+
+    private static final String BATCH_USAGE = "-batch [-visitor semantic|tac|fall] [-threads N] <directory or files...>";
+    private static final String SERVER_USAGE = "-server [-port N] [-threads N]";
+    private static final String CLIENT_USAGE = "-client [-port N] [-visitor semantic|tac|fall] <file>";
+    private static final String STREAM_USAGE = "-stream [-visitor semantic|tac|fall] <file>";
+    private static final String CHECK_USAGE = "-check <directory or files...>";
+    private static final String ERRORS_USAGE = "-errors <file>";
+
     // It is the entry point of the programs
     // The arguments are:
     // arg[0] (Required): The path of the input file to parse
     // arg[1] (Optional): The path of the output file, will print to System.out if missing.
+    //
+    // With "-batch" as the first argument, many programs are compiled in the same JVM:
+    // -batch [-visitor semantic|tac|fall] [-threads N] <directory or files...>
+    //
+    // "-server [-port N] [-threads N]" starts a resident compiler (see CompilerServer) and
+    // "-client [-port N] [-visitor semantic|tac|fall] <file>" sends the file to it. The exit status
+    // of the client is the status of the response, or CLIENT_FAILURE if the server could not be reached.
+    //
+    // "-stream [-visitor semantic|tac|fall] <file>" compiles one statement at a time (see RunStreaming).
+    //
+    // "-check <directory or files...>" only tells which files have a syntax error, without building
+    // their trees (see Recognizer). The exit status is 1 if any file has one.
+    //
+    // "-errors <file>" prints all the semantic errors of the file with their line and column, instead
+    // of stopping at the first one (see Diagnostics). The exit status is 1 if it has any error.
+    //
+    // With -Danalyzer.parseCache=<directory>, the trees of the programs are kept in the directory
+    // and a program which did not change is not parsed again (see ParseCache). In the same way,
+    // -Danalyzer.outputCache=<directory> keeps the outputs of -batch and -server (see OutputCache).
+    //
+    // When the arguments of a mode are wrong, its usage is printed and the exit status is USAGE_ERROR.
     public static void main(String[] args) {
         if(args.length <= 0) {
             System.err.println("args[0] is missing! (The file to read)");
             return;
         }
 
+        if(args[0].equals("-batch")) {
+            runBatch(args);
+            return;
+        }
+
+        if(args[0].equals("-server")) {
+            runServer(args);
+            return;
+        }
+
+        if(args[0].equals("-client")) {
+            runClient(args);
+            return;
+        }
+
+        if(args[0].equals("-stream")) {
+            runStreaming(args);
+            return;
+        }
+
+        if(args[0].equals("-check")) {
+            runCheck(args);
+            return;
+        }
+
+        if(args[0].equals("-errors")) {
+            runErrors(args);
+            return;
+        }
+
         InputStream file;
         try {
             file = new java.io.FileInputStream(args[0]);
@@ -46,12 +116,236 @@ public class Main {
         }
     }
 
+    private static void runBatch(String[] args) {
+        VisitorKind kind = VisitorKind.Semantic;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> paths = new ArrayList<>();
+
+        for(int i = 1; i < args.length; i++) {
+            if(args[i].equals("-visitor")) {
+                kind = visitorOption(args, ++i, BATCH_USAGE);
+            } else if(args[i].equals("-threads")) {
+                threads = numberOption(args, ++i, 1, Integer.MAX_VALUE, BATCH_USAGE);
+            } else {
+                paths.add(Paths.get(args[i]));
+            }
+        }
+
+        if(paths.isEmpty()) {
+            usage("-batch needs a directory or a list of files", BATCH_USAGE);
+        }
+
+        try {
+            List<Path> files = BatchCompiler.collectFiles(paths);
+            new BatchCompiler(kind, threads).run(files, new PrintWriter(System.out));
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void runServer(String[] args) {
+        int port = CompilerServer.DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for(int i = 1; i < args.length; i++) {
+            if(args[i].equals("-port")) {
+                // 0 lets the system choose the port, it is printed when the server starts
+                port = numberOption(args, ++i, 0, 65535, SERVER_USAGE);
+            } else if(args[i].equals("-threads")) {
+                threads = numberOption(args, ++i, 1, Integer.MAX_VALUE, SERVER_USAGE);
+            } else {
+                usage("Unknown argument " + args[i], SERVER_USAGE);
+            }
+        }
+
+        try {
+            new CompilerServer(port, threads).serve();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void runClient(String[] args) {
+        int port = CompilerServer.DEFAULT_PORT;
+        VisitorKind kind = VisitorKind.Semantic;
+        String file = null;
+
+        for(int i = 1; i < args.length; i++) {
+            if(args[i].equals("-port")) {
+                port = numberOption(args, ++i, 1, 65535, CLIENT_USAGE);
+            } else if(args[i].equals("-visitor")) {
+                kind = visitorOption(args, ++i, CLIENT_USAGE);
+            } else {
+                file = args[i];
+            }
+        }
+
+        if(file == null) {
+            usage("-client needs the file to compile", CLIENT_USAGE);
+        }
+
+        try (CompilerClient client = new CompilerClient(port)) {
+            CompilerClient.Response response = client.compile(kind, Files.readAllBytes(Paths.get(file)));
+            if(response.isOk()) {
+                System.out.print(response.output);
+                System.out.flush();
+            } else {
+                System.err.println(response.output);
+                System.exit(response.status);
+            }
+        } catch (IOException e) {
+            // No server on the port, or the connection was lost
+            System.err.println("Could not compile " + file + " on the port " + port + ": " + e);
+            System.exit(CLIENT_FAILURE);
+        }
+    }
+
+    private static void runStreaming(String[] args) {
+        VisitorKind kind = VisitorKind.Semantic;
+        String file = null;
+
+        for(int i = 1; i < args.length; i++) {
+            if(args[i].equals("-visitor")) {
+                kind = visitorOption(args, ++i, STREAM_USAGE);
+            } else {
+                file = args[i];
+            }
+        }
+
+        if(file == null) {
+            usage("-stream needs the file to compile", STREAM_USAGE);
+        }
+
+        PrintWriter pw = new PrintWriter(System.out);
+        try {
+            RunStreaming(kind.create(pw), Paths.get(file), pw);
+        } catch (IOException | ParseException e) {
+            pw.flush();
+            e.printStackTrace();
+        }
+    }
+
+    private static void runCheck(String[] args) {
+        List<Path> paths = new ArrayList<>();
+        for(int i = 1; i < args.length; i++) {
+            paths.add(Paths.get(args[i]));
+        }
+
+        if(paths.isEmpty()) {
+            usage("-check needs a directory or a list of files", CHECK_USAGE);
+        }
+
+        int errors = 0;
+        try {
+            for(Path file : BatchCompiler.collectFiles(paths)) {
+                ParseException error = Recognizer.check(file);
+                if(error != null) {
+                    System.out.println(file + ": " + error.getMessage());
+                    errors++;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(2);
+        }
+        System.out.flush();
+        if(errors > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void runErrors(String[] args) {
+        if(args.length < 2) {
+            usage("-errors needs the file to check", ERRORS_USAGE);
+        }
+
+        Compiler compiler = new Compiler();
+        compiler.setAllErrors(true);
+        Compiler.Result result;
+        try (InputStream input = new java.io.BufferedInputStream(Files.newInputStream(Paths.get(args[1])))) {
+            result = compiler.compile(input, VisitorKind.Semantic);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(2);
+            return;
+        }
+
+        if(result.tree == null) {
+            System.out.println(result.error);
+        }
+        for(int i = 0; i < result.diagnostics.size(); i++) {
+            System.out.println(result.describe(i));
+        }
+        System.out.flush();
+        if(!result.isOk()) {
+            System.exit(1);
+        }
+    }
+
+    // The value of the option args[i - 1], between min and max
+    private static int numberOption(String[] args, int i, int min, int max, String usage) {
+        String value = optionValue(args, i, usage);
+        try {
+            int number = Integer.parseInt(value);
+            if(number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        String range = max == Integer.MAX_VALUE ? "of at least " + min : "between " + min + " and " + max;
+        usage(args[i - 1] + " expects a number " + range + ", not " + value, usage);
+        return min;
+    }
+
+    private static VisitorKind visitorOption(String[] args, int i, String usage) {
+        String value = optionValue(args, i, usage);
+        try {
+            return VisitorKind.fromName(value);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage(), usage);
+            return null;
+        }
+    }
+
+    private static String optionValue(String[] args, int i, String usage) {
+        if(i >= args.length) {
+            usage(args[i - 1] + " needs a value", usage);
+        }
+        return args[i];
+    }
+
+    // Print what is wrong and how to call the mode, then exit
+    private static void usage(String message, String usage) {
+        System.err.println(message);
+        System.err.println("usage: " + usage);
+        System.exit(USAGE_ERROR);
+    }
+
+    // Same output as Run for a program without syntax error, but the tree of the whole program
+    // is never built: each top-level statement is parsed, visited and dropped (see Parser.Stream).
+    // The file is mapped in memory, so the memory used does not depend on its size.
+    public static void RunStreaming(ParserVisitor visitor, Path file, PrintWriter output) throws ParseException, IOException {
+        ByteBufferCharStream stream = ByteBufferCharStream.map(file);
+        try {
+            if(stream.isPlainAscii()) {
+                Parser.Create(stream).Stream(visitor);
+            } else {
+                try (InputStream input = new java.io.BufferedInputStream(Files.newInputStream(file))) {
+                    Parser.Create(new JavaCharStream(input)).Stream(visitor);
+                }
+            }
+        } finally {
+            output.flush();
+        }
+    }
+
     // This is the main function of the program, it is used by main and it is used
     // by the test cases.
     public static void Run(ParserVisitor visitor, InputStream input, PrintWriter output) throws ParseException {
 
         // This line ask the parser built from the jjt file to read & parse the input file
-        ASTProgram root = Parser.ParseTree(input);
+        // (the parser of this thread is reused and the parse cache is used, see CompilerContext)
+        ASTProgram root = CompilerContext.current().parse(input);
 
         // After this we pass the visitor to the root of the parsed tree
         root.jjtAccept(visitor, null);
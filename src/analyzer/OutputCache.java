@@ -0,0 +1,238 @@
+package analyzer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Keeps in a directory what the compilations printed, so a program which
+ * did not change is not compiled again at all. An entry is found with the SHA-256 of
+ * the source, of the visitor kind and of the version of the compiler, and holds the
+ * output and the SemantiqueError thrown after it, if any. The programs with a syntax
+ * error are not cached.
+ *
+ * The version is the one of ParseCache, the digest of every file under analyzer/ in the
+ * directory or the jar the compiler is loaded from (all the classes, inner ones included,
+ * and the grammar), so any change of the compiler gives new keys. If they can not be read,
+ * the version is random: the entries are then only reused by the process which wrote them.
+ *
+ * The size of the directory is bounded: when it grows over the maximum, the entries
+ * used the least recently (the modification time is updated on each hit) are deleted.
+ * Like ParseCache, a file which can not be read or written is simply ignored.
+ */
+
+public class OutputCache {
+
+    // The directory of the cache used by CompilerContext.compile when it is set, and its maximum size
+    public static final String PROPERTY = "analyzer.outputCache";
+    public static final String MAX_BYTES_PROPERTY = "analyzer.outputCache.maxBytes";
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final byte[] VERSION = ParseCache.getVersion();
+    private static final String SUFFIX = ".out";
+
+    private static OutputCache m_shared;
+    private static boolean m_sharedLoaded = false;
+
+    // What a compilation printed, and the message of the SemantiqueError thrown after it (or null)
+    public static class Entry {
+        public final String output;
+        public final String error;
+
+        public Entry(String output, String error) {
+            this.output = output;
+            this.error = error;
+        }
+    }
+
+    private final Path m_directory;
+    private final long m_maxBytes;
+    private long m_size = -1;      // -1 until the directory is scanned
+
+    public OutputCache(Path directory, long maxBytes) {
+        m_directory = directory;
+        m_maxBytes = maxBytes;
+    }
+
+    // The cache of the property analyzer.outputCache, shared by all the threads. Null if it is not set.
+    public static synchronized OutputCache shared() {
+        if (!m_sharedLoaded) {
+            String directory = System.getProperty(PROPERTY);
+            if (directory != null && !directory.isEmpty()) {
+                long maxBytes = Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES);
+                m_shared = new OutputCache(Paths.get(directory), maxBytes);
+            }
+            m_sharedLoaded = true;
+        }
+        return m_shared;
+    }
+
+    public String key(VisitorKind kind, byte[] source, int offset, int length) {
+        MessageDigest digest = Digests.sha256();
+        digest.update(VERSION);
+        digest.update(kind.getName().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(source, offset, length);
+        return Digests.hex(digest.digest());
+    }
+
+    // The entry of this key, null if there is none or if it can not be read. A hit makes it
+    // the most recently used.
+    public Entry get(String key) {
+        Path file = m_directory.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            Entry entry = decode(ByteBuffer.wrap(Files.readAllBytes(file)));
+            if (entry != null) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return entry;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // The file is written aside then moved, a reader never sees half of it
+    public void put(String key, Entry entry) {
+        byte[] bytes = encode(entry);
+        try {
+            Files.createDirectories(m_directory);
+            Path temporary = Files.createTempFile(m_directory, key, ".tmp");
+            try {
+                Files.write(temporary, bytes);
+                Files.move(temporary, m_directory.resolve(key + SUFFIX),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        added(bytes.length);
+    }
+
+    // Count the new entry, and evict the oldest ones when the directory is too big
+    private synchronized void added(long bytes) {
+        if (m_size < 0) {
+            m_size = 0;
+            for (Path file : entries()) {
+                m_size += size(file);
+            }
+        } else {
+            m_size += bytes;
+        }
+        if (m_size <= m_maxBytes) {
+            return;
+        }
+
+        List<Path> files = entries();
+        final List<FileTime> times = new ArrayList<>(files.size());
+        List<Integer> order = new ArrayList<>(files.size());
+        m_size = 0;
+        for (int i = 0; i < files.size(); i++) {
+            times.add(modified(files.get(i)));
+            order.add(i);
+            m_size += size(files.get(i));
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return times.get(a).compareTo(times.get(b));
+            }
+        });
+
+        // Down to 3/4 of the maximum, so the next entries do not evict again right away
+        for (int i = 0; i < order.size() && m_size > m_maxBytes * 3 / 4; i++) {
+            Path file = files.get(order.get(i));
+            long size = size(file);
+            try {
+                Files.deleteIfExists(file);
+                m_size -= size;
+            } catch (IOException e) {
+                // Still there, it will be tried again
+            }
+        }
+    }
+
+    // The size of the entries of the directory, as known by this cache
+    public synchronized long size() {
+        return Math.max(m_size, 0);
+    }
+
+    private List<Path> entries() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(m_directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            // An empty cache
+        }
+        return files;
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime modified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime();
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    // The length and the UTF-8 bytes of the output, then the ones of the error (length -1 without it)
+    private static byte[] encode(Entry entry) {
+        byte[] output = entry.output.getBytes(StandardCharsets.UTF_8);
+        byte[] error = entry.error == null ? new byte[0] : entry.error.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + output.length + error.length);
+        buffer.putInt(output.length).put(output);
+        buffer.putInt(entry.error == null ? -1 : error.length).put(error);
+        return buffer.array();
+    }
+
+    private static Entry decode(ByteBuffer buffer) {
+        try {
+            String output = string(buffer, buffer.getInt());
+            int errorLength = buffer.getInt();
+            String error = errorLength < 0 ? null : string(buffer, errorLength);
+            return buffer.hasRemaining() ? null : new Entry(output, error);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String string(ByteBuffer buffer, int length) {
+        String s = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return s;
+    }
+
+    // The names of the files the version was computed from, empty if it is random
+    public static List<String> versionFiles() {
+        return ParseCache.versionFiles();
+    }
+}
@@ -0,0 +1,120 @@
+package analyzer;
+
+import analyzer.ast.ASTProgram;
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.ast.TreeSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Keeps the trees of the programs already parsed in a directory, serialized
+ * with TreeSerializer. A tree is found with the SHA-256 of its source and of the version
+ * of the compiler: a source which did not change is not parsed again, and a new compiler
+ * does not reuse the old trees. The version is the format of the trees and the digest of
+ * every file under analyzer/ where the compiler is loaded from (the classes of the parser,
+ * of the nodes and of TreeSerializer, and Langage.jjt copied there by the build), so no
+ * manual bump is needed when the grammar or a node changes. If the files can not be read,
+ * the version is random and the trees are only reused by the process which wrote them.
+ *
+ * The cache is only a shortcut: a file which can not be read or written is ignored and
+ * the program is parsed as usual. The programs with a syntax error are never cached.
+ */
+
+public class ParseCache {
+
+    // The directory of the cache used by Main.Run and CompilerContext when it is set
+    public static final String PROPERTY = "analyzer.parseCache";
+
+    private static List<String> m_versionFiles;
+    private static final byte[] VERSION = version();
+
+    private final Path m_directory;
+
+    public ParseCache(Path directory) {
+        m_directory = directory;
+    }
+
+    // The cache of the directory of the property analyzer.parseCache, null if it is not set
+    public static ParseCache fromProperties() {
+        String directory = System.getProperty(PROPERTY);
+        return directory == null || directory.isEmpty() ? null : new ParseCache(Paths.get(directory));
+    }
+
+    public Path getDirectory() {
+        return m_directory;
+    }
+
+    // The name of the file of a source in the cache
+    public String key(byte[] source, int offset, int length) {
+        MessageDigest digest = Digests.sha256();
+        digest.update(VERSION);
+        digest.update(source, offset, length);
+        return Digests.hex(digest.digest());
+    }
+
+    // The tree cached under this key, null if there is none or if it can not be read
+    public ASTProgram get(String key) {
+        Path file = m_directory.resolve(key + ".ast");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return TreeSerializer.read(Files.readAllBytes(file));
+        } catch (IOException | ParseException e) {
+            return null;
+        }
+    }
+
+    // The file is written aside then moved, a reader never sees half of it
+    public void put(String key, ASTProgram tree) {
+        try {
+            Files.createDirectories(m_directory);
+            Path temporary = Files.createTempFile(m_directory, key, ".tmp");
+            try {
+                Files.write(temporary, TreeSerializer.write(tree));
+                Files.move(temporary, m_directory.resolve(key + ".ast"),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            // Not cached, the source will be parsed again next time
+        }
+    }
+
+    // The bytes identifying the compiler, also used by OutputCache
+    static byte[] getVersion() {
+        return VERSION.clone();
+    }
+
+    // The names of the files the version was computed from, empty if it is random
+    static List<String> versionFiles() {
+        return m_versionFiles;
+    }
+
+    // The format of the trees, then all the files of the compiler
+    private static byte[] version() {
+        MessageDigest digest = Digests.sha256();
+        digest.update((byte) TreeSerializer.FORMAT);
+        List<String> files = Digests.updateWithCodeSource(digest, Parser.class, "analyzer/");
+        if (files == null || files.isEmpty()) {
+            digest.update(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+            files = Collections.emptyList();
+        }
+        m_versionFiles = Collections.unmodifiableList(files);
+        return digest.digest();
+    }
+}
@@ -1,11 +1,45 @@
 package analyzer;
 
+import analyzer.ast.LineIndex;
+import analyzer.ast.Node;
+import analyzer.ast.PositionedNode;
+
 /**
  * Created by febru on 19-02-01.
+ *
+ * The position of the node in error is kept (see PositionedNode), the message does not
+ * change: describe() gives it with its line and column.
+ * The stack trace is not filled, the position tells where the error is in the program
+ * and the error can be thrown or kept by the thousands (see Diagnostics) for cheap.
  */
 public class SemantiqueError extends Error{
+    private static final long serialVersionUID = 1L;
+
+    private final long m_position;
+
     public SemantiqueError(String message) {
-        super(message);
+        this(message, PositionedNode.UNKNOWN);
+    }
+
+    public SemantiqueError(String message, long position) {
+        super(message, null, false, false);
+        m_position = position;
     }
 
+    public SemantiqueError(String message, Node node) {
+        this(message, ((PositionedNode) node).getPosition());
+    }
+
+    // Offsets of the node in error packed like PositionedNode.getPosition(), -1 when unknown
+    public long getPosition() {
+        return m_position;
+    }
+
+    // The message followed by the line and the column of the error in the source of lines
+    public String describe(LineIndex lines) {
+        if (m_position == PositionedNode.UNKNOWN) {
+            return getMessage();
+        }
+        return getMessage() + " (" + lines.describe(m_position) + ")";
+    }
 }
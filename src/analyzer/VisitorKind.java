@@ -0,0 +1,54 @@
+package analyzer;
+
+import analyzer.visitors.IntermediateCodeGenFallVisitor;
+import analyzer.visitors.IntermediateCodeGenVisitor;
+import analyzer.visitors.ReusableVisitor;
+import analyzer.visitors.SemantiqueVisitor;
+
+import java.io.PrintWriter;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The different visitors that can be run on a program from the
+ * command line. Each kind knows how to build a fresh visitor printing in a writer.
+ */
+
+public enum VisitorKind {
+    Semantic("semantic"),
+    Tac("tac"),
+    FallTac("fall");
+
+    private final String m_name;
+
+    VisitorKind(String name) {
+        m_name = name;
+    }
+
+    public String getName() {
+        return m_name;
+    }
+
+    // Build a new visitor of this kind, visitors keep state so they must not be shared
+    // between threads (CompilerContext keeps one of each kind per thread)
+    public ReusableVisitor create(PrintWriter writer) {
+        switch (this) {
+            case Tac:
+                return new IntermediateCodeGenVisitor(writer);
+            case FallTac:
+                return new IntermediateCodeGenFallVisitor(writer);
+            default:
+                return new SemantiqueVisitor(writer);
+        }
+    }
+
+    public static VisitorKind fromName(String name) {
+        for (VisitorKind kind : values()) {
+            if (kind.m_name.equals(name)) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unknown visitor " + name + ", expected semantic, tac or fall");
+    }
+}
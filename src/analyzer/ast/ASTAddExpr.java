@@ -1,9 +1,7 @@
 package analyzer.ast;/* Generated By:JJTree: Do not edit this line. ASTAddExpr.java */
 
-import java.util.Vector;
 
-
-public class ASTAddExpr extends SimpleNode {
+public class ASTAddExpr extends OperatorNode {
   public ASTAddExpr(int id) {
     super(id);
   }
@@ -18,8 +16,14 @@ public class ASTAddExpr extends SimpleNode {
     return visitor.visit(this, data);
   }
 
-  // PLB
-  private Vector<String> m_ops = new Vector<>();
-  public void addOp(String o) { m_ops.add(o); }
-  public Vector getOps() { return m_ops; }
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitAddExpr(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitAddExpr(this, arg);
+  }
 }
@@ -0,0 +1,41 @@
+/* Generated By:JJTree: Do not edit this line. ASTAssignStmt.java Version 7.0 */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=false,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=PositionedNode,NODE_FACTORY=NodeArena,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+package analyzer.ast;
+
+public
+class ASTAssignStmt extends SimpleNode {
+  public ASTAssignStmt(int id) {
+    super(id);
+  }
+
+  public ASTAssignStmt(Parser p, int id) {
+    super(p, id);
+  }
+
+  public static Node jjtCreate(int id) {
+    return new ASTAssignStmt(id);
+  }
+
+  public static Node jjtCreate(Parser p, int id) {
+    return new ASTAssignStmt(p, id);
+  }
+
+  /** Accept the visitor. **/
+  public Object jjtAccept(ParserVisitor visitor, Object data) {
+
+    return
+    visitor.visit(this, data);
+  }
+
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitAssignStmt(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitAssignStmt(this, arg);
+  }
+}
+/* JavaCC - OriginalChecksum=486e3c46e9e5f43c812328a8e827bf05 (do not edit this line) */
@@ -0,0 +1,41 @@
+/* Generated By:JJTree: Do not edit this line. ASTBlock.java Version 7.0 */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=false,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=PositionedNode,NODE_FACTORY=NodeArena,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+package analyzer.ast;
+
+public
+class ASTBlock extends SimpleNode {
+  public ASTBlock(int id) {
+    super(id);
+  }
+
+  public ASTBlock(Parser p, int id) {
+    super(p, id);
+  }
+
+  public static Node jjtCreate(int id) {
+    return new ASTBlock(id);
+  }
+
+  public static Node jjtCreate(Parser p, int id) {
+    return new ASTBlock(p, id);
+  }
+
+  /** Accept the visitor. **/
+  public Object jjtAccept(ParserVisitor visitor, Object data) {
+
+    return
+    visitor.visit(this, data);
+  }
+
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitBlock(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitBlock(this, arg);
+  }
+}
+/* JavaCC - OriginalChecksum=5a1ede61850e95d5567a6edf4ddc8281 (do not edit this line) */
@@ -2,9 +2,7 @@
 /* JavaCCOptions:MULTI=true,NODE_USES_PARSER=false,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=,NODE_FACTORY=,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
 package analyzer.ast;
 
-import java.util.Vector;
-
-public class ASTBoolExpr extends SimpleNode {
+public class ASTBoolExpr extends OperatorNode {
   public ASTBoolExpr(int id) {
     super(id);
   }
@@ -19,10 +17,16 @@ public class ASTBoolExpr extends SimpleNode {
         return visitor.visit(this, data);
     }
 
-    // PLB
-    private Vector<String> m_ops = new Vector<>();
-    public void addOp(String o) { m_ops.add(o); }
-    public Vector getOps() { return m_ops; }
+    /** Accept the typed visitors. **/
+    @Override
+    public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+        return visitor.visitBoolExpr(this, arg);
+    }
+
+    @Override
+    public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+        return visitor.visitBoolExpr(this, arg);
+    }
 
 }
 /* JavaCC - OriginalChecksum=9de7ce665b48309618ff4d7aaa9aa4ac (do not edit this line) */
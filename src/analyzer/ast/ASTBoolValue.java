@@ -3,7 +3,7 @@
 package analyzer.ast;
 
 public
-class ASTBoolValue extends SimpleNode {
+class ASTBoolValue extends ExpressionNode {
   public ASTBoolValue(int id) {
     super(id);
   }
@@ -17,6 +17,17 @@ class ASTBoolValue extends SimpleNode {
     return visitor.visit(this, data);
   }
 
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitBoolValue(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitBoolValue(this, arg);
+  }
+
   // PLB
   private boolean m_value = false;
   public void setValue(boolean b) { m_value = b; }
@@ -0,0 +1,41 @@
+/* Generated By:JJTree: Do not edit this line. ASTCaseStmt.java Version 7.0 */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=false,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=PositionedNode,NODE_FACTORY=NodeArena,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+package analyzer.ast;
+
+public
+class ASTCaseStmt extends SimpleNode {
+  public ASTCaseStmt(int id) {
+    super(id);
+  }
+
+  public ASTCaseStmt(Parser p, int id) {
+    super(p, id);
+  }
+
+  public static Node jjtCreate(int id) {
+    return new ASTCaseStmt(id);
+  }
+
+  public static Node jjtCreate(Parser p, int id) {
+    return new ASTCaseStmt(p, id);
+  }
+
+  /** Accept the visitor. **/
+  public Object jjtAccept(ParserVisitor visitor, Object data) {
+
+    return
+    visitor.visit(this, data);
+  }
+
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitCaseStmt(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitCaseStmt(this, arg);
+  }
+}
+/* JavaCC - OriginalChecksum=370c6a1b487592c0fb25704a0405095a (do not edit this line) */
@@ -3,7 +3,7 @@
 package analyzer.ast;
 
 public
-class ASTCompExpr extends SimpleNode {
+class ASTCompExpr extends ExpressionNode {
   public ASTCompExpr(int id) {
     super(id);
   }
@@ -19,8 +19,26 @@ class ASTCompExpr extends SimpleNode {
     return visitor.visit(this, data);
   }
 
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitCompExpr(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitCompExpr(this, arg);
+  }
+
   // PLB
   private String m_value = null;
   public void setValue(String v) { m_value = v; }
   public String getValue() { return m_value; }
+
+  // The comparison is only set when there is one
+  @Override
+  void recycle() {
+    super.recycle();
+    m_value = null;
+  }
 }
\ No newline at end of file
@@ -18,6 +18,17 @@ public class ASTDeclaration extends SimpleNode {
     return visitor.visit(this, data);
   }
 
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitDeclaration(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitDeclaration(this, arg);
+  }
+
   // PLB
   private String m_value = null;
   public void setValue(String v) { m_value = v; }
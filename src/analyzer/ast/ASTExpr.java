@@ -3,7 +3,7 @@
 package analyzer.ast;
 
 public
-class ASTExpr extends SimpleNode {
+class ASTExpr extends ExpressionNode {
   public ASTExpr(int id) {
     super(id);
   }
@@ -18,6 +18,17 @@ class ASTExpr extends SimpleNode {
     return visitor.visit(this, data);
   }
 
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitExpr(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitExpr(this, arg);
+  }
+
   // PLB
   private String m_value = null;
   public void setValue(String v) { m_value = v; }
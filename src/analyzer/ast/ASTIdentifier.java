@@ -1,6 +1,6 @@
 package analyzer.ast;/* Generated By:JJTree: Do not edit this line. ASTIdentifier.java */
 
-public class ASTIdentifier extends SimpleNode {
+public class ASTIdentifier extends ExpressionNode {
   public ASTIdentifier(int id) {
     super(id);
   }
@@ -15,8 +15,31 @@ public class ASTIdentifier extends SimpleNode {
     return visitor.visit(this, data);
   }
 
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitIdentifier(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitIdentifier(this, arg);
+  }
+
   // PLB
   private String m_value = null;
   public void setValue(String v) { m_value = v; }
   public String getValue() { return m_value; }
+
+  // The id of the identifier in the SymbolTable of the semantic pass, -1 before it resolves
+  // it. The table checks that the id is still the one of the name before using it.
+  private int m_symbol = -1;
+  public void setSymbol(int symbol) { m_symbol = symbol; }
+  public int getSymbol() { return m_symbol; }
+
+  @Override
+  void recycle() {
+    super.recycle();
+    m_symbol = -1;
+  }
 }
@@ -0,0 +1,41 @@
+/* Generated By:JJTree: Do not edit this line. ASTIfStmt.java Version 7.0 */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=false,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=PositionedNode,NODE_FACTORY=NodeArena,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+package analyzer.ast;
+
+public
+class ASTIfStmt extends SimpleNode {
+  public ASTIfStmt(int id) {
+    super(id);
+  }
+
+  public ASTIfStmt(Parser p, int id) {
+    super(p, id);
+  }
+
+  public static Node jjtCreate(int id) {
+    return new ASTIfStmt(id);
+  }
+
+  public static Node jjtCreate(Parser p, int id) {
+    return new ASTIfStmt(p, id);
+  }
+
+  /** Accept the visitor. **/
+  public Object jjtAccept(ParserVisitor visitor, Object data) {
+
+    return
+    visitor.visit(this, data);
+  }
+
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitIfStmt(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitIfStmt(this, arg);
+  }
+}
+/* JavaCC - OriginalChecksum=d539522ce93cd057344158cc72301503 (do not edit this line) */
@@ -1,6 +1,6 @@
 package analyzer.ast;/* Generated By:JJTree: Do not edit this line. ASTIntValue.java */
 
-public class ASTIntValue extends SimpleNode {
+public class ASTIntValue extends ExpressionNode {
   public ASTIntValue(int id) {
     super(id);
   }
@@ -15,6 +15,17 @@ public class ASTIntValue extends SimpleNode {
     return visitor.visit(this, data);
   }
 
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitIntValue(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitIntValue(this, arg);
+  }
+
   // PLB
   private int m_value = 0;
   public void setValue(int v) { m_value = v; }
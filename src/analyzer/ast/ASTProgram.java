@@ -0,0 +1,41 @@
+/* Generated By:JJTree: Do not edit this line. ASTProgram.java Version 7.0 */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=false,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=PositionedNode,NODE_FACTORY=NodeArena,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+package analyzer.ast;
+
+public
+class ASTProgram extends SimpleNode {
+  public ASTProgram(int id) {
+    super(id);
+  }
+
+  public ASTProgram(Parser p, int id) {
+    super(p, id);
+  }
+
+  public static Node jjtCreate(int id) {
+    return new ASTProgram(id);
+  }
+
+  public static Node jjtCreate(Parser p, int id) {
+    return new ASTProgram(p, id);
+  }
+
+  /** Accept the visitor. **/
+  public Object jjtAccept(ParserVisitor visitor, Object data) {
+
+    return
+    visitor.visit(this, data);
+  }
+
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitProgram(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitProgram(this, arg);
+  }
+}
+/* JavaCC - OriginalChecksum=be0dcc3c21bade64d2747e30169bb135 (do not edit this line) */
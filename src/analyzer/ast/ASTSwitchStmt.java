@@ -0,0 +1,41 @@
+/* Generated By:JJTree: Do not edit this line. ASTSwitchStmt.java Version 7.0 */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=false,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=PositionedNode,NODE_FACTORY=NodeArena,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+package analyzer.ast;
+
+public
+class ASTSwitchStmt extends SimpleNode {
+  public ASTSwitchStmt(int id) {
+    super(id);
+  }
+
+  public ASTSwitchStmt(Parser p, int id) {
+    super(p, id);
+  }
+
+  public static Node jjtCreate(int id) {
+    return new ASTSwitchStmt(id);
+  }
+
+  public static Node jjtCreate(Parser p, int id) {
+    return new ASTSwitchStmt(p, id);
+  }
+
+  /** Accept the visitor. **/
+  public Object jjtAccept(ParserVisitor visitor, Object data) {
+
+    return
+    visitor.visit(this, data);
+  }
+
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitSwitchStmt(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitSwitchStmt(this, arg);
+  }
+}
+/* JavaCC - OriginalChecksum=a2576709e4a7bff3f8dfb063f43d41aa (do not edit this line) */
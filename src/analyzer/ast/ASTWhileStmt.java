@@ -0,0 +1,41 @@
+/* Generated By:JJTree: Do not edit this line. ASTWhileStmt.java Version 7.0 */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=false,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=PositionedNode,NODE_FACTORY=NodeArena,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+package analyzer.ast;
+
+public
+class ASTWhileStmt extends SimpleNode {
+  public ASTWhileStmt(int id) {
+    super(id);
+  }
+
+  public ASTWhileStmt(Parser p, int id) {
+    super(p, id);
+  }
+
+  public static Node jjtCreate(int id) {
+    return new ASTWhileStmt(id);
+  }
+
+  public static Node jjtCreate(Parser p, int id) {
+    return new ASTWhileStmt(p, id);
+  }
+
+  /** Accept the visitor. **/
+  public Object jjtAccept(ParserVisitor visitor, Object data) {
+
+    return
+    visitor.visit(this, data);
+  }
+
+  /** Accept the typed visitors. **/
+  @Override
+  public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+    return visitor.visitWhileStmt(this, arg);
+  }
+
+  @Override
+  public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+    return visitor.visitWhileStmt(this, arg);
+  }
+}
+/* JavaCC - OriginalChecksum=88bf782d77a872b5b0e244b73de93982 (do not edit this line) */
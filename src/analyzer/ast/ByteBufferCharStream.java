@@ -0,0 +1,255 @@
+package analyzer.ast;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A CharStream reading the bytes of a ByteBuffer (usually a mapped file)
+ * without copying them in a char buffer like JavaCharStream does.
+ *
+ * Every byte is one char and the unicode escapes (backslash u XXXX) are not processed,
+ * use isPlainAscii() to know if the content can be read this way. Otherwise, JavaCharStream
+ * must be used (see Parser.OpenStream).
+ *
+ * The line and column of a position are computed only when the token manager asks
+ * for them, by scanning forward from the last position computed. The offsets are the
+ * indexes of the bytes.
+ */
+
+public class ByteBufferCharStream implements OffsetCharStream {
+
+    private ByteBuffer m_buffer;
+    private int m_limit;
+
+    private int m_pos = 0;          // index of the next char to read
+    private int m_tokenBegin = 0;
+
+    private int m_tabSize = 1;
+    private boolean m_trackLineColumn = true;
+
+    // Position of the char at m_markIndex and the state of the line terminators after it
+    private int m_markIndex = -1;
+    private int m_markLine = 1;
+    private int m_markColumn = 0;
+    private boolean m_markPrevCR = false;
+    private boolean m_markPrevLF = false;
+
+    // Position of the beginning of the current token, kept to answer begin/end in any order
+    private int m_beginIndex = -1;
+    private int m_beginLine = 1;
+    private int m_beginColumn = 0;
+
+    private char[] m_image = new char[64];
+
+    public ByteBufferCharStream(ByteBuffer buffer) {
+        ReInit(buffer);
+    }
+
+    // Read another buffer from the beginning, the tab size and the image buffer are kept
+    public void ReInit(ByteBuffer buffer) {
+        m_buffer = buffer;
+        m_limit = buffer.limit();
+        m_pos = 0;
+        m_tokenBegin = 0;
+        m_markIndex = -1;
+        m_markLine = 1;
+        m_markColumn = 0;
+        m_markPrevCR = false;
+        m_markPrevLF = false;
+        m_beginIndex = -1;
+        m_beginLine = 1;
+        m_beginColumn = 0;
+    }
+
+    // Map a whole file in memory, the mapping stays valid after the channel is closed
+    public static ByteBufferCharStream map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ByteBufferCharStream(buffer);
+        }
+    }
+
+    // True if there is no unicode escape and no multi-byte char in the content. A backslash
+    // can not be part of any token, so it is enough to look for it.
+    public boolean isPlainAscii() {
+        for (int i = 0; i < m_limit; i++) {
+            byte b = m_buffer.get(i);
+            if (b < 0 || b == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        if (m_pos >= m_limit) {
+            throw new IOException();
+        }
+        return (char) (m_buffer.get(m_pos++) & 0xFF);
+    }
+
+    @Override
+    public char BeginToken() throws IOException {
+        m_tokenBegin = m_pos;
+        return readChar();
+    }
+
+    @Override
+    public void backup(int amount) {
+        m_pos -= amount;
+    }
+
+    @Override
+    public String GetImage() {
+        int length = m_pos - m_tokenBegin;
+        if (m_image.length < length) {
+            m_image = new char[Math.max(length, m_image.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            m_image[i] = (char) (m_buffer.get(m_tokenBegin + i) & 0xFF);
+        }
+        return new String(m_image, 0, length);
+    }
+
+    @Override
+    public char[] GetSuffix(int len) {
+        char[] ret = new char[len];
+        for (int i = 0; i < len; i++) {
+            ret[i] = (char) (m_buffer.get(m_pos - len + i) & 0xFF);
+        }
+        return ret;
+    }
+
+    @Override
+    public void Done() {
+    }
+
+    @Override
+    public int getBeginLine() {
+        computeBegin();
+        return m_beginLine;
+    }
+
+    @Override
+    public int getBeginColumn() {
+        computeBegin();
+        return m_beginColumn;
+    }
+
+    @Override
+    public int getBeginOffset() {
+        return m_tokenBegin;
+    }
+
+    @Override
+    public int getEndOffset() {
+        return m_pos;
+    }
+
+    @Override
+    public int getEndLine() {
+        moveMark(m_pos - 1);
+        return m_markLine;
+    }
+
+    @Override
+    public int getEndColumn() {
+        moveMark(m_pos - 1);
+        return m_markColumn;
+    }
+
+    @Override
+    @Deprecated
+    public int getColumn() {
+        return getEndColumn();
+    }
+
+    @Override
+    @Deprecated
+    public int getLine() {
+        return getEndLine();
+    }
+
+    @Override
+    public void setTabSize(int i) {
+        m_tabSize = i;
+    }
+
+    @Override
+    public int getTabSize() {
+        return m_tabSize;
+    }
+
+    @Override
+    public boolean getTrackLineColumn() {
+        return m_trackLineColumn;
+    }
+
+    @Override
+    public void setTrackLineColumn(boolean trackLineColumn) {
+        m_trackLineColumn = trackLineColumn;
+    }
+
+    private void computeBegin() {
+        if (m_beginIndex != m_tokenBegin) {
+            moveMark(m_tokenBegin);
+            m_beginIndex = m_tokenBegin;
+            m_beginLine = m_markLine;
+            m_beginColumn = m_markColumn;
+        }
+    }
+
+    // Same rules as JavaCharStream.UpdateLineColumn, applied from the mark up to index.
+    // The EOF token is placed on the last char, like JavaCharStream does.
+    private void moveMark(int index) {
+        if (!m_trackLineColumn) {
+            return;
+        }
+        index = Math.min(index, m_limit - 1);
+        if (index < m_markIndex) {
+            m_markIndex = -1;
+            m_markLine = 1;
+            m_markColumn = 0;
+            m_markPrevCR = false;
+            m_markPrevLF = false;
+        }
+        while (m_markIndex < index) {
+            char c = (char) (m_buffer.get(++m_markIndex) & 0xFF);
+            m_markColumn++;
+            if (m_markPrevLF) {
+                m_markPrevLF = false;
+                m_markLine += (m_markColumn = 1);
+            } else if (m_markPrevCR) {
+                m_markPrevCR = false;
+                if (c == '\n') {
+                    m_markPrevLF = true;
+                } else {
+                    m_markLine += (m_markColumn = 1);
+                }
+            }
+
+            switch (c) {
+                case '\r':
+                    m_markPrevCR = true;
+                    break;
+                case '\n':
+                    m_markPrevLF = true;
+                    break;
+                case '\t':
+                    m_markColumn--;
+                    m_markColumn += (m_tabSize - (m_markColumn % m_tabSize));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package analyzer.ast;
+
+import java.util.Arrays;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Optional pass which turns the expressions of a tree into a DAG. Two
+ * expression subtrees with the same nodes (kind, operators, value) and the same
+ * operands become the same object: the first one met takes the place of the others.
+ * The operands are interned before their parent, so comparing them by identity is
+ * enough, and "a * b + c" repeated on many statements is kept once.
+ *
+ * The code generators give the same temporary to a shared expression as long as its
+ * identifiers are not assigned and no label is met (see IntermediateCodeGenVisitor).
+ *
+ * A shared node keeps the parent of its first occurrence, jjtGetParent() must not be
+ * used on an interned tree. The identifiers of the declarations are not interned.
+ * The same interner can be used on the items of Parser.Stream one after the other.
+ */
+
+public class ExpressionInterner {
+
+    // Open addressing on the interned nodes (like StringPool), the size is a power of 2
+    private Node[] m_table = new Node[1024];
+    private int[] m_hashes = new int[1024];
+    private int m_size = 0;
+    private int m_expressions = 0;
+
+    // Intern the expressions below root, and root itself if it is one. The interned
+    // node is returned, it is root unless root is an expression seen before.
+    public Node intern(Node root) {
+        Node[] nodes = new Node[16];
+        int[] next = new int[16];
+        int top = 0;
+        nodes[0] = root;
+
+        while (top >= 0) {
+            Node current = nodes[top];
+            int i = next[top];
+            if (i < current.jjtGetNumChildren() && !(current instanceof ASTDeclaration)) {
+                next[top] = i + 1;
+                if (++top == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, top * 2);
+                    next = Arrays.copyOf(next, top * 2);
+                }
+                nodes[top] = current.jjtGetChild(i);
+                next[top] = 0;
+                continue;
+            }
+
+            // The children are done, the node is replaced in its parent by the interned one
+            nodes[top--] = null;
+            if (current instanceof ExpressionNode) {
+                Node interned = lookup((ExpressionNode) current);
+                if (top < 0) {
+                    return interned;
+                }
+                if (interned != current) {
+                    ((SimpleNode) nodes[top]).children[next[top] - 1] = interned;
+                }
+            }
+        }
+        return root;
+    }
+
+    // Number of expression nodes interned, and number of different ones among them
+    public int getExpressionCount() {
+        return m_expressions;
+    }
+
+    public int getDistinctCount() {
+        return m_size;
+    }
+
+    private Node lookup(ExpressionNode node) {
+        m_expressions++;
+        int hash = hash(node);
+        int mask = m_table.length - 1;
+        int index = hash & mask;
+        for (Node n = m_table[index]; n != null; n = m_table[index]) {
+            if (m_hashes[index] == hash && same(n, node)) {
+                ((ExpressionNode) n).setShared(true);
+                return n;
+            }
+            index = (index + 1) & mask;
+        }
+
+        m_table[index] = node;
+        m_hashes[index] = hash;
+        if (++m_size * 2 > m_table.length) {
+            grow();
+        }
+        return node;
+    }
+
+    // The nodes are compared on their own fields, their children being already interned
+    private static int hash(Node node) {
+        int hash = ((SimpleNode) node).id;
+        if (node instanceof ASTIntValue) {
+            hash = 31 * hash + ((ASTIntValue) node).getValue();
+        } else if (node instanceof ASTBoolValue) {
+            hash = 31 * hash + (((ASTBoolValue) node).getValue() ? 1 : 0);
+        } else if (node instanceof ASTIdentifier) {
+            hash = 31 * hash + ((ASTIdentifier) node).getValue().hashCode();
+        } else if (node instanceof ASTCompExpr) {
+            String comparison = ((ASTCompExpr) node).getValue();
+            hash = 31 * hash + (comparison == null ? 0 : comparison.hashCode());
+        } else if (node instanceof OperatorNode) {
+            OperatorNode operators = (OperatorNode) node;
+            for (int i = 0; i < operators.getOpCount(); i++) {
+                hash = 31 * hash + operators.getOp(i).code();
+            }
+        }
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            hash = 31 * hash + System.identityHashCode(node.jjtGetChild(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean same(Node a, Node b) {
+        if (((SimpleNode) a).id != ((SimpleNode) b).id || a.jjtGetNumChildren() != b.jjtGetNumChildren()) {
+            return false;
+        }
+        for (int i = 0; i < a.jjtGetNumChildren(); i++) {
+            if (a.jjtGetChild(i) != b.jjtGetChild(i)) {
+                return false;
+            }
+        }
+        if (a instanceof ASTIntValue) {
+            return ((ASTIntValue) a).getValue() == ((ASTIntValue) b).getValue();
+        } else if (a instanceof ASTBoolValue) {
+            return ((ASTBoolValue) a).getValue() == ((ASTBoolValue) b).getValue();
+        } else if (a instanceof ASTIdentifier) {
+            return ((ASTIdentifier) a).getValue().equals(((ASTIdentifier) b).getValue());
+        } else if (a instanceof ASTCompExpr) {
+            String comparison = ((ASTCompExpr) a).getValue();
+            return comparison == null ? ((ASTCompExpr) b).getValue() == null : comparison.equals(((ASTCompExpr) b).getValue());
+        } else if (a instanceof OperatorNode) {
+            OperatorNode x = (OperatorNode) a;
+            OperatorNode y = (OperatorNode) b;
+            if (x.getOpCount() != y.getOpCount()) {
+                return false;
+            }
+            for (int i = 0; i < x.getOpCount(); i++) {
+                if (x.getOp(i) != y.getOp(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        Node[] old = m_table;
+        int[] oldHashes = m_hashes;
+        m_table = new Node[old.length * 2];
+        m_hashes = new int[old.length * 2];
+        int mask = m_table.length - 1;
+        for (int i = 0; i < old.length; i++) {
+            if (old[i] != null) {
+                int index = oldHashes[i] & mask;
+                while (m_table[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                m_table[index] = old[i];
+                m_hashes[index] = oldHashes[i];
+            }
+        }
+    }
+}
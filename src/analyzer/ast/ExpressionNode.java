@@ -0,0 +1,64 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A node of an expression (Expr down to the values). The semantic pass
+ * stamps each one with its type, so the code generators read it directly instead of
+ * looking for the leftmost value and its declaration. The type is kept as one byte,
+ * it usually fits in the padding of the object.
+ */
+
+public abstract class ExpressionNode extends SimpleNode {
+
+    private static final VarType[] TYPES = VarType.values();
+    private static final byte NO_TYPE = -1;
+
+    private byte m_type = NO_TYPE;
+    private boolean m_parenthesized;
+    private boolean m_shared;
+
+    public ExpressionNode(int id) {
+        super(id);
+    }
+
+    public ExpressionNode(Parser p, int id) {
+        super(p, id);
+    }
+
+    // The type found by the semantic pass, null before it
+    public VarType getType() {
+        return m_type == NO_TYPE ? null : TYPES[m_type];
+    }
+
+    public void setType(VarType type) {
+        m_type = type == null ? NO_TYPE : (byte) type.ordinal();
+    }
+
+    // Whether the leftmost value of the expression is between parentheses, "(a) + 1" for example.
+    // The code generators compare such operands as booleans, whatever their type.
+    public boolean startsWithParenthesis() {
+        return m_parenthesized;
+    }
+
+    public void setStartsWithParenthesis(boolean parenthesized) {
+        m_parenthesized = parenthesized;
+    }
+
+    // Whether ExpressionInterner found the expression more than once
+    public boolean isShared() {
+        return m_shared;
+    }
+
+    public void setShared(boolean shared) {
+        m_shared = shared;
+    }
+
+    // Forget what was set on the node, before NodeArena gives it again
+    void recycle() {
+        m_type = NO_TYPE;
+        m_parenthesized = false;
+        m_shared = false;
+    }
+}
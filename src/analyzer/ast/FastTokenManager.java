@@ -0,0 +1,468 @@
+package analyzer.ast;
+
+import java.io.IOException;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A hand-written lexer which can replace the token manager generated
+ * from Langage.jjt. It gives the same tokens (kind, image, position and special tokens
+ * for the comments), but instead of simulating the NFA of JavaCC it classifies each
+ * char with a table and follows a small DFA for each class.
+ *
+ * The value of the INTEGER and BOOLEAN literals is computed while scanning them
+ * (see Token.intValue()) and the images of the identifiers and integers are interned
+ * in a StringPool. When reuseTokens is set, the tokens (except the comments) come from a
+ * small ring instead of being allocated: the parser only looks one token ahead and the
+ * grammar actions use a token right after consuming it, so a token must not be kept
+ * after the next few calls to getNextToken (Parser.getToken(i) is limited the same way).
+ *
+ * Any change to the tokens of Langage.jjt must be reported here, LexerTest compares
+ * both lexers on the test-suite and on random inputs.
+ */
+
+public class FastTokenManager extends ParserTokenManager {
+
+    // Classes of the ASCII chars, everything else is an error
+    private static final byte OTHER = 0;
+    private static final byte SPACE = 1;
+    private static final byte LETTER = 2;
+    private static final byte DIGIT = 3;
+    private static final byte SINGLE = 4;       // a token of one char, see SINGLE_KINDS
+    private static final byte OPERATOR = 5;     // first char of an operator or a comment
+
+    private static final byte[] CLASSES = new byte[128];
+    private static final int[] SINGLE_KINDS = new int[128];
+
+    private static final String[] KEYWORDS = {
+            "if", "then", "else", "while", "switch", "case", "default", "true", "false", "match",
+            "with", "do", "INPUT", "OUTPUT", "Declaration", "EndDeclaration", "bool", "num"
+    };
+    private static final int[] KEYWORD_KINDS = {
+            IF, THEN, ELSE, WHILE, SWITCH, CASE, DEF, BOOLEAN, BOOLEAN, MATCH,
+            WITH, DO, INPUT, OUTPUT, DEC, ENDDEC, TYPE, TYPE
+    };
+
+    static {
+        CLASSES[' '] = CLASSES['\t'] = CLASSES['\n'] = CLASSES['\r'] = SPACE;
+        for (char c = 'a'; c <= 'z'; c++) {
+            CLASSES[c] = LETTER;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CLASSES[c] = LETTER;
+        }
+        CLASSES['_'] = LETTER;
+        for (char c = '0'; c <= '9'; c++) {
+            CLASSES[c] = DIGIT;
+        }
+
+        int[] singles = {PLUS, MINUS, LPAREN, RPAREN, LACC, RACC, COLON, ENDSTMT, COMMA};
+        for (int kind : singles) {
+            char c = jjstrLiteralImages[kind].charAt(0);
+            CLASSES[c] = SINGLE;
+            SINGLE_KINDS[c] = kind;
+        }
+
+        for (char c : "=<>!*/%&|".toCharArray()) {
+            CLASSES[c] = OPERATOR;
+        }
+    }
+
+    private static final int RING_SIZE = 8;     // a power of 2
+
+    // The chars of the current word or integer, to find the keywords without building the image
+    private char[] m_word = new char[32];
+
+    private final StringPool m_pool = new StringPool();
+
+    private final Token[] m_ring;
+    private int m_ringIndex = 0;
+
+    public FastTokenManager(CharStream stream) {
+        this(stream, false);
+    }
+
+    public FastTokenManager(CharStream stream, boolean reuseTokens) {
+        super(stream);
+        if (reuseTokens) {
+            m_ring = new Token[RING_SIZE];
+            for (int i = 0; i < RING_SIZE; i++) {
+                m_ring[i] = new Token();
+            }
+        } else {
+            m_ring = null;
+        }
+    }
+
+    public StringPool getPool() {
+        return m_pool;
+    }
+
+    // A new compilation: the identifiers of the previous one are dropped
+    @Override
+    public void ReInit(CharStream stream) {
+        super.ReInit(stream);
+        m_pool.clear();
+    }
+
+    @Override
+    public Token getNextToken() {
+        Token specialToken = null;
+
+        for (;;) {
+            int c;
+            try {
+                c = input_stream.BeginToken();
+            } catch (IOException e) {
+                Token eof = fill(EOF, "");
+                eof.specialToken = specialToken;
+                return eof;
+            }
+
+            Token matched;
+            switch (c < 128 ? CLASSES[c] : OTHER) {
+                case SPACE:
+                    skipSpaces();
+                    continue;
+                case LETTER:
+                    matched = word(c);
+                    break;
+                case DIGIT:
+                    matched = number(c);
+                    break;
+                case SINGLE:
+                    matched = fill(SINGLE_KINDS[c], jjstrLiteralImages[SINGLE_KINDS[c]]);
+                    break;
+                case OPERATOR:
+                    matched = operator(c);
+                    break;
+                default:
+                    throw lexicalError(DEFAULT, c, "");
+            }
+
+            if (matched.kind >= SINGLE_LINE_COMMENT && matched.kind <= MULTI_LINE_COMMENT) {
+                // Same chaining as the generated token manager
+                if (specialToken == null) {
+                    specialToken = matched;
+                } else {
+                    matched.specialToken = specialToken;
+                    specialToken = (specialToken.next = matched);
+                }
+                continue;
+            }
+
+            matched.specialToken = specialToken;
+            return matched;
+        }
+    }
+
+    // Read one char, -1 at the end of the input (nothing is consumed in that case)
+    private int read() {
+        try {
+            return input_stream.readChar();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void unread(int c) {
+        if (c != -1) {
+            input_stream.backup(1);
+        }
+    }
+
+    private static boolean isSpace(int c) {
+        return c >= 0 && c < 128 && CLASSES[c] == SPACE;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordPart(int c) {
+        return c >= 0 && c < 128 && (CLASSES[c] == LETTER || CLASSES[c] == DIGIT);
+    }
+
+    private void skipSpaces() {
+        int c;
+        while (isSpace(c = read())) {
+        }
+        unread(c);
+    }
+
+    private Token word(int first) {
+        int length = 0;
+        int c = first;
+        do {
+            append(c, length++);
+        } while (isWordPart(c = read()));
+        unread(c);
+
+        for (int i = 0; i < KEYWORDS.length; i++) {
+            if (matches(KEYWORDS[i], length)) {
+                Token t = fill(KEYWORD_KINDS[i], KEYWORDS[i]);
+                if (t.kind == BOOLEAN) {
+                    setValue(t, KEYWORDS[i].equals("true") ? 1 : 0);
+                }
+                return t;
+            }
+        }
+        return fill(IDENTIFIER, m_pool.intern(m_word, length));
+    }
+
+    private void append(int c, int length) {
+        if (length == m_word.length) {
+            char[] word = new char[length * 2];
+            System.arraycopy(m_word, 0, word, 0, length);
+            m_word = word;
+        }
+        m_word[length] = (char) c;
+    }
+
+    private boolean matches(String keyword, int length) {
+        if (keyword.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (keyword.charAt(i) != m_word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // INTEGER is "0" or a number without leading 0, but a REAL can start by any sequence of digits
+    private Token number(int first) {
+        int digits = 0;
+        int c = first;
+        do {
+            append(c, digits++);
+        } while (isDigit(c = read()));
+
+        boolean real = false;
+        if (c == '.') {
+            int d = read();
+            if (isDigit(d)) {
+                while (isDigit(c = read())) {
+                }
+                real = true;
+                if (c == 'e' || c == 'E') {
+                    exponent();
+                } else {
+                    unread(c);
+                }
+            } else {
+                unread(d);
+                unread(c);
+            }
+        } else if (c == 'e' || c == 'E') {
+            real = exponent();
+        } else {
+            unread(c);
+        }
+
+        if (real) {
+            return fill(REAL, input_stream.GetImage());
+        }
+        if (first == '0' && digits > 1) {
+            input_stream.backup(digits - 1);
+            digits = 1;
+        }
+        return integer(digits);
+    }
+
+    // The digits are in m_word. Without overflow the value is kept, otherwise
+    // Token.intValue() fails like Integer.parseInt does.
+    private Token integer(int digits) {
+        Token t = fill(INTEGER, m_pool.intern(m_word, digits));
+        long value = 0;
+        for (int i = 0; i < digits; i++) {
+            value = value * 10 + (m_word[i] - '0');
+            if (value > Integer.MAX_VALUE) {
+                return t;
+            }
+        }
+        setValue(t, (int) value);
+        return t;
+    }
+
+    private static void setValue(Token t, int value) {
+        t.literalValue = value;
+        t.hasLiteralValue = true;
+    }
+
+    // Called after an 'e' or 'E' was read, everything is given back if it is not an exponent
+    private boolean exponent() {
+        int read = 1;
+        int c = read();
+        if (c == '+' || c == '-') {
+            read++;
+            c = read();
+        }
+        if (!isDigit(c)) {
+            unread(c);
+            input_stream.backup(read);
+            return false;
+        }
+        while (isDigit(c = read())) {
+        }
+        unread(c);
+        return true;
+    }
+
+    private Token operator(int first) {
+        int c = read();
+        switch (first) {
+            case '=':
+                if (c == '=') {
+                    return fill(COMPARE, "==");
+                }
+                unread(c);
+                return fill(ASSIGN, "=");
+            case '<':
+                if (c == '=') {
+                    return fill(COMPARE, "<=");
+                }
+                unread(c);
+                return fill(COMPARE, "<");
+            case '>':
+                if (c == '=') {
+                    return fill(COMPARE, ">=");
+                }
+                unread(c);
+                return fill(COMPARE, ">");
+            case '!':
+                if (c == '=') {
+                    return fill(COMPARE, "!=");
+                }
+                unread(c);
+                return fill(NOT, "!");
+            case '&':
+                if (c == '&') {
+                    return fill(BOOLOP, "&&");
+                }
+                unread(c);
+                throw lexicalError(DEFAULT, first, "");
+            case '|':
+                if (c == '|') {
+                    return fill(BOOLOP, "||");
+                }
+                unread(c);
+                throw lexicalError(DEFAULT, first, "");
+            case '*':
+                unread(c);
+                return fill(MULOP, "*");
+            case '%':
+                unread(c);
+                return fill(MULOP, "%");
+            default:
+                if (c == '/') {
+                    return singleLineComment();
+                } else if (c == '*') {
+                    return multiLineComment();
+                }
+                unread(c);
+                return fill(MULOP, "/");
+        }
+    }
+
+    private Token singleLineComment() {
+        for (;;) {
+            int c = read();
+            if (c == -1) {
+                throw commentError(IN_SINGLE_LINE_COMMENT);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    unread(next);
+                }
+                break;
+            }
+        }
+        return fill(SINGLE_LINE_COMMENT, input_stream.GetImage());
+    }
+
+    // "/*" was read. "/**" followed by anything but "/" is a formal comment
+    private Token multiLineComment() {
+        int kind = MULTI_LINE_COMMENT;
+        int lexState = IN_MULTI_LINE_COMMENT;
+        boolean star = false;
+
+        int c = read();
+        if (c == '*') {
+            int next = read();
+            if (next == '/') {
+                return fill(MULTI_LINE_COMMENT, input_stream.GetImage());
+            }
+            if (next != -1) {
+                unread(next);
+                kind = FORMAL_COMMENT;
+                lexState = IN_FORMAL_COMMENT;
+            } else {
+                star = true;
+            }
+        } else if (c == -1) {
+            throw commentError(IN_MULTI_LINE_COMMENT);
+        }
+
+        for (;;) {
+            c = read();
+            if (c == -1) {
+                throw commentError(lexState);
+            } else if (star && c == '/') {
+                return fill(kind, input_stream.GetImage());
+            }
+            star = c == '*';
+        }
+    }
+
+    private Token fill(int kind, String image) {
+        Token t;
+        if (m_ring == null || (kind >= SINGLE_LINE_COMMENT && kind <= MULTI_LINE_COMMENT)) {
+            // The comments stay chained to the next token, they are not reused
+            t = Token.newToken(kind);
+        } else {
+            t = m_ring[m_ringIndex++ & (RING_SIZE - 1)];
+            t.next = null;
+            t.specialToken = null;
+            t.hasLiteralValue = false;
+        }
+        t.kind = kind;
+        t.image = image;
+        t.beginLine = input_stream.getBeginLine();
+        t.beginColumn = input_stream.getBeginColumn();
+        t.endLine = input_stream.getEndLine();
+        t.endColumn = input_stream.getEndColumn();
+        CommonTokenAction(t);
+        return t;
+    }
+
+    private TokenMgrError commentError(int lexState) {
+        String image = input_stream.GetImage();
+        return lexicalError(lexState, image.charAt(image.length() - 1), image);
+    }
+
+    // Same message as the generated token manager: the position is the one of the last char read
+    private TokenMgrError lexicalError(int lexState, int curChar, String errorAfter) {
+        int errorLine = input_stream.getEndLine();
+        int errorColumn = input_stream.getEndColumn();
+        boolean eofSeen = false;
+        try {
+            input_stream.readChar();
+            input_stream.backup(1);
+        } catch (IOException e) {
+            eofSeen = true;
+            if (curChar == '\n' || curChar == '\r') {
+                errorLine++;
+                errorColumn = 0;
+            } else {
+                errorColumn++;
+            }
+        }
+        return new TokenMgrError(eofSeen, lexState, errorLine, errorColumn, errorAfter, curChar,
+                TokenMgrError.LEXICAL_ERROR);
+    }
+}
@@ -0,0 +1,412 @@
+package analyzer.ast;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A compact form of the tree of a program. The nodes are numbered in
+ * preorder (the Program is 0) and each one only takes a few entries of parallel arrays:
+ * its kind (the id of ParserTreeConstants), its first child, its next sibling, the
+ * operator written before it and a value. No node object is kept.
+ *
+ * The value of a node depends on its kind:
+ *  - IntValue: the integer, BoolValue: 1 or 0
+ *  - Identifier, Declaration: the index of the name (or the type) in the strings
+ *  - CompExpr: the code of the comparison (-1 without it)
+ *  - UnaExpr, NotExpr: the number of "-" or "!" before the value
+ * The operators of an AddExpr, MulExpr or BoolExpr are kept on the children: the
+ * operator of a child is the one between it and the previous child.
+ *
+ * parse() builds it from the top-level items of the parser (see Parser.Stream), so the
+ * nodes of a whole program are never alive at the same time.
+ *
+ * No visitor runs on the arrays: accept() is an adapter which builds the nodes of one
+ * top-level item again (see materialize()), visits them and drops them before the next
+ * item. The flat form saves the memory of a tree kept between the parse and the visit
+ * (and it is the form written by TreeSerializer), the visit itself is not faster.
+ */
+
+public class FlatTree {
+
+    public static final int NONE = -1;
+
+    // The code of "no operator", the others are the codes of Operator
+    static final byte NO_OP = -1;
+
+    private byte[] m_kind = new byte[256];
+    private int[] m_firstChild = new int[256];
+    private int[] m_nextSibling = new int[256];
+    private byte[] m_op = new byte[256];
+    private int[] m_value = new int[256];
+    private int m_size = 0;
+
+    private final ArrayList<String> m_strings = new ArrayList<>();
+
+    // Only used while the tree is built
+    private Map<String, Integer> m_stringIndex = new HashMap<>();
+    private int[] m_lastChild = new int[256];
+
+    private FlatTree() {
+    }
+
+    public static FlatTree parse(byte[] source) throws ParseException {
+        return parse(Parser.OpenStream(source));
+    }
+
+    // Same tree as Parser.Create(stream).Program(), built one top-level item at a time
+    public static FlatTree parse(CharStream stream) throws ParseException {
+        Parser parser = Parser.Create(stream);
+        FlatTree tree = new FlatTree();
+
+        int program = tree.append(ParserTreeConstants.JJTPROGRAM, NONE, NO_OP, 0);
+        ASTProgram prologue = parser.Prologue();
+        for (int i = 0; i < prologue.jjtGetNumChildren(); i++) {
+            tree.add(prologue.jjtGetChild(i), program);
+        }
+
+        int block = tree.append(ParserTreeConstants.JJTBLOCK, program, NO_OP, 0);
+        for (Node item = parser.NextItem(); item != null; item = parser.NextItem()) {
+            tree.add(item, block);
+        }
+        tree.trim();
+        return tree;
+    }
+
+    // The flat form of a tree which is already built
+    public static FlatTree of(Node root) {
+        FlatTree tree = new FlatTree();
+        tree.add(root, NONE);
+        tree.trim();
+        return tree;
+    }
+
+    public int size() {
+        return m_size;
+    }
+
+    public int kind(int node) {
+        return m_kind[node];
+    }
+
+    public int firstChild(int node) {
+        return m_firstChild[node];
+    }
+
+    public int nextSibling(int node) {
+        return m_nextSibling[node];
+    }
+
+    // The operator between the node and its previous sibling, null without it
+    public Operator op(int node) {
+        return m_op[node] == NO_OP ? null : Operator.fromCode(m_op[node]);
+    }
+
+    public int value(int node) {
+        return m_value[node];
+    }
+
+    // The name of an Identifier, the type of a Declaration, the comparison of a CompExpr
+    public String string(int node) {
+        if (m_kind[node] == ParserTreeConstants.JJTCOMPEXPR) {
+            return m_value[node] == NO_OP ? null : Operator.fromCode((byte) m_value[node]).getSymbol();
+        }
+        return m_strings.get(m_value[node]);
+    }
+
+    // The names and types, indexed by the value of the Identifier and Declaration nodes
+    List<String> strings() {
+        return m_strings;
+    }
+
+    // Run a visitor on the program like Parser.Stream does: the declarations, each top-level
+    // item, then an empty Program. Only the nodes of the item being visited exist.
+    // The tree must be the one of a Program (a Program without Block has no item).
+    public void accept(ParserVisitor visitor) {
+        if (m_kind[0] != ParserTreeConstants.JJTPROGRAM) {
+            throw new IllegalStateException("Only the tree of a Program can be visited, not of a " + ParserTreeConstants.jjtNodeName[m_kind[0]]);
+        }
+        int block = NONE;
+        for (int child = m_firstChild[0]; child != NONE; child = m_nextSibling[child]) {
+            if (m_kind[child] == ParserTreeConstants.JJTBLOCK) {
+                block = child;
+            } else {
+                materialize(child).jjtAccept(visitor, null);
+            }
+        }
+        for (int item = block == NONE ? NONE : m_firstChild[block]; item != NONE; item = m_nextSibling[item]) {
+            materialize(item).jjtAccept(visitor, null);
+        }
+        new ASTProgram(ParserTreeConstants.JJTPROGRAM).jjtAccept(visitor, null);
+    }
+
+    // The nodes of the whole program
+    public ASTProgram materialize() {
+        return (ASTProgram) materialize(0);
+    }
+
+    // The nodes of the subtree of a node, built with an explicit stack so a deep nesting
+    // does not use the call stack. The root has no parent.
+    public Node materialize(int root) {
+        Node[] nodes = new Node[16];
+        int[] indices = new int[16];
+        Node[] children = new Node[16];
+        int top = 0;
+        Node result = create(m_kind[root], m_value[root], m_strings);
+        nodes[0] = result;
+        indices[0] = root;
+
+        while (top >= 0) {
+            Node parent = nodes[top];
+            int index = indices[top];
+            nodes[top--] = null;
+
+            int count = 0;
+            for (int child = m_firstChild[index]; child != NONE; child = m_nextSibling[child]) {
+                Node node = create(m_kind[child], m_value[child], m_strings);
+                node.jjtSetParent(parent);
+                if (m_op[child] != NO_OP) {
+                    ((OperatorNode) parent).addOp(Operator.fromCode(m_op[child]));
+                }
+                if (count == children.length) {
+                    children = grow(children);
+                }
+                children[count++] = node;
+
+                if (m_firstChild[child] != NONE) {
+                    if (++top == nodes.length) {
+                        nodes = grow(nodes);
+                        indices = grow(indices);
+                    }
+                    nodes[top] = node;
+                    indices[top] = child;
+                }
+            }
+            // The last one first, the array of the children is allocated once
+            for (int i = count - 1; i >= 0; i--) {
+                parent.jjtAddChild(children[i], i);
+                children[i] = null;
+            }
+        }
+        return result;
+    }
+
+    // A node of this kind without children, value is read like in the arrays
+    static Node create(int kind, int value, List<String> strings) {
+        switch (kind) {
+            case ParserTreeConstants.JJTPROGRAM:
+                return new ASTProgram(ParserTreeConstants.JJTPROGRAM);
+            case ParserTreeConstants.JJTDECLARATION: {
+                ASTDeclaration declaration = new ASTDeclaration(ParserTreeConstants.JJTDECLARATION);
+                declaration.setValue(strings.get(value));
+                return declaration;
+            }
+            case ParserTreeConstants.JJTBLOCK:
+                return new ASTBlock(ParserTreeConstants.JJTBLOCK);
+            case ParserTreeConstants.JJTSTMT:
+                return new ASTStmt(ParserTreeConstants.JJTSTMT);
+            case ParserTreeConstants.JJTIFSTMT:
+                return new ASTIfStmt(ParserTreeConstants.JJTIFSTMT);
+            case ParserTreeConstants.JJTWHILESTMT:
+                return new ASTWhileStmt(ParserTreeConstants.JJTWHILESTMT);
+            case ParserTreeConstants.JJTASSIGNSTMT:
+                return new ASTAssignStmt(ParserTreeConstants.JJTASSIGNSTMT);
+            case ParserTreeConstants.JJTEXPR:
+                return new ASTExpr(ParserTreeConstants.JJTEXPR);
+            case ParserTreeConstants.JJTBOOLEXPR:
+                return new ASTBoolExpr(ParserTreeConstants.JJTBOOLEXPR);
+            case ParserTreeConstants.JJTCOMPEXPR: {
+                ASTCompExpr compExpr = new ASTCompExpr(ParserTreeConstants.JJTCOMPEXPR);
+                compExpr.setValue(value == NO_OP ? null : Operator.fromCode((byte) value).getSymbol());
+                return compExpr;
+            }
+            case ParserTreeConstants.JJTADDEXPR:
+                return new ASTAddExpr(ParserTreeConstants.JJTADDEXPR);
+            case ParserTreeConstants.JJTMULEXPR:
+                return new ASTMulExpr(ParserTreeConstants.JJTMULEXPR);
+            case ParserTreeConstants.JJTUNAEXPR: {
+                ASTUnaExpr unaExpr = new ASTUnaExpr(ParserTreeConstants.JJTUNAEXPR);
+                for (int i = 0; i < value; i++) {
+                    unaExpr.addOp(Operator.Minus);
+                }
+                return unaExpr;
+            }
+            case ParserTreeConstants.JJTNOTEXPR: {
+                ASTNotExpr notExpr = new ASTNotExpr(ParserTreeConstants.JJTNOTEXPR);
+                for (int i = 0; i < value; i++) {
+                    notExpr.addOp(Operator.Not);
+                }
+                return notExpr;
+            }
+            case ParserTreeConstants.JJTGENVALUE:
+                return new ASTGenValue(ParserTreeConstants.JJTGENVALUE);
+            case ParserTreeConstants.JJTBOOLVALUE: {
+                ASTBoolValue boolValue = new ASTBoolValue(ParserTreeConstants.JJTBOOLVALUE);
+                boolValue.setValue(value != 0);
+                return boolValue;
+            }
+            case ParserTreeConstants.JJTIDENTIFIER: {
+                ASTIdentifier identifier = new ASTIdentifier(ParserTreeConstants.JJTIDENTIFIER);
+                identifier.setValue(strings.get(value));
+                return identifier;
+            }
+            case ParserTreeConstants.JJTINTVALUE: {
+                ASTIntValue intValue = new ASTIntValue(ParserTreeConstants.JJTINTVALUE);
+                intValue.setValue(value);
+                return intValue;
+            }
+            case ParserTreeConstants.JJTSWITCHSTMT:
+                return new ASTSwitchStmt(ParserTreeConstants.JJTSWITCHSTMT);
+            case ParserTreeConstants.JJTDEFAULTSTMT:
+                return new ASTDefaultStmt(ParserTreeConstants.JJTDEFAULTSTMT);
+            case ParserTreeConstants.JJTCASESTMT:
+                return new ASTCaseStmt(ParserTreeConstants.JJTCASESTMT);
+            default:
+                throw new IllegalStateException("Unknown node kind " + kind);
+        }
+    }
+
+    // Append the subtree of a node as the last child of parent, in preorder
+    private void add(Node root, int parent) {
+        Node[] nodes = new Node[16];
+        int[] parents = new int[16];
+        byte[] ops = new byte[16];
+        int top = 0;
+        nodes[0] = root;
+        parents[0] = parent;
+        ops[0] = NO_OP;
+
+        while (top >= 0) {
+            Node node = nodes[top];
+            int index = append(node, parents[top], ops[top]);
+            nodes[top--] = null;
+
+            OperatorNode operators = binaryOperators(node);
+            // The last child first, so the first one is appended first
+            for (int i = node.jjtGetNumChildren() - 1; i >= 0; i--) {
+                if (++top == nodes.length) {
+                    nodes = grow(nodes);
+                    parents = grow(parents);
+                    ops = grow(ops);
+                }
+                nodes[top] = node.jjtGetChild(i);
+                parents[top] = index;
+                ops[top] = i > 0 && operators != null ? operators.getOp(i - 1).code() : NO_OP;
+            }
+        }
+    }
+
+    private int append(Node node, int parent, byte op) {
+        int kind = ((SimpleNode) node).id;
+        int value = 0;
+        if (node instanceof ASTIntValue) {
+            value = ((ASTIntValue) node).getValue();
+        } else if (node instanceof ASTBoolValue) {
+            value = ((ASTBoolValue) node).getValue() ? 1 : 0;
+        } else if (node instanceof ASTIdentifier) {
+            value = string(((ASTIdentifier) node).getValue());
+        } else if (node instanceof ASTDeclaration) {
+            value = string(((ASTDeclaration) node).getValue());
+        } else if (node instanceof ASTCompExpr) {
+            String comparison = ((ASTCompExpr) node).getValue();
+            value = comparison == null ? NO_OP : Operator.fromImage(comparison).code();
+        } else if (node instanceof ASTUnaExpr || node instanceof ASTNotExpr) {
+            value = ((OperatorNode) node).getOpCount();
+        }
+        return append(kind, parent, op, value);
+    }
+
+    private int append(int kind, int parent, int op, int value) {
+        if (m_size == m_kind.length) {
+            resize(m_size * 2);
+        }
+        int index = m_size++;
+        m_kind[index] = (byte) kind;
+        m_firstChild[index] = NONE;
+        m_nextSibling[index] = NONE;
+        m_op[index] = (byte) op;
+        m_value[index] = value;
+        m_lastChild[index] = NONE;
+
+        if (parent != NONE) {
+            if (m_lastChild[parent] == NONE) {
+                m_firstChild[parent] = index;
+            } else {
+                m_nextSibling[m_lastChild[parent]] = index;
+            }
+            m_lastChild[parent] = index;
+        }
+        return index;
+    }
+
+    // The operators kept on the children (the ones of UnaExpr and NotExpr are counted in the value)
+    private static OperatorNode binaryOperators(Node node) {
+        if (node instanceof ASTAddExpr || node instanceof ASTMulExpr || node instanceof ASTBoolExpr) {
+            return (OperatorNode) node;
+        }
+        return null;
+    }
+
+    private int string(String s) {
+        Integer index = m_stringIndex.get(s);
+        if (index == null) {
+            index = m_strings.size();
+            m_strings.add(s);
+            m_stringIndex.put(s, index);
+        }
+        return index;
+    }
+
+    // The arrays keep the exact size, the data used to build the tree is dropped
+    private void trim() {
+        resize(m_size);
+        m_lastChild = null;
+        m_stringIndex = null;
+        m_strings.trimToSize();
+    }
+
+    private void resize(int size) {
+        byte[] kind = new byte[size];
+        int[] firstChild = new int[size];
+        int[] nextSibling = new int[size];
+        byte[] op = new byte[size];
+        int[] value = new int[size];
+        System.arraycopy(m_kind, 0, kind, 0, m_size);
+        System.arraycopy(m_firstChild, 0, firstChild, 0, m_size);
+        System.arraycopy(m_nextSibling, 0, nextSibling, 0, m_size);
+        System.arraycopy(m_op, 0, op, 0, m_size);
+        System.arraycopy(m_value, 0, value, 0, m_size);
+        m_kind = kind;
+        m_firstChild = firstChild;
+        m_nextSibling = nextSibling;
+        m_op = op;
+        m_value = value;
+        if (m_lastChild != null) {
+            int[] lastChild = new int[size];
+            System.arraycopy(m_lastChild, 0, lastChild, 0, m_size);
+            m_lastChild = lastChild;
+        }
+    }
+
+    private static Node[] grow(Node[] array) {
+        Node[] grown = new Node[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static int[] grow(int[] array) {
+        int[] grown = new int[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static byte[] grow(byte[] array) {
+        byte[] grown = new byte[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
@@ -0,0 +1,315 @@
+package analyzer.ast;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Keeps the tree of a source which is edited, for an editor which needs
+ * the tree after every change. The offsets of the top-level items (the children of the
+ * top Block, and the Declaration section) are remembered. After a list of edits, only
+ * the items touched by the edits are parsed again (with the Prologue and NextItem
+ * productions, like Parser.Stream) and spliced into the old tree: the other items,
+ * the Program and its Block keep their identity.
+ *
+ * The positions of the nodes (see PositionedNode) are the ones a full parse would give:
+ * the reparsed items are moved to the offset of their region, the items after it by the
+ * change of length.
+ *
+ * When the reparsed region does not stand alone (an unbalanced brace, a comment left
+ * open, the Declaration keyword in the middle of the program...) or when the source
+ * needs JavaCharStream (unicode escapes), the whole source is parsed again.
+ */
+
+public class IncrementalParser {
+
+    // Replace "removed" chars at "offset" by "text". The offsets of an edit are in the
+    // source produced by the previous edits of the same list.
+    public static class Edit {
+        public final int offset;
+        public final int removed;
+        public final String text;
+
+        public Edit(int offset, int removed, String text) {
+            this.offset = offset;
+            this.removed = removed;
+            this.text = text;
+        }
+    }
+
+    private String m_source;
+    private ASTProgram m_tree;
+    private ASTBlock m_block;
+
+    // Start of the Declaration section (-1 without it), its end (0 without it) and range
+    // of each item of m_block
+    private int m_declarationsStart;
+    private int m_declarationsEnd;
+    private int[] m_itemStarts = new int[0];
+    private int[] m_itemEnds = new int[0];
+    private boolean m_offsetsKnown;
+
+    private int m_lastReparsedItems;
+    private boolean m_lastIncremental;
+
+    public IncrementalParser(String source) throws ParseException {
+        m_source = source;
+        parseAll();
+    }
+
+    public ASTProgram getTree() {
+        return m_tree;
+    }
+
+    public String getSource() {
+        return m_source;
+    }
+
+    // Range in the source of the i-th item of the top Block, the end is exclusive.
+    // -1 when the offsets are unknown (the source has unicode escapes).
+    public int getItemStart(int i) {
+        return m_offsetsKnown ? m_itemStarts[i] : -1;
+    }
+
+    public int getItemEnd(int i) {
+        return m_offsetsKnown ? m_itemEnds[i] : -1;
+    }
+
+    // Number of items built by the last call to apply(), and whether it was incremental
+    public int getLastReparsedItems() {
+        return m_lastReparsedItems;
+    }
+
+    public boolean wasLastIncremental() {
+        return m_lastIncremental;
+    }
+
+    // Apply the edits and return the new tree. After a ParseException the new source is
+    // kept and the next call parses it completely.
+    public ASTProgram apply(List<Edit> edits) throws ParseException {
+        if (edits.isEmpty() && m_tree != null) {
+            return m_tree;
+        }
+
+        String old = m_source;
+        StringBuilder sb = new StringBuilder(old);
+        int prefix = old.length();      // chars at the beginning which did not change
+        int suffix = old.length();      // chars at the end which did not change
+        for (Edit edit : edits) {
+            prefix = Math.min(prefix, edit.offset);
+            suffix = Math.min(suffix, sb.length() - edit.offset - edit.removed);
+            sb.replace(edit.offset, edit.offset + edit.removed, edit.text);
+        }
+        m_source = sb.toString();
+        suffix = Math.min(suffix, Math.min(old.length(), m_source.length()) - prefix);
+
+        if (m_tree == null || !m_offsetsKnown || !reparse(prefix, old.length() - suffix, m_source.length() - old.length())) {
+            parseAll();
+        }
+        return m_tree;
+    }
+
+    // Reparse the items touching [changeStart, changeEnd] of the old source, false if it can not
+    // be done alone. Nothing is modified before the region is parsed successfully.
+    private boolean reparse(int changeStart, int changeEnd, int delta) {
+        int count = m_itemStarts.length;
+        boolean prologue = changeStart <= m_declarationsEnd;
+
+        int first = 0;
+        if (!prologue) {
+            while (first < count && m_itemEnds[first] < changeStart) {
+                first++;
+            }
+        }
+        int last = count - 1;
+        while (last >= first && m_itemStarts[last] > changeEnd) {
+            last--;
+        }
+
+        int regionStart = prologue ? 0 : (first > 0 ? m_itemEnds[first - 1] : m_declarationsEnd);
+        int regionEnd = (last + 1 < count ? m_itemStarts[last + 1] : m_source.length() - delta) + delta;
+
+        Region region = new Region(m_source.substring(regionStart, regionEnd), regionStart);
+        if (!region.parse(prologue)) {
+            return false;
+        }
+
+        int added = region.items.size();
+        int kept = count - (last + 1);
+        int[] starts = new int[first + added + kept];
+        int[] ends = new int[starts.length];
+        Node[] children = new Node[starts.length];
+
+        System.arraycopy(m_itemStarts, 0, starts, 0, first);
+        System.arraycopy(m_itemEnds, 0, ends, 0, first);
+        for (int i = 0; i < first; i++) {
+            children[i] = m_block.jjtGetChild(i);
+        }
+        for (int i = 0; i < added; i++) {
+            starts[first + i] = region.starts.get(i);
+            ends[first + i] = region.ends.get(i);
+            children[first + i] = region.items.get(i);
+            children[first + i].jjtSetParent(m_block);
+        }
+        for (int i = 0; i < kept; i++) {
+            starts[first + added + i] = m_itemStarts[last + 1 + i] + delta;
+            ends[first + added + i] = m_itemEnds[last + 1 + i] + delta;
+            children[first + added + i] = m_block.jjtGetChild(last + 1 + i);
+            if (delta != 0) {
+                shift(children[first + added + i], delta);
+            }
+        }
+
+        m_itemStarts = starts;
+        m_itemEnds = ends;
+        m_block.children = children.length == 0 ? null : children;
+        if (prologue) {
+            m_declarationsStart = region.declarationsStart;
+            m_declarationsEnd = region.declarationsEnd;
+            setDeclarations(region.declarations);
+        }
+        setRootPositions();
+
+        m_lastReparsedItems = added;
+        m_lastIncremental = true;
+        return true;
+    }
+
+    private void parseAll() throws ParseException {
+        m_tree = null;
+        m_lastIncremental = false;
+
+        Region region = new Region(m_source, 0);
+        if (!region.parse(true)) {
+            // A syntax error, reported like a normal parse does, or unicode escapes. Without
+            // the offsets of the items, the next edits will parse everything again.
+            m_tree = Parser.Create(Parser.OpenStream(m_source.getBytes(StandardCharsets.UTF_8))).Program();
+            m_block = (ASTBlock) m_tree.jjtGetChild(m_tree.jjtGetNumChildren() - 1);
+            m_offsetsKnown = false;
+            m_lastReparsedItems = m_block.jjtGetNumChildren();
+            return;
+        }
+
+        m_offsetsKnown = true;
+        m_tree = new ASTProgram(ParserTreeConstants.JJTPROGRAM);
+        m_block = new ASTBlock(ParserTreeConstants.JJTBLOCK);
+        m_declarationsStart = region.declarationsStart;
+        m_declarationsEnd = region.declarationsEnd;
+        setDeclarations(region.declarations);
+
+        int count = region.items.size();
+        m_itemStarts = new int[count];
+        m_itemEnds = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            m_itemStarts[i] = region.starts.get(i);
+            m_itemEnds[i] = region.ends.get(i);
+            m_block.jjtAddChild(region.items.get(i), i);
+            region.items.get(i).jjtSetParent(m_block);
+        }
+        setRootPositions();
+        m_lastReparsedItems = count;
+    }
+
+    // The Program and its Block are not parsed, their positions are the ones the parser
+    // would give them: the Block goes from its first item to its last one (empty at the
+    // end without any item), the Program from its first token to the end.
+    private void setRootPositions() {
+        int length = m_source.length();
+        int count = m_itemStarts.length;
+        int blockBegin = count > 0 ? m_itemStarts[0] : length;
+        m_block.setPosition(blockBegin, count > 0 ? m_itemEnds[count - 1] : blockBegin);
+        m_tree.setPosition(m_declarationsStart >= 0 ? m_declarationsStart : blockBegin, length);
+    }
+
+    // Move the positions of a subtree which was parsed at another offset
+    private static void shift(Node root, int delta) {
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            SimpleNode node = (SimpleNode) stack.remove(stack.size() - 1);
+            if (node.hasPosition()) {
+                node.setPosition(node.getBeginOffset() + delta, node.getEndOffset() + delta);
+            }
+            for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+                stack.add(node.jjtGetChild(i));
+            }
+        }
+    }
+
+    // The children of the Program are the declarations then the Block
+    private void setDeclarations(List<Node> declarations) {
+        Node[] children = new Node[declarations.size() + 1];
+        for (int i = 0; i < declarations.size(); i++) {
+            children[i] = declarations.get(i);
+            children[i].jjtSetParent(m_tree);
+        }
+        children[declarations.size()] = m_block;
+        m_block.jjtSetParent(m_tree);
+        m_tree.children = children;
+    }
+
+    // A part of the source parsed alone, the offsets found and the positions of the nodes
+    // built are moved in the whole source
+    private static class Region {
+        private final String m_text;
+        private final int m_offset;
+
+        final List<Node> declarations = new ArrayList<>();
+        int declarationsStart = -1;
+        int declarationsEnd = 0;
+
+        final List<Node> items = new ArrayList<>();
+        final List<Integer> starts = new ArrayList<>();
+        final List<Integer> ends = new ArrayList<>();
+
+        Region(String text, int offset) {
+            m_text = text;
+            m_offset = offset;
+        }
+
+        boolean parse(boolean prologue) {
+            ByteBufferCharStream stream = new ByteBufferCharStream(ByteBuffer.wrap(m_text.getBytes(StandardCharsets.UTF_8)));
+            if (!stream.isPlainAscii()) {
+                return false;
+            }
+
+            Parser parser = Parser.Create(stream);
+            try {
+                if (prologue) {
+                    ASTProgram program = parser.Prologue();
+                    for (int i = 0; i < program.jjtGetNumChildren(); i++) {
+                        declarations.add(shifted(program.jjtGetChild(i)));
+                    }
+                    if (parser.token.kind == ParserConstants.ENDDEC) {
+                        declarationsStart = m_offset + program.getBeginOffset();
+                        declarationsEnd = m_offset + parser.token.endOffset;
+                    }
+                }
+                for (;;) {
+                    // The tokens may be reused by the lexer, the offset is read right away
+                    int start = m_offset + parser.getToken(1).beginOffset;
+                    Node item = parser.NextItem();
+                    if (item == null) {
+                        return true;
+                    }
+                    items.add(shifted(item));
+                    starts.add(start);
+                    ends.add(m_offset + parser.token.endOffset);
+                }
+            } catch (ParseException | TokenMgrError e) {
+                return false;
+            }
+        }
+
+        private Node shifted(Node node) {
+            if (m_offset != 0) {
+                shift(node, m_offset);
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Same as NodeVisitor for a visitor whose result is an int (a type code, the
+ * id of an operand...). A node is visited with its acceptInt().
+ */
+
+public interface IntNodeVisitor<A> {
+    // A node of an unknown kind
+    int visitNode(SimpleNode node, A arg);
+
+    int visitProgram(ASTProgram node, A arg);
+    int visitDeclaration(ASTDeclaration node, A arg);
+    int visitBlock(ASTBlock node, A arg);
+    int visitStmt(ASTStmt node, A arg);
+    int visitIfStmt(ASTIfStmt node, A arg);
+    int visitWhileStmt(ASTWhileStmt node, A arg);
+    int visitAssignStmt(ASTAssignStmt node, A arg);
+    int visitExpr(ASTExpr node, A arg);
+    int visitBoolExpr(ASTBoolExpr node, A arg);
+    int visitCompExpr(ASTCompExpr node, A arg);
+    int visitAddExpr(ASTAddExpr node, A arg);
+    int visitMulExpr(ASTMulExpr node, A arg);
+    int visitUnaExpr(ASTUnaExpr node, A arg);
+    int visitNotExpr(ASTNotExpr node, A arg);
+    int visitGenValue(ASTGenValue node, A arg);
+    int visitBoolValue(ASTBoolValue node, A arg);
+    int visitIdentifier(ASTIdentifier node, A arg);
+    int visitIntValue(ASTIntValue node, A arg);
+    int visitSwitchStmt(ASTSwitchStmt node, A arg);
+    int visitDefaultStmt(ASTDefaultStmt node, A arg);
+    int visitCaseStmt(ASTCaseStmt node, A arg);
+}
@@ -0,0 +1,128 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Same as NodeVisitorAdapter for an IntNodeVisitor. The int returned to
+ * jjtAccept() is boxed, it is done once for a whole visit.
+ */
+
+public abstract class IntNodeVisitorAdapter<A> implements ParserVisitor, IntNodeVisitor<A> {
+
+    @Override
+    public Object visit(SimpleNode node, Object data) {
+        return Integer.valueOf(visitNode(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTProgram node, Object data) {
+        return Integer.valueOf(visitProgram(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTDeclaration node, Object data) {
+        return Integer.valueOf(visitDeclaration(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTBlock node, Object data) {
+        return Integer.valueOf(visitBlock(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTStmt node, Object data) {
+        return Integer.valueOf(visitStmt(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTIfStmt node, Object data) {
+        return Integer.valueOf(visitIfStmt(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTWhileStmt node, Object data) {
+        return Integer.valueOf(visitWhileStmt(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTAssignStmt node, Object data) {
+        return Integer.valueOf(visitAssignStmt(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTExpr node, Object data) {
+        return Integer.valueOf(visitExpr(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTBoolExpr node, Object data) {
+        return Integer.valueOf(visitBoolExpr(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTCompExpr node, Object data) {
+        return Integer.valueOf(visitCompExpr(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTAddExpr node, Object data) {
+        return Integer.valueOf(visitAddExpr(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTMulExpr node, Object data) {
+        return Integer.valueOf(visitMulExpr(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTUnaExpr node, Object data) {
+        return Integer.valueOf(visitUnaExpr(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTNotExpr node, Object data) {
+        return Integer.valueOf(visitNotExpr(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTGenValue node, Object data) {
+        return Integer.valueOf(visitGenValue(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTBoolValue node, Object data) {
+        return Integer.valueOf(visitBoolValue(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTIdentifier node, Object data) {
+        return Integer.valueOf(visitIdentifier(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTIntValue node, Object data) {
+        return Integer.valueOf(visitIntValue(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTSwitchStmt node, Object data) {
+        return Integer.valueOf(visitSwitchStmt(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTDefaultStmt node, Object data) {
+        return Integer.valueOf(visitDefaultStmt(node, arg(data)));
+    }
+
+    @Override
+    public Object visit(ASTCaseStmt node, Object data) {
+        return Integer.valueOf(visitCaseStmt(node, arg(data)));
+    }
+
+    // The data given to jjtAccept() is the argument of the typed visit
+    @SuppressWarnings("unchecked")
+    private A arg(Object data) {
+        return (A) data;
+    }
+}
@@ -0,0 +1,101 @@
+package analyzer.ast;
+
+import java.util.Arrays;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The offsets where the lines of a source start, to turn the offsets kept
+ * by the nodes (see PositionedNode) into a line and a column with a binary search. The
+ * line terminators are the ones of the CharStreams ("\r", "\n" or "\r\n") and the lines
+ * and columns start at 1, like in the tokens. A tab counts as one column.
+ */
+
+public class LineIndex {
+
+    private final int[] m_starts;
+    private final int m_lines;
+
+    private LineIndex(int[] starts, int lines) {
+        m_starts = starts;
+        m_lines = lines;
+    }
+
+    public static LineIndex of(CharSequence text) {
+        int length = text.length();
+        int lines = 1;
+        int[] starts = new int[16];
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 == length || text.charAt(i + 1) != '\n'))) {
+                if (lines == starts.length) {
+                    starts = Arrays.copyOf(starts, lines * 2);
+                }
+                starts[lines++] = i + 1;
+            }
+        }
+        return new LineIndex(starts, lines);
+    }
+
+    // The bytes are chars of one byte, like ByteBufferCharStream reads them
+    public static LineIndex of(byte[] bytes, int offset, int length) {
+        int lines = 1;
+        int[] starts = new int[16];
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '\n' || (b == '\r' && (i + 1 == end || bytes[i + 1] != '\n'))) {
+                if (lines == starts.length) {
+                    starts = Arrays.copyOf(starts, lines * 2);
+                }
+                starts[lines++] = i + 1 - offset;
+            }
+        }
+        return new LineIndex(starts, lines);
+    }
+
+    public int getLineCount() {
+        return m_lines;
+    }
+
+    // Offset of the first char of a line
+    public int lineStart(int line) {
+        return m_starts[line - 1];
+    }
+
+    // Line of the char at offset, an offset past the end is on the last line
+    public int line(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative offset " + offset);
+        }
+        int low = 0;
+        int high = m_lines - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (m_starts[middle] <= offset) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low + 1;
+    }
+
+    public int column(int offset) {
+        return offset - m_starts[line(offset) - 1] + 1;
+    }
+
+    public int offset(int line, int column) {
+        return m_starts[line - 1] + column - 1;
+    }
+
+    // "line L, column C" of the first char of a position, for the messages
+    public String describe(long position) {
+        if (position == PositionedNode.UNKNOWN) {
+            return "unknown position";
+        }
+        int begin = PositionedNode.begin(position);
+        return "line " + line(begin) + ", column " + column(begin);
+    }
+}
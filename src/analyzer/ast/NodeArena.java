@@ -0,0 +1,139 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The factory of the nodes built by the parser (NODE_FACTORY of the grammar).
+ * Without an arena, a new node is returned. When a thread has installed an arena, the
+ * nodes come from it: after reset(), the nodes of the previous trees are given again,
+ * emptied, so a thread compiling many programs (see CompilerContext) stops allocating
+ * nodes once its arena holds as many nodes as its largest program.
+ *
+ * The trees built with an arena are only valid until its next reset().
+ * The arrays of the children are allocated by jjtAddChild() when the node is closed,
+ * the last child first, so they have the right size from the start.
+ */
+
+public class NodeArena {
+
+    private static final ThreadLocal<NodeArena> CURRENT = new ThreadLocal<>();
+
+    private static final int KINDS = ParserTreeConstants.jjtNodeName.length;
+
+    // For each kind, the nodes created by this arena; the first m_used[kind] are in use
+    private final SimpleNode[][] m_nodes = new SimpleNode[KINDS][];
+    private final int[] m_used = new int[KINDS];
+    private final int[] m_count = new int[KINDS];
+
+    // Called by the parser for every node
+    public static Node jjtCreate(int id) {
+        NodeArena arena = CURRENT.get();
+        return arena == null ? newNode(id) : arena.create(id);
+    }
+
+    // The nodes of the parsers of this thread come from arena (a new node each time with null),
+    // the arena installed before is returned
+    public static NodeArena install(NodeArena arena) {
+        NodeArena previous = CURRENT.get();
+        if (arena == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(arena);
+        }
+        return previous;
+    }
+
+    // Every node of the arena can be given again, the trees built before must not be used anymore
+    public void reset() {
+        for (int kind = 0; kind < KINDS; kind++) {
+            m_used[kind] = 0;
+        }
+    }
+
+    // Number of nodes held by the arena
+    public int size() {
+        int size = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            size += m_count[kind];
+        }
+        return size;
+    }
+
+    private Node create(int id) {
+        int used = m_used[id];
+        if (used < m_count[id]) {
+            SimpleNode node = m_nodes[id][used];
+            m_used[id] = used + 1;
+            node.parent = null;
+            node.children = null;
+            node.setPosition(PositionedNode.UNKNOWN);
+            if (node instanceof ExpressionNode) {
+                ((ExpressionNode) node).recycle();
+            }
+            return node;
+        }
+
+        SimpleNode node = (SimpleNode) newNode(id);
+        SimpleNode[] nodes = m_nodes[id];
+        if (nodes == null) {
+            nodes = m_nodes[id] = new SimpleNode[64];
+        } else if (used == nodes.length) {
+            SimpleNode[] grown = new SimpleNode[used * 2];
+            System.arraycopy(nodes, 0, grown, 0, used);
+            nodes = m_nodes[id] = grown;
+        }
+        nodes[used] = node;
+        m_count[id] = m_used[id] = used + 1;
+        return node;
+    }
+
+    private static Node newNode(int id) {
+        switch (id) {
+            case ParserTreeConstants.JJTPROGRAM:
+                return new ASTProgram(id);
+            case ParserTreeConstants.JJTDECLARATION:
+                return new ASTDeclaration(id);
+            case ParserTreeConstants.JJTBLOCK:
+                return new ASTBlock(id);
+            case ParserTreeConstants.JJTSTMT:
+                return new ASTStmt(id);
+            case ParserTreeConstants.JJTIFSTMT:
+                return new ASTIfStmt(id);
+            case ParserTreeConstants.JJTWHILESTMT:
+                return new ASTWhileStmt(id);
+            case ParserTreeConstants.JJTASSIGNSTMT:
+                return new ASTAssignStmt(id);
+            case ParserTreeConstants.JJTEXPR:
+                return new ASTExpr(id);
+            case ParserTreeConstants.JJTBOOLEXPR:
+                return new ASTBoolExpr(id);
+            case ParserTreeConstants.JJTCOMPEXPR:
+                return new ASTCompExpr(id);
+            case ParserTreeConstants.JJTADDEXPR:
+                return new ASTAddExpr(id);
+            case ParserTreeConstants.JJTMULEXPR:
+                return new ASTMulExpr(id);
+            case ParserTreeConstants.JJTUNAEXPR:
+                return new ASTUnaExpr(id);
+            case ParserTreeConstants.JJTNOTEXPR:
+                return new ASTNotExpr(id);
+            case ParserTreeConstants.JJTGENVALUE:
+                return new ASTGenValue(id);
+            case ParserTreeConstants.JJTBOOLVALUE:
+                return new ASTBoolValue(id);
+            case ParserTreeConstants.JJTIDENTIFIER:
+                return new ASTIdentifier(id);
+            case ParserTreeConstants.JJTINTVALUE:
+                return new ASTIntValue(id);
+            case ParserTreeConstants.JJTSWITCHSTMT:
+                return new ASTSwitchStmt(id);
+            case ParserTreeConstants.JJTDEFAULTSTMT:
+                return new ASTDefaultStmt(id);
+            case ParserTreeConstants.JJTCASESTMT:
+                return new ASTCaseStmt(id);
+            default:
+                throw new IllegalArgumentException("Unknown node kind " + id);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A visitor of the tree with a typed argument and a typed result, unlike
+ * ParserVisitor where both are Object. A node is visited with its accept() (declared on
+ * PositionedNode, the base of every node), IntNodeVisitor is the same visitor returning
+ * an int, without boxing.
+ *
+ * The methods are named after the nodes so that a class can implement ParserVisitor too
+ * (see NodeVisitorAdapter): visit(ASTBlock, Object) and visit(ASTBlock, A) would clash.
+ */
+
+public interface NodeVisitor<A, R> {
+    // A node of an unknown kind
+    R visitNode(SimpleNode node, A arg);
+
+    R visitProgram(ASTProgram node, A arg);
+    R visitDeclaration(ASTDeclaration node, A arg);
+    R visitBlock(ASTBlock node, A arg);
+    R visitStmt(ASTStmt node, A arg);
+    R visitIfStmt(ASTIfStmt node, A arg);
+    R visitWhileStmt(ASTWhileStmt node, A arg);
+    R visitAssignStmt(ASTAssignStmt node, A arg);
+    R visitExpr(ASTExpr node, A arg);
+    R visitBoolExpr(ASTBoolExpr node, A arg);
+    R visitCompExpr(ASTCompExpr node, A arg);
+    R visitAddExpr(ASTAddExpr node, A arg);
+    R visitMulExpr(ASTMulExpr node, A arg);
+    R visitUnaExpr(ASTUnaExpr node, A arg);
+    R visitNotExpr(ASTNotExpr node, A arg);
+    R visitGenValue(ASTGenValue node, A arg);
+    R visitBoolValue(ASTBoolValue node, A arg);
+    R visitIdentifier(ASTIdentifier node, A arg);
+    R visitIntValue(ASTIntValue node, A arg);
+    R visitSwitchStmt(ASTSwitchStmt node, A arg);
+    R visitDefaultStmt(ASTDefaultStmt node, A arg);
+    R visitCaseStmt(ASTCaseStmt node, A arg);
+}
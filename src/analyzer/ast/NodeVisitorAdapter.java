@@ -0,0 +1,130 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A NodeVisitor which can also be given to jjtAccept(): each visit of ParserVisitor
+ * calls the typed one of the same node. The visits between the nodes of the visitor use
+ * accept(), only the first node of a visit (the Program, or each item of a streamed
+ * program) goes through jjtAccept().
+ */
+
+public abstract class NodeVisitorAdapter<A, R> implements ParserVisitor, NodeVisitor<A, R> {
+
+    @Override
+    public Object visit(SimpleNode node, Object data) {
+        return visitNode(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTProgram node, Object data) {
+        return visitProgram(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTDeclaration node, Object data) {
+        return visitDeclaration(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTBlock node, Object data) {
+        return visitBlock(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTStmt node, Object data) {
+        return visitStmt(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTIfStmt node, Object data) {
+        return visitIfStmt(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTWhileStmt node, Object data) {
+        return visitWhileStmt(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTAssignStmt node, Object data) {
+        return visitAssignStmt(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTExpr node, Object data) {
+        return visitExpr(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTBoolExpr node, Object data) {
+        return visitBoolExpr(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTCompExpr node, Object data) {
+        return visitCompExpr(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTAddExpr node, Object data) {
+        return visitAddExpr(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTMulExpr node, Object data) {
+        return visitMulExpr(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTUnaExpr node, Object data) {
+        return visitUnaExpr(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTNotExpr node, Object data) {
+        return visitNotExpr(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTGenValue node, Object data) {
+        return visitGenValue(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTBoolValue node, Object data) {
+        return visitBoolValue(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTIdentifier node, Object data) {
+        return visitIdentifier(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTIntValue node, Object data) {
+        return visitIntValue(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTSwitchStmt node, Object data) {
+        return visitSwitchStmt(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTDefaultStmt node, Object data) {
+        return visitDefaultStmt(node, arg(data));
+    }
+
+    @Override
+    public Object visit(ASTCaseStmt node, Object data) {
+        return visitCaseStmt(node, arg(data));
+    }
+
+    // The data given to jjtAccept() is the argument of the typed visit
+    @SuppressWarnings("unchecked")
+    private A arg(Object data) {
+        return (A) data;
+    }
+}
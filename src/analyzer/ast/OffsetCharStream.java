@@ -0,0 +1,19 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A CharStream which knows where the current token is in the source, as
+ * char offsets. The token managers copy them in Token.beginOffset and Token.endOffset,
+ * the parser then keeps the range of each node (see PositionedNode).
+ */
+
+public interface OffsetCharStream extends CharStream {
+
+    // Offset of the first char of the current token
+    int getBeginOffset();
+
+    // Offset after the last char read
+    int getEndOffset();
+}
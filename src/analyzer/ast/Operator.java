@@ -0,0 +1,62 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The operators of the language. The expression nodes keep the code()
+ * of their operators in a byte array (see OperatorNode), and the visitors switch on
+ * the constants instead of comparing the images of the tokens.
+ */
+
+public enum Operator {
+    Plus("+"),
+    Minus("-"),
+    Times("*"),
+    Divide("/"),
+    Modulo("%"),
+    And("&&"),
+    Or("||"),
+    Not("!"),
+    Equal("=="),
+    NotEqual("!="),
+    Less("<"),
+    LessEqual("<="),
+    Greater(">"),
+    GreaterEqual(">=");
+
+    private static final Operator[] CODES = values();
+
+    private final String m_symbol;
+
+    Operator(String symbol) {
+        m_symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return m_symbol;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static Operator fromCode(byte code) {
+        return CODES[code];
+    }
+
+    // The operator of the image of a token
+    public static Operator fromImage(String image) {
+        for (Operator operator : CODES) {
+            if (operator.m_symbol.equals(image)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operator " + image);
+    }
+
+    @Override
+    public String toString() {
+        return m_symbol;
+    }
+}
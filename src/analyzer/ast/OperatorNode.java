@@ -0,0 +1,53 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A node of an expression with a list of operators (AddExpr, MulExpr,
+ * BoolExpr, UnaExpr and NotExpr). The codes of the operators are kept in a byte array,
+ * which is only allocated for the nodes with operators (most of them have none).
+ */
+
+public abstract class OperatorNode extends ExpressionNode {
+
+    private static final byte[] NO_OPS = new byte[0];
+
+    private byte[] m_ops = NO_OPS;
+    private int m_opCount = 0;
+
+    public OperatorNode(int id) {
+        super(id);
+    }
+
+    public OperatorNode(Parser p, int id) {
+        super(p, id);
+    }
+
+    public void addOp(Operator o) {
+        if (m_opCount == m_ops.length) {
+            byte[] grown = new byte[Math.max(2, m_opCount * 2)];
+            System.arraycopy(m_ops, 0, grown, 0, m_opCount);
+            m_ops = grown;
+        }
+        m_ops[m_opCount++] = o.code();
+    }
+
+    public int getOpCount() {
+        return m_opCount;
+    }
+
+    // The array of the operators is kept
+    @Override
+    void recycle() {
+        super.recycle();
+        m_opCount = 0;
+    }
+
+    public Operator getOp(int i) {
+        if (i >= m_opCount) {
+            throw new IndexOutOfBoundsException("Operator " + i + " of " + m_opCount);
+        }
+        return Operator.fromCode(m_ops[i]);
+    }
+}
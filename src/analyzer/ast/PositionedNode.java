@@ -0,0 +1,81 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The base of SimpleNode (NODE_EXTENDS of the grammar). Each node keeps the
+ * range of the source it was parsed from, as the offsets of its first char and after its
+ * last char packed in one long: the tokens do not have to stay reachable from the tree.
+ * The parser sets it when the node is opened and closed (NODE_SCOPE_HOOK), the line and
+ * the column of an offset are found with a LineIndex of the source.
+ *
+ * The position is unknown (-1) for the nodes built by hand and for the trees built again
+ * by FlatTree. TreeSerializer (and so a ParseCache) keeps the positions. An interned
+ * expression (see ExpressionInterner) keeps the position of its first occurrence.
+ *
+ * It also gives the nodes the accept() of the typed visitors (NodeVisitor, IntNodeVisitor),
+ * each AST class calls its own visit like in jjtAccept(). A node of another class is
+ * visited with visitNode(). The children are Node, child() gives them as PositionedNode.
+ */
+
+public abstract class PositionedNode {
+
+    public static final long UNKNOWN = -1L;
+
+    private long m_position = UNKNOWN;
+
+    public static long position(int begin, int end) {
+        return (long) begin << 32 | (end & 0xFFFFFFFFL);
+    }
+
+    public static int begin(long position) {
+        return (int) (position >> 32);
+    }
+
+    public static int end(long position) {
+        return (int) position;
+    }
+
+    public long getPosition() {
+        return m_position;
+    }
+
+    public void setPosition(long position) {
+        m_position = position;
+    }
+
+    public void setPosition(int begin, int end) {
+        m_position = position(begin, end);
+    }
+
+    public boolean hasPosition() {
+        return m_position != UNKNOWN;
+    }
+
+    // Offset of the first char of the node, -1 when unknown
+    public int getBeginOffset() {
+        return begin(m_position);
+    }
+
+    // Offset after the last char of the node, -1 when unknown
+    public int getEndOffset() {
+        return end(m_position);
+    }
+
+    // Implemented by SimpleNode
+    public abstract Node jjtGetChild(int i);
+
+    // The i-th child, to call accept() on it
+    public PositionedNode child(int i) {
+        return (PositionedNode) jjtGetChild(i);
+    }
+
+    public <A, R> R accept(NodeVisitor<A, R> visitor, A arg) {
+        return visitor.visitNode((SimpleNode) this, arg);
+    }
+
+    public <A> int acceptInt(IntNodeVisitor<A> visitor, A arg) {
+        return visitor.visitNode((SimpleNode) this, arg);
+    }
+}
@@ -0,0 +1,323 @@
+package analyzer.ast;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Tells whether a source is a valid Program without building its tree.
+ * The productions of Langage.jjt are followed by hand, like the generated parser does
+ * it (one token of lookahead), but no node is created, no node scope is opened and no
+ * value is set: only the tokens are read.
+ *
+ * The first error is the ParseException the parser would throw, with the same message:
+ * the tokens expected since the last one consumed are collected the way the generated
+ * parser does it with jj_la1 (the masks of the choices are the same). A lexical error
+ * (TokenMgrError) is returned as a ParseException with the same message.
+ *
+ * Any change to the syntax of Langage.jjt must be reported here, RecognizerTest compares
+ * both on the test-suite and on random edits.
+ */
+
+public class Recognizer implements ParserConstants {
+
+    // The tokens which start each choice of the grammar
+    private static final long STMT_FIRST = bits(IF, WHILE, SWITCH, ENDSTMT, IDENTIFIER);
+    private static final long BODY_FIRST = STMT_FIRST | bits(LACC);
+    private static final long VALUE_FIRST = bits(BOOLEAN, IDENTIFIER, INTEGER, LPAREN);
+
+    private final ParserTokenManager m_lexer;
+
+    private Token m_token;          // the last token consumed
+    private Token m_next;           // the next one, null until it is needed
+    private long m_expected;        // the kinds expected since m_token was consumed
+
+    private ParseException m_error;
+
+    // Same token manager as Parser.Create()
+    public Recognizer(CharStream stream) {
+        if ("generated".equals(System.getProperty("analyzer.lexer"))) {
+            m_lexer = new ParserTokenManager(stream);
+        } else {
+            m_lexer = new FastTokenManager(stream, true);
+        }
+        m_token = new Token();
+    }
+
+    // Check another source with the same token manager
+    public void ReInit(CharStream stream) {
+        m_lexer.ReInit(stream);
+        m_token = new Token();
+        m_next = null;
+        m_expected = 0;
+        m_error = null;
+    }
+
+    // Null if the source is a valid Program, otherwise its first syntax error
+    public static ParseException check(byte[] source) {
+        Recognizer recognizer = new Recognizer(Parser.OpenStream(source));
+        recognizer.recognize();
+        return recognizer.getError();
+    }
+
+    // Same as check(byte[]), a plain ASCII file is mapped in memory like Parser.ParseTree(Path) does
+    public static ParseException check(Path path) throws IOException {
+        ByteBufferCharStream stream = ByteBufferCharStream.map(path);
+        if (stream.isPlainAscii()) {
+            Recognizer recognizer = new Recognizer(stream);
+            recognizer.recognize();
+            return recognizer.getError();
+        }
+        return check(Files.readAllBytes(path));
+    }
+
+    // True if the whole source is a Program, see getError() otherwise
+    public boolean recognize() {
+        try {
+            program();
+            return true;
+        } catch (ParseException e) {
+            m_error = e;
+        } catch (TokenMgrError e) {
+            m_error = new ParseException(e.getMessage());
+        }
+        return false;
+    }
+
+    // The error found by recognize(), null if there was none
+    public ParseException getError() {
+        return m_error;
+    }
+
+    private void program() throws ParseException {
+        if (next() == DEC) {
+            consume(DEC);
+            while (next() == TYPE) {
+                consume(TYPE);
+                consume(IDENTIFIER);
+                consume(ENDSTMT);
+            }
+            expected(bits(TYPE));
+            consume(ENDDEC);
+        } else {
+            expected(bits(DEC));
+        }
+        block();
+        consume(EOF);
+    }
+
+    private void block() throws ParseException {
+        for (;;) {
+            int kind = next();
+            if (kind == LACC) {
+                consume(LACC);
+                block();
+                consume(RACC);
+            } else if (in(kind, STMT_FIRST)) {
+                stmt();
+            } else {
+                expected(BODY_FIRST);
+                return;
+            }
+        }
+    }
+
+    private void stmt() throws ParseException {
+        switch (next()) {
+            case IDENTIFIER:
+                consume(IDENTIFIER);
+                consume(ASSIGN);
+                expr();
+                consume(ENDSTMT);
+                break;
+            case IF:
+                consume(IF);
+                condition();
+                if (next() == LACC) {
+                    consume(LACC);
+                    block();
+                    consume(RACC);
+                    if (next() == ELSE) {
+                        consume(ELSE);
+                        body();
+                    } else {
+                        expected(bits(ELSE));
+                    }
+                } else {
+                    body();
+                }
+                break;
+            case WHILE:
+                consume(WHILE);
+                condition();
+                body();
+                break;
+            case SWITCH:
+                consume(SWITCH);
+                condition();
+                consume(LACC);
+                while (next() == CASE) {
+                    consume(CASE);
+                    expr();
+                    consume(COLON);
+                    stmt();
+                }
+                expected(bits(CASE));
+                if (next() == DEF) {
+                    consume(DEF);
+                    consume(COLON);
+                    stmt();
+                } else {
+                    expected(bits(DEF));
+                }
+                consume(RACC);
+                break;
+            case ENDSTMT:
+                consume(ENDSTMT);
+                break;
+            default:
+                expected(STMT_FIRST);
+                throw error();
+        }
+    }
+
+    // The statement or the block after a condition
+    private void body() throws ParseException {
+        int kind = next();
+        if (kind == LACC) {
+            consume(LACC);
+            block();
+            consume(RACC);
+        } else if (in(kind, STMT_FIRST)) {
+            stmt();
+        } else {
+            expected(BODY_FIRST);
+            throw error();
+        }
+    }
+
+    private void condition() throws ParseException {
+        consume(LPAREN);
+        expr();
+        consume(RPAREN);
+    }
+
+    // Expr, BoolExpr and CompExpr
+    private void expr() throws ParseException {
+        comparison();
+        while (next() == BOOLOP) {
+            consume(BOOLOP);
+            comparison();
+        }
+        expected(bits(BOOLOP));
+    }
+
+    private void comparison() throws ParseException {
+        sum();
+        if (next() == COMPARE) {
+            consume(COMPARE);
+            sum();
+        } else {
+            expected(bits(COMPARE));
+        }
+    }
+
+    // AddExpr and MulExpr
+    private void sum() throws ParseException {
+        product();
+        for (int kind = next(); kind == PLUS || kind == MINUS; kind = next()) {
+            consume(kind);
+            product();
+        }
+        expected(bits(PLUS, MINUS));
+    }
+
+    private void product() throws ParseException {
+        unary();
+        while (next() == MULOP) {
+            consume(MULOP);
+            unary();
+        }
+        expected(bits(MULOP));
+    }
+
+    // UnaExpr, NotExpr and GenValue
+    private void unary() throws ParseException {
+        if (next() == MINUS) {
+            consume(MINUS);
+        } else {
+            expected(bits(MINUS));
+        }
+        while (next() == NOT) {
+            consume(NOT);
+        }
+        expected(bits(NOT));
+
+        switch (next()) {
+            case BOOLEAN:
+            case IDENTIFIER:
+            case INTEGER:
+                consume(m_next.kind);
+                break;
+            case LPAREN:
+                consume(LPAREN);
+                expr();
+                consume(RPAREN);
+                break;
+            default:
+                expected(VALUE_FIRST);
+                throw error();
+        }
+    }
+
+    // Kind of the next token, read if needed
+    private int next() {
+        if (m_next == null) {
+            m_next = m_lexer.getNextToken();
+            m_token.next = m_next;
+        }
+        return m_next.kind;
+    }
+
+    private void consume(int kind) throws ParseException {
+        if (next() != kind) {
+            expected(bits(kind));
+            throw error();
+        }
+        m_token = m_next;
+        m_next = null;
+        m_expected = 0;
+    }
+
+    // A choice did not take any of its branches
+    private void expected(long kinds) {
+        m_expected |= kinds;
+    }
+
+    // Same exception as Parser.generateParseException()
+    private ParseException error() {
+        int[][] sequences = new int[Long.bitCount(m_expected)][];
+        int i = 0;
+        for (int kind = 0; kind < 64; kind++) {
+            if (in(kind, m_expected)) {
+                sequences[i++] = new int[] { kind };
+            }
+        }
+        return new ParseException(m_token, sequences, tokenImage);
+    }
+
+    private static boolean in(int kind, long kinds) {
+        return (kinds & (1L << kind)) != 0;
+    }
+
+    private static long bits(int... kinds) {
+        long bits = 0;
+        for (int kind : kinds) {
+            bits |= 1L << kind;
+        }
+        return bits;
+    }
+}
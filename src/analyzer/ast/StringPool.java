@@ -0,0 +1,85 @@
+package analyzer.ast;
+
+import java.util.Arrays;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Interns the images of the identifiers (and integers) of one compilation.
+ * The lookup is done on the chars read by the lexer, so a name already seen
+ * does not allocate anything, and all its tokens share the same String.
+ *
+ * Unlike String.intern(), the pool is dropped with the token manager.
+ */
+
+public class StringPool {
+
+    private String[] m_table = new String[256];     // open addressing, the size is a power of 2
+    private int m_size = 0;
+
+    public String intern(char[] chars, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        int mask = m_table.length - 1;
+        int index = mix(hash) & mask;
+        for (String s = m_table[index]; s != null; s = m_table[index]) {
+            if (s.hashCode() == hash && equals(s, chars, length)) {
+                return s;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // Same hash as String.hashCode(), which is cached in the String
+        String s = new String(chars, 0, length);
+        m_table[index] = s;
+        if (++m_size * 2 > m_table.length) {
+            grow();
+        }
+        return s;
+    }
+
+    // Forget every string, the table keeps its capacity
+    public void clear() {
+        Arrays.fill(m_table, null);
+        m_size = 0;
+    }
+
+    public int size() {
+        return m_size;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(String s, char[] chars, int length) {
+        if (s.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        String[] old = m_table;
+        m_table = new String[old.length * 2];
+        int mask = m_table.length - 1;
+        for (String s : old) {
+            if (s != null) {
+                int index = mix(s.hashCode()) & mask;
+                while (m_table[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                m_table[index] = s;
+            }
+        }
+    }
+}
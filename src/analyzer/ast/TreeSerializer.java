@@ -0,0 +1,308 @@
+package analyzer.ast;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Writes the tree of a program in a compact binary form, and builds the
+ * nodes again from it without the lexer and the parser. The format is:
+ *  - the magic number "AST" and the FORMAT version
+ *  - the strings (names and types): their count, then the length and the UTF-8 bytes of each
+ *  - the count of nodes, then for each node in preorder a byte with its kind and flags,
+ *    then the code of the operator before it, its number of children and its value,
+ *    each one only when it is not the usual one (no operator, 1 child, value 0),
+ *    then its position (see PositionedNode)
+ * The values of the nodes are the ones of FlatTree, the numbers are written as varints.
+ * The position is 0 when it is unknown, 1 when it is the one of the parent, else the begin
+ * offset minus the one of the parent (zigzag, plus 2) followed by the length of the node.
+ * Most of the nodes are in the chains Expr, BoolExpr, ..., GenValue of the expressions,
+ * where a node has the range of its parent, and take two bytes.
+ */
+
+public class TreeSerializer {
+
+    // To change each time the format or the nodes change
+    public static final int FORMAT = 2;
+
+    private static final int MAGIC = ('A' << 24) | ('S' << 16) | ('T' << 8) | FORMAT;
+
+    // The flags of the first byte of a node, the kind takes the low bits
+    private static final int HAS_OP = 0x20;
+    private static final int HAS_VALUE = 0x40;
+    private static final int HAS_CHILD_COUNT = 0x80;
+    private static final int KIND = 0x1F;
+
+    private TreeSerializer() {
+    }
+
+    public static byte[] write(ASTProgram program) {
+        FlatTree tree = FlatTree.of(program);
+        long[] positions = positions(program, tree.size());
+        Output out = new Output(tree.size() * 4 + 64);
+        out.writeInt(MAGIC);
+
+        List<String> strings = tree.strings();
+        out.writeVarint(strings.size());
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeVarint(bytes.length);
+            out.write(bytes);
+        }
+
+        out.writeVarint(tree.size());
+        // The position of the parent of each node (the one its position is relative to),
+        // FlatTree numbers the nodes in preorder
+        long[] parents = new long[tree.size()];
+        parents[0] = PositionedNode.position(0, 0);
+        for (int node = 0; node < tree.size(); node++) {
+            Operator op = tree.op(node);
+            int value = tree.value(node);
+            int children = 0;
+            for (int child = tree.firstChild(node); child != FlatTree.NONE; child = tree.nextSibling(child)) {
+                children++;
+            }
+
+            out.writeByte(tree.kind(node) | (op != null ? HAS_OP : 0) | (value != 0 ? HAS_VALUE : 0)
+                    | (children != 1 ? HAS_CHILD_COUNT : 0));
+            if (op != null) {
+                out.writeByte(op.code());
+            }
+            if (children != 1) {
+                out.writeVarint(children);
+            }
+            if (value != 0) {
+                out.writeVarint(zigzag(value));   // -1 is small
+            }
+
+            long position = positions[node];
+            long parent = parents[node];
+            if (position == PositionedNode.UNKNOWN) {
+                out.writeVarint(0);
+                position = parent;
+            } else if (position == parent) {
+                out.writeVarint(1);
+            } else {
+                int begin = PositionedNode.begin(position);
+                out.writeVarint(zigzag(begin - PositionedNode.begin(parent)) + 2);
+                out.writeVarint(PositionedNode.end(position) - begin);
+            }
+            for (int child = tree.firstChild(node); child != FlatTree.NONE; child = tree.nextSibling(child)) {
+                parents[child] = position;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // The positions of the nodes in preorder, like the numbers of FlatTree.of(program)
+    private static long[] positions(ASTProgram program, int size) {
+        long[] positions = new long[size];
+        Node[] stack = new Node[16];
+        int top = 0;
+        stack[0] = program;
+        for (int i = 0; top >= 0; i++) {
+            Node node = stack[top];
+            stack[top--] = null;
+            positions[i] = ((PositionedNode) node).getPosition();
+            // The last child first, so the first one is popped first
+            for (int c = node.jjtGetNumChildren() - 1; c >= 0; c--) {
+                if (++top == stack.length) {
+                    Node[] grown = new Node[top * 2];
+                    System.arraycopy(stack, 0, grown, 0, top);
+                    stack = grown;
+                }
+                stack[top] = node.jjtGetChild(c);
+            }
+        }
+        return positions;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int zigzag) {
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    // The nodes written by write(), a ParseException when the bytes are not a tree of this format
+    public static ASTProgram read(byte[] bytes) throws ParseException {
+        Input in = new Input(bytes);
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new ParseException("Not a serialized tree of format " + FORMAT);
+            }
+
+            int stringCount = in.readVarint();
+            List<String> strings = new ArrayList<>(stringCount);
+            for (int i = 0; i < stringCount; i++) {
+                int length = in.readVarint();
+                strings.add(new String(bytes, in.skip(length), length, StandardCharsets.UTF_8));
+            }
+
+            // The nodes whose children are not all read yet, and the index of their next child
+            int size = in.readVarint();
+            SimpleNode[] parents = new SimpleNode[16];
+            int[] next = new int[16];
+            // The position the ones of the children are relative to: the one of the parent when it is known
+            long[] positions = new long[16];
+            int top = -1;
+            SimpleNode root = null;
+
+            for (int i = 0; i < size; i++) {
+                int header = in.readByte();
+                byte op = (header & HAS_OP) != 0 ? in.readByte() : FlatTree.NO_OP;
+                int children = (header & HAS_CHILD_COUNT) != 0 ? in.readVarint() : 1;
+                int zigzag = (header & HAS_VALUE) != 0 ? in.readVarint() : 0;
+                SimpleNode node = (SimpleNode) FlatTree.create(header & KIND, unzigzag(zigzag), strings);
+                long position = top < 0 ? PositionedNode.position(0, 0) : positions[top];
+                int delta = in.readVarint();
+                if (delta == 1) {
+                    node.setPosition(position);
+                } else if (delta != 0) {
+                    int begin = PositionedNode.begin(position) + unzigzag(delta - 2);
+                    int length = in.readVarint();
+                    if (length < 0) {
+                        throw new IllegalStateException("Negative length " + length);
+                    }
+                    position = PositionedNode.position(begin, begin + length);
+                    node.setPosition(position);
+                }
+
+                if (top < 0) {
+                    if (root != null) {
+                        throw new ParseException("More than one root in the serialized tree");
+                    }
+                    root = node;
+                } else {
+                    SimpleNode parent = parents[top];
+                    if (op != FlatTree.NO_OP) {
+                        ((OperatorNode) parent).addOp(Operator.fromCode(op));
+                    }
+                    node.parent = parent;
+                    parent.children[next[top]++] = node;
+                    if (next[top] == parent.children.length) {
+                        parents[top--] = null;
+                    }
+                }
+
+                if (children > 0) {
+                    node.children = new Node[children];
+                    if (++top == parents.length) {
+                        SimpleNode[] grownParents = new SimpleNode[top * 2];
+                        int[] grownNext = new int[top * 2];
+                        long[] grownPositions = new long[top * 2];
+                        System.arraycopy(parents, 0, grownParents, 0, top);
+                        System.arraycopy(next, 0, grownNext, 0, top);
+                        System.arraycopy(positions, 0, grownPositions, 0, top);
+                        parents = grownParents;
+                        next = grownNext;
+                        positions = grownPositions;
+                    }
+                    parents[top] = node;
+                    next[top] = 0;
+                    positions[top] = position;
+                }
+            }
+
+            if (!(root instanceof ASTProgram) || top >= 0 || in.remaining() != 0) {
+                throw new ParseException("Truncated serialized tree");
+            }
+            return (ASTProgram) root;
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException | IllegalStateException | ClassCastException e) {
+            throw new ParseException("Corrupted serialized tree: " + e);
+        }
+    }
+
+    private static class Output {
+        private byte[] m_bytes;
+        private int m_length = 0;
+
+        Output(int capacity) {
+            m_bytes = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            if (m_length == m_bytes.length) {
+                byte[] grown = new byte[m_bytes.length * 2];
+                System.arraycopy(m_bytes, 0, grown, 0, m_length);
+                m_bytes = grown;
+            }
+            m_bytes[m_length++] = (byte) b;
+        }
+
+        void write(byte[] bytes) {
+            for (byte b : bytes) {
+                writeByte(b);
+            }
+        }
+
+        void writeInt(int v) {
+            writeByte(v >>> 24);
+            writeByte(v >>> 16);
+            writeByte(v >>> 8);
+            writeByte(v);
+        }
+
+        // 7 bits per byte, the high bit is set when another byte follows
+        void writeVarint(int v) {
+            while ((v & ~0x7F) != 0) {
+                writeByte((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            writeByte(v);
+        }
+
+        byte[] toByteArray() {
+            byte[] bytes = new byte[m_length];
+            System.arraycopy(m_bytes, 0, bytes, 0, m_length);
+            return bytes;
+        }
+    }
+
+    private static class Input {
+        private final byte[] m_bytes;
+        private int m_position = 0;
+
+        Input(byte[] bytes) {
+            m_bytes = bytes;
+        }
+
+        byte readByte() {
+            return m_bytes[m_position++];
+        }
+
+        int readInt() {
+            return ((readByte() & 0xFF) << 24) | ((readByte() & 0xFF) << 16) | ((readByte() & 0xFF) << 8) | (readByte() & 0xFF);
+        }
+
+        int readVarint() {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = readByte();
+                v |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return v;
+                }
+            }
+            throw new IllegalStateException("Varint too long");
+        }
+
+        // The position of the next length bytes, which are skipped
+        int skip(int length) {
+            if (length < 0 || length > m_bytes.length - m_position) {
+                throw new IndexOutOfBoundsException("Length " + length);
+            }
+            int position = m_position;
+            m_position += length;
+            return position;
+        }
+
+        int remaining() {
+            return m_bytes.length - m_position;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package analyzer.ast;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The types of the language, shared by the visitors and stamped on the
+ * expression nodes by the semantic pass (see ExpressionNode).
+ */
+
+public enum VarType {
+    Bool,
+    Number
+}
@@ -0,0 +1,19 @@
+package analyzer.visitors;
+
+import java.io.PrintWriter;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A code generator which can take a tree already checked by a SemantiqueVisitor
+ * (see analyzer.Compiler). The types and the symbol ids stamped on the nodes by the check
+ * are used as they are, the tree is not typed a second time.
+ */
+
+public interface CodeGenerator extends ReusableVisitor {
+
+    // Same as reset(writer), for trees checked with these symbols. reset(writer) goes back to
+    // typing the trees while generating their code.
+    void reset(PrintWriter writer, SymbolTable symbols);
+}
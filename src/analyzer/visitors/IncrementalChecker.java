@@ -0,0 +1,240 @@
+package analyzer.visitors;
+
+import analyzer.Diagnostics;
+import analyzer.ast.ASTBlock;
+import analyzer.ast.ASTIdentifier;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.Node;
+import analyzer.ast.PositionedNode;
+import analyzer.ast.VarType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks the trees of a program which is edited (see IncrementalParser) again
+ * and again. The verdict of each item of the top Block (the errors found in it, usually
+ * none) is kept with the item, and an index gives the verdicts of the items which use
+ * each identifier.
+ *
+ * After an edit, the declarations are visited again and compared with those of the last
+ * check: an identifier is changed if it was added, removed, or if its type or its symbol
+ * id is not the same. Only the items which use a changed identifier and the items which
+ * were not checked before are checked again, the verdicts of the others are reused (the
+ * errors of an item which only moved are moved with it). The errors are the ones a
+ * SemantiqueVisitor keeping all the errors would find on the whole tree, in the same order.
+ *
+ * The items of the last check are matched with the new ones from both ends, like the
+ * IncrementalParser splices the items it parsed again between the old ones.
+ */
+
+public class IncrementalChecker {
+
+    private final SemantiqueVisitor m_visitor = new SemantiqueVisitor(null);
+    private final Diagnostics m_scratch = new Diagnostics();
+    private final Diagnostics m_diagnostics = new Diagnostics();
+
+    // The items of the last check and their verdicts, and the verdicts of the items using
+    // each identifier (with the verdicts of removed items, until the lists are cleaned)
+    private Node[] m_items = new Node[0];
+    private Verdict[] m_verdicts = new Verdict[0];
+    private final HashMap<String, ArrayList<Verdict>> m_index = new HashMap<>();
+    private int m_indexed = 0;
+    private int m_removed = 0;
+
+    // The declarations of the last check, by symbol id
+    private String[] m_names = new String[0];
+    private VarType[] m_types = new VarType[0];
+
+    private int m_lastChecked;
+
+    private static class Verdict {
+        // The errors of the item, null if it has none, found when it was at position
+        Diagnostics errors;
+        long position;
+        boolean dirty;
+        boolean removed;
+    }
+
+    // Check the tree and return all its errors, in the order of the source. The Diagnostics
+    // returned is reused by the next call.
+    public Diagnostics check(ASTProgram tree) {
+        m_visitor.reset(null, m_scratch);
+        m_scratch.clear();
+        int count = tree.jjtGetNumChildren();
+        for (int i = 0; i < count - 1; i++) {
+            tree.child(i).acceptInt(m_visitor, null);
+        }
+        for (String name : changedNames()) {
+            markUsers(name);
+        }
+
+        ASTBlock block = (ASTBlock) tree.jjtGetChild(count - 1);
+        int size = block.jjtGetNumChildren();
+        Node[] items = new Node[size];
+        Verdict[] verdicts = new Verdict[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = block.jjtGetChild(i);
+        }
+
+        // The items kept at the beginning and at the end, the others were removed
+        int old = m_items.length;
+        int prefix = 0;
+        while (prefix < size && prefix < old && items[prefix] == m_items[prefix]) {
+            verdicts[prefix] = m_verdicts[prefix];
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < size - prefix && suffix < old - prefix && items[size - 1 - suffix] == m_items[old - 1 - suffix]) {
+            verdicts[size - 1 - suffix] = m_verdicts[old - 1 - suffix];
+            suffix++;
+        }
+        for (int i = prefix; i < old - suffix; i++) {
+            m_verdicts[i].removed = true;
+            m_removed++;
+        }
+
+        m_diagnostics.clear();
+        m_lastChecked = 0;
+        for (int i = 0; i < size; i++) {
+            Verdict verdict = verdicts[i];
+            if (verdict == null) {
+                verdict = new Verdict();
+                check(items[i], verdict);
+                index(items[i], verdict);
+                verdicts[i] = verdict;
+            } else if (verdict.dirty) {
+                check(items[i], verdict);
+            }
+            if (verdict.errors != null) {
+                long position = position(items[i]);
+                m_diagnostics.addAll(verdict.errors, PositionedNode.begin(position) - PositionedNode.begin(verdict.position));
+            }
+        }
+
+        m_items = items;
+        m_verdicts = verdicts;
+        if (m_removed > m_indexed / 2) {
+            cleanIndex();
+        }
+        return m_diagnostics;
+    }
+
+    // Number of items checked by the last call to check(), the others reused their verdict
+    public int getLastChecked() {
+        return m_lastChecked;
+    }
+
+    // The symbols of the last tree checked
+    public SymbolTable getSymbols() {
+        return m_visitor.getSymbols();
+    }
+
+    private void check(Node item, Verdict verdict) {
+        m_scratch.clear();
+        ((PositionedNode) item).acceptInt(m_visitor, null);
+        m_lastChecked++;
+
+        verdict.dirty = false;
+        verdict.position = position(item);
+        verdict.errors = null;
+        if (!m_scratch.isEmpty()) {
+            verdict.errors = new Diagnostics();
+            verdict.errors.addAll(m_scratch);
+        }
+    }
+
+    private void markUsers(String name) {
+        ArrayList<Verdict> users = m_index.get(name);
+        if (users == null) {
+            return;
+        }
+        for (Iterator<Verdict> it = users.iterator(); it.hasNext(); ) {
+            Verdict verdict = it.next();
+            if (verdict.removed) {
+                it.remove();
+                m_indexed--;
+            } else {
+                verdict.dirty = true;
+            }
+        }
+    }
+
+    // The verdict is added to the users of each identifier of the item
+    private void index(Node item, Verdict verdict) {
+        HashSet<String> names = new HashSet<>();
+        ArrayList<Node> stack = new ArrayList<>();
+        stack.add(item);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            if (node instanceof ASTIdentifier) {
+                String name = ((ASTIdentifier) node).getValue();
+                if (names.add(name)) {
+                    ArrayList<Verdict> users = m_index.get(name);
+                    if (users == null) {
+                        users = new ArrayList<>();
+                        m_index.put(name, users);
+                    }
+                    users.add(verdict);
+                    m_indexed++;
+                }
+            }
+            for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+                stack.add(node.jjtGetChild(i));
+            }
+        }
+    }
+
+    // Forget the verdicts of the removed items, once they are a large part of the index
+    private void cleanIndex() {
+        m_indexed = 0;
+        for (Iterator<ArrayList<Verdict>> lists = m_index.values().iterator(); lists.hasNext(); ) {
+            ArrayList<Verdict> users = lists.next();
+            for (Iterator<Verdict> it = users.iterator(); it.hasNext(); ) {
+                if (it.next().removed) {
+                    it.remove();
+                }
+            }
+            if (users.isEmpty()) {
+                lists.remove();
+            }
+            m_indexed += users.size();
+        }
+        m_removed = 0;
+    }
+
+    // The identifiers whose declaration is not the one of the last check, the declarations
+    // of this check are kept for the next one
+    private ArrayList<String> changedNames() {
+        SymbolTable symbols = m_visitor.getSymbols();
+        int size = symbols.size();
+        ArrayList<String> changed = new ArrayList<>();
+        for (int id = 0; id < Math.max(size, m_names.length); id++) {
+            String name = id < size ? symbols.getName(id) : null;
+            String old = id < m_names.length ? m_names[id] : null;
+            if (name != null && (!name.equals(old) || symbols.getType(id) != m_types[id])) {
+                changed.add(name);
+            }
+            if (old != null && !old.equals(name)) {
+                changed.add(old);
+            }
+        }
+
+        m_names = new String[size];
+        m_types = new VarType[size];
+        for (int id = 0; id < size; id++) {
+            m_names[id] = symbols.getName(id);
+            m_types[id] = symbols.getType(id);
+        }
+        return changed;
+    }
+
+    private static long position(Node item) {
+        return ((PositionedNode) item).getPosition();
+    }
+}
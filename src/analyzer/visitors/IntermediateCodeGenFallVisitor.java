@@ -1,5 +1,6 @@
 package analyzer.visitors;
 
+import analyzer.Diagnostics;
 import analyzer.ast.*;
 import com.sun.org.apache.xpath.internal.operations.Bool;
 import org.omg.PortableInterceptor.SYSTEM_EXCEPTION;
@@ -9,7 +10,6 @@ import java.awt.*;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Vector;
 
 
 /**
@@ -20,19 +20,49 @@ import java.util.Vector;
  * Description: Ce visiteur explore l'AST et génère un code intermédiaire.
  */
 
-public class IntermediateCodeGenFallVisitor implements ParserVisitor {
+public class IntermediateCodeGenFallVisitor extends NodeVisitorAdapter<IntermediateCodeGenFallVisitor.BoolLabel, String> implements CodeGenerator {
 
     //le m_writer est un Output_Stream connecter au fichier "result". c'est donc ce qui permet de print dans les fichiers
     //le code généré.
-    private final PrintWriter m_writer;
+    private PrintWriter m_writer;
 
     public IntermediateCodeGenFallVisitor(PrintWriter writer) {
         m_writer = writer;
+        m_typer.reset(null, m_typeErrors);
     }
-    public HashMap<String, VarType> SymbolTable = new HashMap<>();
+
+    // Inscrit le type de chaque expression sur ses noeuds avant que son code soit généré
+    private final SemantiqueVisitor m_typer = new SemantiqueVisitor(null);
+    // m_typer garde ses erreurs ici au lieu de les lancer : sans vérification préalable, le code
+    // est généré même pour un programme que le SemantiqueVisitor refuse, comme avant m_typer.
+    // Les erreurs sont ignorées et vidées après chaque expression.
+    private final Diagnostics m_typeErrors = new Diagnostics();
+    // L'arbre a déjà été vérifié (voir reset(PrintWriter, SymbolTable)), m_typer ne sert pas
+    private boolean m_checked = false;
 
     private int id = 0;
     private int label = 0;
+
+    // Les temporaires des expressions partagées déjà calculées (voir ExpressionInterner)
+    private final SharedExpressions m_shared = new SharedExpressions();
+
+    @Override
+    public void reset(PrintWriter writer) {
+        m_writer = writer;
+        m_typer.reset(null, m_typeErrors);
+        m_typeErrors.clear();
+        m_checked = false;
+        m_shared.clear();
+        id = 0;
+        label = 0;
+    }
+
+    @Override
+    public void reset(PrintWriter writer, SymbolTable symbols) {
+        reset(writer);
+        m_checked = true;
+        m_shared.reserve(symbols.size());
+    }
     /*
     génère une nouvelle variable temporaire qu'il est possible de print
     À noté qu'il serait possible de rentrer en conflit avec un nom de variable définit dans le programme.
@@ -48,44 +78,55 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
         return "_L" + label++;
     }
 
+    private void printLabel(String l) {
+        m_shared.clear();
+        m_writer.println(l);
+    }
+
     @Override
-    public Object visit(SimpleNode node, Object data) {
-        return data;
+    public String visitNode(SimpleNode node, BoolLabel data) {
+        return null;
     }
 
     @Override
-    public Object visit(ASTProgram node, Object data)  {
-        node.childrenAccept(this, data);
+    public String visitProgram(ASTProgram node, BoolLabel data)  {
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            node.child(i).accept(this, data);
+        }
         return null;
     }
 
     /*
-    Code fournis pour remplir la table de symbole.
+    Les déclarations remplissent la table de symbole du typer.
     Les déclarations ne sont plus utile dans le code à trois adresse.
     elle ne sont donc pas concervé.
      */
     @Override
-    public Object visit(ASTDeclaration node, Object data) {
-        ASTIdentifier id = (ASTIdentifier) node.jjtGetChild(0);
-        VarType t;
-        if(node.getValue().equals("bool")) {
-            t = VarType.Bool;
-        } else {
-            t = VarType.Number;
+    public String visitDeclaration(ASTDeclaration node, BoolLabel data) {
+        if (!m_checked) {
+            node.acceptInt(m_typer, null);
         }
-        SymbolTable.put(id.getValue(), t);
         return null;
     }
 
+    // Inscrit les types d'une expression (voir ExpressionNode) avant de générer son code
+    private PositionedNode typed(PositionedNode expr) {
+        if (!m_checked) {
+            expr.acceptInt(m_typer, null);
+            m_typeErrors.clear();
+        }
+        return expr;
+    }
+
     @Override
-    public Object visit(ASTBlock node, Object data) {
-        node.childrenAccept(this, data);
+    public String visitBlock(ASTBlock node, BoolLabel data) {
+        TreeWalker.walkChildren(node, this, data);
         return null;
     }
 
     @Override
-    public Object visit(ASTStmt node, Object data) {
-        node.childrenAccept(this, data);
+    public String visitStmt(ASTStmt node, BoolLabel data) {
+        TreeWalker.walkChildren(node, this, data);
         return null;
     }
 
@@ -93,46 +134,46 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
     le If Stmt doit vérifier s'il à trois enfants pour savoir s'il s'agit d'un "if-then" ou d'un "if-then-else".
      */
     @Override
-    public Object visit(ASTIfStmt node, Object data) {
+    public String visitIfStmt(ASTIfStmt node, BoolLabel data) {
         if (node.jjtGetNumChildren() < 3) {
             String B_true = "fall";
             String S_next = genLabel();
             BoolLabel B_label = new BoolLabel(B_true, S_next);
             String S1_next = S_next;
-            node.jjtGetChild(0).jjtAccept(this, B_label);
+            typed(node.child(0)).accept(this, B_label);
             B_label.next = S1_next;
-            node.jjtGetChild(1).jjtAccept(this, B_label);
-            m_writer.println(S_next);
+            node.child(1).accept(this, B_label);
+            printLabel(S_next);
         } else {
             BoolLabel B_label = new BoolLabel("fall", genLabel());
             String S_next = genLabel();
             String S1_next = S_next;
             String S2_next = S_next;
-            node.jjtGetChild(0).jjtAccept(this, B_label);
+            typed(node.child(0)).accept(this, B_label);
             B_label.next = S1_next;
-            node.jjtGetChild(1).jjtAccept(this, B_label);
+            node.child(1).accept(this, B_label);
             m_writer.println("goto " + S_next);
-            m_writer.println(B_label.lFalse);
+            printLabel(B_label.lFalse);
             B_label.next = S2_next;
-            node.jjtGetChild(2).jjtAccept(this, B_label);
-            m_writer.println(S_next);
+            node.child(2).accept(this, B_label);
+            printLabel(S_next);
         }
         return null;
     }
 
     @Override
-    public Object visit(ASTWhileStmt node, Object data) {
+    public String visitWhileStmt(ASTWhileStmt node, BoolLabel data) {
         String begin = genLabel();
         String B_true = "fall";
         String S_next = genLabel();
         BoolLabel B_label = new BoolLabel(B_true, S_next);
         String S1_next = begin;
         B_label.next = S1_next;
-        m_writer.println(begin);
-        node.jjtGetChild(0).jjtAccept(this, B_label);
-        node.jjtGetChild(1).jjtAccept(this, B_label);
+        printLabel(begin);
+        typed(node.child(0)).accept(this, B_label);
+        node.child(1).accept(this, B_label);
         m_writer.println("goto " + begin);
-        m_writer.println(S_next);
+        printLabel(S_next);
         return null;
     }
 
@@ -222,37 +263,40 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
      *  de généré inutilement des labels (ou des variables temporaire) qui ne sont pas utilisé ni imprimé dans le code résultant.
      */
     @Override
-    public Object visit(ASTAssignStmt node, Object data) {
-        String identifier = ((ASTIdentifier) node.jjtGetChild(0)).getValue();
-        if(SymbolTable.get(identifier).equals(VarType.Number)) {
-            m_writer.println(identifier + " = " + node.jjtGetChild(1).jjtAccept(this, data));
+    public String visitAssignStmt(ASTAssignStmt node, BoolLabel data) {
+        ASTIdentifier id = (ASTIdentifier) typed(node.child(0));
+        String identifier = id.getValue();
+        typed(node.child(1));
+        if(id.getType() == VarType.Number) {
+            m_writer.println(identifier + " = " + node.child(1).accept(this, data));
         } else {
-            assignBooleanCodeGen(node.jjtGetChild(1), identifier, data);
+            assignBooleanCodeGen(node.child(1), identifier, data);
         }
+        m_shared.forget(id.getSymbol());
         return null;
     }
 
-    private String assignBooleanCodeGen(Node B, String identifier, Object data) {
+    private String assignBooleanCodeGen(PositionedNode B, String identifier, BoolLabel data) {
         BoolLabel B_label = new BoolLabel("fall", genLabel());
         String S_herite_next = null;
-        if (data != null) S_herite_next= ((BoolLabel) data).next;
+        if (data != null) S_herite_next= data.next;
         String S_next;
         if (S_herite_next == null)  S_next = genLabel();
         else S_next = S_herite_next;
-        B.jjtAccept(this, new BoolLabel(B_label));
+        B.accept(this, new BoolLabel(B_label));
         m_writer.println(identifier + " = 1");
         m_writer.println("goto " + S_next);
-        m_writer.println(B_label.lFalse);
+        printLabel(B_label.lFalse);
         m_writer.println(identifier + " = 0");
-        m_writer.println(S_next);
+        printLabel(S_next);
         return identifier;
     }
 
 
     //Il n'y a probablement rien à faire ici
     @Override
-    public Object visit(ASTExpr node, Object data){
-        return node.jjtGetChild(0).jjtAccept(this, data);
+    public String visitExpr(ASTExpr node, BoolLabel data){
+        return node.child(0).accept(this, data);
     }
 
     //Expression arithmétique
@@ -263,39 +307,45 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
     On peut bouclé sur "ops" ou sur node.jjtGetNumChildren(),
     la taille de ops sera toujours 1 de moins que la taille de jjtGetNumChildren
      */
-    public String exprCodeGen(SimpleNode node, Object data, Vector<String> ops) {
-        String E1_address = (String) node.jjtGetChild(0).jjtAccept(this, data);
+    public String exprCodeGen(OperatorNode node, BoolLabel data) {
+        String cached = m_shared.temporary(node);
+        if (cached != null) return cached;
+        String E1_address = node.child(0).accept(this, data);
         String E_address;
-        for (int i = 0; i < ops.size(); i++) {
-            String E2_address = (String) node.jjtGetChild(i+1).jjtAccept(this, data);
+        for (int i = 0; i < node.getOpCount(); i++) {
+            String E2_address = node.child(i+1).accept(this, data);
             E_address = genId();
-            m_writer.println(E_address + " = " + E1_address + " " + ops.get(i) + " " + E2_address);
+            m_writer.println(E_address + " = " + E1_address + " " + node.getOp(i).getSymbol() + " " + E2_address);
             E1_address = E_address;
         }
+        if (node.getOpCount() > 0) m_shared.remember(node, E1_address);
         return E1_address;
     }
 
     @Override
-    public Object visit(ASTAddExpr node, Object data) {
-        return this.exprCodeGen(node, data, node.getOps());
+    public String visitAddExpr(ASTAddExpr node, BoolLabel data) {
+        return this.exprCodeGen(node, data);
     }
 
     @Override
-    public Object visit(ASTMulExpr node, Object data) {
-        return this.exprCodeGen(node, data, node.getOps());
+    public String visitMulExpr(ASTMulExpr node, BoolLabel data) {
+        return this.exprCodeGen(node, data);
     }
 
     //UnaExpr est presque pareil au deux précédente. la plus grosse différence est qu'il ne va pas
     //chercher un deuxième noeud enfant pour avoir une valeur puisqu'il s'agit d'une opération unaire.
     @Override
-    public Object visit(ASTUnaExpr node, Object data) {
-        String E1_address = (String) node.jjtGetChild(0).jjtAccept(this, data);
+    public String visitUnaExpr(ASTUnaExpr node, BoolLabel data) {
+        String cached = m_shared.temporary(node);
+        if (cached != null) return cached;
+        String E1_address = node.child(0).accept(this, data);
         String E_address;
-        for (int i = 0; i < node.getOps().size(); i++) {
+        for (int i = 0; i < node.getOpCount(); i++) {
             E_address = genId();
-            m_writer.println(E_address + " = " + node.getOps().get(i) + " " + E1_address);
+            m_writer.println(E_address + " = " + node.getOp(i).getSymbol() + " " + E1_address);
             E1_address = E_address;
         }
+        if (node.getOpCount() > 0) m_shared.remember(node, E1_address);
         return E1_address;
     }
 
@@ -308,22 +358,22 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
     "a = a || || a2 || b && c || d" est interprété comme "a = a || a2 || (b && (c || d))"
      */
     @Override
-    public Object visit(ASTBoolExpr node, Object data) {
-        BoolLabel B_label = (BoolLabel) data;
-        if (node.getOps().size() == 0) return node.jjtGetChild(0).jjtAccept(this, new BoolLabel(B_label));
-        for (int i = node.getOps().size(); i > 0; i--) {
-            if (node.getOps().get(i-1).equals("||")) {
+    public String visitBoolExpr(ASTBoolExpr node, BoolLabel data) {
+        BoolLabel B_label = data;
+        if (node.getOpCount() == 0) return node.child(0).accept(this, new BoolLabel(B_label));
+        for (int i = node.getOpCount(); i > 0; i--) {
+            if (node.getOp(i-1) == Operator.Or) {
                 BoolLabel B1_label;
                 if (B_label.lTrue.equals("fall")) B1_label = new BoolLabel(genLabel(), "fall");
                 else B1_label = new BoolLabel(B_label.lTrue, "fall");
                 BoolLabel B2_label = new BoolLabel(B_label);
                 if (B_label.lTrue.equals("fall")) {
-                    node.jjtGetChild(i-1).jjtAccept(this, new BoolLabel(B1_label));
-                    node.jjtGetChild(i).jjtAccept(this, new BoolLabel(B2_label));
-                    m_writer.println(B1_label.lTrue);
+                    node.child(i-1).accept(this, new BoolLabel(B1_label));
+                    node.child(i).accept(this, new BoolLabel(B2_label));
+                    printLabel(B1_label.lTrue);
                 } else {
-                    node.jjtGetChild(i-1).jjtAccept(this, new BoolLabel(B1_label));
-                    node.jjtGetChild(i).jjtAccept(this, new BoolLabel(B2_label));
+                    node.child(i-1).accept(this, new BoolLabel(B1_label));
+                    node.child(i).accept(this, new BoolLabel(B2_label));
                 }
             } else {
                 BoolLabel B1_label;
@@ -331,12 +381,12 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
                 else B1_label = new BoolLabel("fall", B_label.lFalse);
                 BoolLabel B2_label = new BoolLabel(B_label);
                 if (B_label.lFalse.equals("fall")) {
-                    node.jjtGetChild(i-1).jjtAccept(this, new BoolLabel(B1_label));
-                    node.jjtGetChild(i).jjtAccept(this, new BoolLabel(B2_label));
-                    m_writer.println(B1_label.lFalse);
+                    node.child(i-1).accept(this, new BoolLabel(B1_label));
+                    node.child(i).accept(this, new BoolLabel(B2_label));
+                    printLabel(B1_label.lFalse);
                 } else {
-                    node.jjtGetChild(i-1).jjtAccept(this, new BoolLabel(B1_label));
-                    node.jjtGetChild(i).jjtAccept(this, new BoolLabel(B2_label));
+                    node.child(i-1).accept(this, new BoolLabel(B1_label));
+                    node.child(i).accept(this, new BoolLabel(B2_label));
                 }
             }
         }
@@ -376,39 +426,28 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
         ne fera pas dans le cadre du TP), on pourrait s'assurer que le code produit est aussi efficace qu'il peut l'être.
      */
     @Override
-    public Object visit(ASTCompExpr node, Object data) {
-        if (node.getValue() == null) return node.jjtGetChild(0).jjtAccept(this, data);
-        BoolLabel B_label = (BoolLabel) data;
-
-        Boolean number_comparison;
-        Node child = node.jjtGetChild(0);
-        while (!(child instanceof ASTGenValue)) {
-            child = child.jjtGetChild(0);
-        }
-        child = child.jjtGetChild(0);
-        if (child instanceof ASTIdentifier) {
-            if(SymbolTable.get(((ASTIdentifier)child).getValue()).equals(VarType.Number)) number_comparison = true;
-            else number_comparison = false;
-        } else if (child instanceof ASTIntValue) {
-            number_comparison = true;
-        } else {
-            number_comparison = false;
-        }
+    public String visitCompExpr(ASTCompExpr node, BoolLabel data) {
+        if (node.getValue() == null) return node.child(0).accept(this, data);
+        BoolLabel B_label = data;
+
+        // Comme avant, un opérande qui commence par une parenthèse est comparé comme un booléen
+        ExpressionNode left = (ExpressionNode) node.jjtGetChild(0);
+        boolean number_comparison = left.getType() == VarType.Number && !left.startsWithParenthesis();
 
         if (number_comparison) {
             if(!B_label.lTrue.equals("fall") && !B_label.lFalse.equals("fall")) {
-                String E1_address = (String) node.jjtGetChild(0).jjtAccept(this, data);
-                String E2_address = (String) node.jjtGetChild(1).jjtAccept(this, data);
+                String E1_address = node.child(0).accept(this, data);
+                String E2_address = node.child(1).accept(this, data);
                 genCodeRelTestJump(B_label.lTrue, B_label.lFalse, E1_address + " " + node.getValue() + " " + E2_address);
             } else {
                 if(!B_label.lTrue.equals("fall")) {
-                    String E1_address = (String) node.jjtGetChild(0).jjtAccept(this, data);
-                    String E2_address = (String) node.jjtGetChild(1).jjtAccept(this, data);
+                    String E1_address = node.child(0).accept(this, data);
+                    String E2_address = node.child(1).accept(this, data);
                     genCodeRelTestJump(B_label.lTrue, null, " " + E1_address + " " + node.getValue() + " " + E2_address);
                 } else {
                     if(!B_label.lFalse.equals("fall")) {
-                        String E1_address = (String) node.jjtGetChild(0).jjtAccept(this, data);
-                        String E2_address = (String) node.jjtGetChild(1).jjtAccept(this, data);
+                        String E1_address = node.child(0).accept(this, data);
+                        String E2_address = node.child(1).accept(this, data);
                         genCodeRelTestJump(null, B_label.lFalse, "False " + E1_address + " " + node.getValue() + " " + E2_address);
                     } else {
                         m_writer.println("error");
@@ -417,18 +456,18 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
             }
         } else {
             if(!B_label.lTrue.equals("fall") && !B_label.lFalse.equals("fall")) {
-                String E1_address = assignBooleanCodeGen(node.jjtGetChild(0), genId(), data);
-                String E2_address = assignBooleanCodeGen(node.jjtGetChild(1), genId(), data);
+                String E1_address = assignBooleanCodeGen(node.child(0), genId(), data);
+                String E2_address = assignBooleanCodeGen(node.child(1), genId(), data);
                 genCodeRelTestJump(B_label.lTrue, B_label.lFalse, E1_address + " " + node.getValue() + " " + E2_address);
             } else {
                 if(!B_label.lTrue.equals("fall")) {
-                    String E1_address = assignBooleanCodeGen(node.jjtGetChild(0), genId(), data);
-                    String E2_address = assignBooleanCodeGen(node.jjtGetChild(1), genId(), data);
+                    String E1_address = assignBooleanCodeGen(node.child(0), genId(), data);
+                    String E2_address = assignBooleanCodeGen(node.child(1), genId(), data);
                     genCodeRelTestJump(B_label.lTrue, null, " " + E1_address + " " + node.getValue() + " " + E2_address);
                 } else {
                     if(!B_label.lFalse.equals("fall")) {
-                        String E1_address = assignBooleanCodeGen(node.jjtGetChild(0), genId(), data);
-                        String E2_address = assignBooleanCodeGen(node.jjtGetChild(1), genId(), data);
+                        String E1_address = assignBooleanCodeGen(node.child(0), genId(), data);
+                        String E2_address = assignBooleanCodeGen(node.child(1), genId(), data);
                         genCodeRelTestJump(null, B_label.lFalse, "False " + E1_address + " " + node.getValue() + " " + E2_address);
                     } else {
                         m_writer.println("error");
@@ -446,20 +485,20 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
     Si le nombre d'opération est pair, on peut simplement ignorer ce noeud.
      */
     @Override
-    public Object visit(ASTNotExpr node, Object data) {
-        BoolLabel B_label = (BoolLabel) data;
-        if (node.getOps().size() == 0) return node.jjtGetChild(0).jjtAccept(this, B_label);
-        for (int i = 0; i < node.getOps().size(); i++) {
+    public String visitNotExpr(ASTNotExpr node, BoolLabel data) {
+        BoolLabel B_label = data;
+        if (node.getOpCount() == 0) return node.child(0).accept(this, B_label);
+        for (int i = 0; i < node.getOpCount(); i++) {
             BoolLabel B1_label = new BoolLabel(B_label.lFalse, B_label.lTrue);
-            node.jjtGetChild(0).jjtAccept(this, B1_label);
+            node.child(0).accept(this, B1_label);
             B_label = new BoolLabel(B1_label);
         }
         return null;
     }
 
     @Override
-    public Object visit(ASTGenValue node, Object data) {
-        return node.jjtGetChild(0).jjtAccept(this, data);
+    public String visitGenValue(ASTGenValue node, BoolLabel data) {
+        return node.child(0).accept(this, data);
     }
 
     /*
@@ -467,12 +506,12 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
     Il doit plutôt généré des Goto direct, selon sa valeur.
      */
     @Override
-    public Object visit(ASTBoolValue node, Object data) {
+    public String visitBoolValue(ASTBoolValue node, BoolLabel data) {
         if (node.getValue()) {
-            if (!((BoolLabel) data).lTrue.equals("fall")) m_writer.println("goto " + ((BoolLabel) data).lTrue);
+            if (!data.lTrue.equals("fall")) m_writer.println("goto " + data.lTrue);
         }
         else {
-            if (!((BoolLabel) data).lFalse.equals("fall")) m_writer.println("goto " + ((BoolLabel) data).lFalse);
+            if (!data.lFalse.equals("fall")) m_writer.println("goto " + data.lFalse);
         }
         return null;
     }
@@ -484,9 +523,9 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
     en effet, la structure "if valeurBool goto Label" n'existe pas dans la syntaxe du code à trois adresse.
      */
     @Override
-    public Object visit(ASTIdentifier node, Object data) {
-        if(SymbolTable.get(node.getValue()).equals(VarType.Number)) return node.getValue();
-        BoolLabel B_label = (BoolLabel) data;
+    public String visitIdentifier(ASTIdentifier node, BoolLabel data) {
+        if(node.getType() == VarType.Number) return node.getValue();
+        BoolLabel B_label = data;
 
         if (!B_label.lTrue.equals("fall") && !B_label.lFalse.equals("fall")) {
             genCodeRelTestJump(B_label.lTrue, B_label.lFalse, node.getValue() + " == 1");
@@ -503,14 +542,14 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
     }
 
     @Override
-    public Object visit(ASTIntValue node, Object data) {
+    public String visitIntValue(ASTIntValue node, BoolLabel data) {
         return ((Integer)node.getValue()).toString();
     }
 
 
     @Override
-    public Object visit(ASTSwitchStmt node, Object data) {
-        String temp = (String) node.jjtGetChild(0).jjtAccept(this, data);
+    public String visitSwitchStmt(ASTSwitchStmt node, BoolLabel data) {
+        String temp = typed(node.child(0)).accept(this, data);
         String test = genLabel();
         String next = genLabel();
         ArrayList<String> labels = new ArrayList<String>();
@@ -519,39 +558,36 @@ public class IntermediateCodeGenFallVisitor implements ParserVisitor {
         for (int i = 1; i < node.jjtGetNumChildren(); i++) {
             String label = genLabel();
             labels.add(label);
-            m_writer.println(label);
-            address.add((String) node.jjtGetChild(i).jjtAccept(this, data));
+            printLabel(label);
+            address.add(node.child(i).accept(this, data));
             m_writer.println("goto " + next);
         }
-        m_writer.println(test);
+        printLabel(test);
         for (int counter = 0; counter < labels.size(); counter++) {
             if (address.get(counter) == null) m_writer.println("goto " + labels.get(counter));
             else genCodeRelTestJump(labels.get(counter), null, " " + temp + " == " + address.get(counter));
         }
-        m_writer.println(next);
+        printLabel(next);
         return null;
     }
 
     @Override
-    public Object visit(ASTCaseStmt node, Object data) {
-        node.jjtGetChild(1).jjtAccept(this, data);
-        return node.jjtGetChild(0).jjtAccept(this, data);
+    public String visitCaseStmt(ASTCaseStmt node, BoolLabel data) {
+        node.child(1).accept(this, data);
+        return typed(node.child(0)).accept(this, data);
     }
 
     @Override
-    public Object visit(ASTDefaultStmt node, Object data) {
-        node.childrenAccept(this, data);
+    public String visitDefaultStmt(ASTDefaultStmt node, BoolLabel data) {
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            node.child(i).accept(this, data);
+        }
         return null;
     }
 
     //des outils pour vous simplifier la vie et vous enligner dans le travail
-    public enum VarType {
-        Bool,
-        Number
-    }
-
     //utile surtout pour envoyé de l'informations au enfant des expressions logiques.
-    private class BoolLabel {
+    static class BoolLabel {
         public String lTrue = null;
         public String lFalse = null;
         public String next = null;
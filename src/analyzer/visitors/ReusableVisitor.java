@@ -0,0 +1,17 @@
+package analyzer.visitors;
+
+import analyzer.ast.ParserVisitor;
+
+import java.io.PrintWriter;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A visitor which can be used for many compilations. reset() gives it
+ * the state of a new instance (empty symbol table, counters at 0) printing in writer.
+ */
+
+public interface ReusableVisitor extends ParserVisitor {
+    void reset(PrintWriter writer);
+}
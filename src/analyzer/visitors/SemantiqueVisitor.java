@@ -1,12 +1,13 @@
 package analyzer.visitors;
 
+import analyzer.Diagnostics;
 import analyzer.SemantiqueError;
 import analyzer.ast.*;
 
-import javax.xml.crypto.Data;
 import java.io.PrintWriter;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -17,14 +18,74 @@ import java.util.HashMap;
  * Description: Ce visiteur explorer l'AST est renvoie des exceptions lorqu'une erreur sémantique est détecté.
  */
 
-public class SemantiqueVisitor implements ParserVisitor {
+public class SemantiqueVisitor extends IntNodeVisitorAdapter<Void> implements ReusableVisitor {
 
-    private final PrintWriter m_writer;
+    // Le résultat de la visite d'une expression : le code de son type (voir code()) et
+    // PARENTHESIZED si sa valeur la plus à gauche est entre parenthèses. Les instructions
+    // retournent NO_TYPE. Rien n'est alloué par noeud.
+    private static final VarType[] TYPES = VarType.values();
+    private static final int NO_TYPE = 0;
+    private static final int TYPE_MASK = 0xff;
+    private static final int PARENTHESIZED = 0x100;
+    // Une erreur a été gardée dans l'expression (voir reset(PrintWriter, Diagnostics)) : ses
+    // parents ne sont pas vérifiés, une seule faute ne donne qu'une erreur.
+    private static final int ERROR = 0x200;
 
-    public HashMap<String, VarType> SymbolTable = new HashMap<>();
+    // À partir de PARALLEL_THRESHOLD éléments dans le bloc du programme, ils sont vérifiés en
+    // parallèle, en CHUNKS_PER_THREAD tranches par thread du pool (voir checkInParallel())
+    public static final int PARALLEL_THRESHOLD = 20000;
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    private PrintWriter m_writer;
+
+    // Les variables déclarées, partagées avec le générateur de code qui utilise ce visiteur
+    private final SymbolTable m_symbols;
+
+    // Les erreurs trouvées. Sans reset(PrintWriter, Diagnostics), la première est lancée.
+    private final Diagnostics m_first = new Diagnostics();
+    private Diagnostics m_diagnostics = m_first;
+    private boolean m_throwing = true;
+
+    private ForkJoinPool m_pool = ForkJoinPool.commonPool();
+    private int m_parallelThreshold = PARALLEL_THRESHOLD;
 
     public SemantiqueVisitor(PrintWriter writer) {
+        this(writer, new SymbolTable());
+    }
+
+    // Le visiteur d'une tranche d'instructions, avec la table déjà remplie du programme
+    private SemantiqueVisitor(PrintWriter writer, SymbolTable symbols) {
         m_writer = writer;
+        m_symbols = symbols;
+    }
+
+    @Override
+    public void reset(PrintWriter writer) {
+        m_writer = writer;
+        m_symbols.clear();
+        m_first.clear();
+        m_diagnostics = m_first;
+        m_throwing = true;
+    }
+
+    // Comme reset(writer), mais les erreurs sont ajoutées à diagnostics et la visite continue
+    // après elles. "all good" n'est affiché que si la visite n'a trouvé aucune erreur.
+    public void reset(PrintWriter writer, Diagnostics diagnostics) {
+        reset(writer);
+        m_diagnostics = diagnostics;
+        m_throwing = false;
+    }
+
+    public SymbolTable getSymbols() {
+        return m_symbols;
+    }
+
+    // Le pool qui vérifie les instructions des programmes dont le bloc a au moins threshold
+    // éléments, null pour tout vérifier dans le thread appelant. Par défaut c'est le pool
+    // commun, utilisé seulement s'il a plus d'un thread.
+    public void setParallelism(ForkJoinPool pool, int threshold) {
+        m_pool = pool;
+        m_parallelThreshold = threshold;
     }
 
     /*
@@ -48,19 +109,117 @@ public class SemantiqueVisitor implements ParserVisitor {
      */
 
     @Override
-    public Object visit(SimpleNode node, Object data) {
-        return data;
+    public int visitNode(SimpleNode node, Void arg) {
+        return NO_TYPE;
     }
 
     @Override
-    public Object visit(ASTProgram node, Object data)  {
-        node.childrenAccept(this, data);
+    public int visitProgram(ASTProgram node, Void arg)  {
+        int errors = m_diagnostics.size();
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            PositionedNode child = node.child(i);
+            if (child instanceof ASTBlock && isParallel((ASTBlock) child)) {
+                checkInParallel((ASTBlock) child);
+            } else {
+                child.acceptInt(this, arg);
+            }
+        }
+        if (m_diagnostics.size() > errors) {
+            return NO_TYPE;
+        }
         m_writer.print("all good");
-        return data;
+        return NO_TYPE;
+    }
+
+    private boolean isParallel(ASTBlock block) {
+        return m_pool != null && m_pool.getParallelism() > 1 && block.jjtGetNumChildren() >= m_parallelThreshold;
+    }
+
+    /*
+    Après les déclarations, la table des symboles ne change plus (il n'y a pas de déclarations
+    imbriquées) : chaque instruction peut être vérifiée seule. Les éléments du bloc sont
+    découpés en tranches, chacune vérifiée par son propre visiteur qui garde ses erreurs.
+    Les erreurs sont ajoutées dans l'ordre des tranches, donc dans l'ordre du programme, et
+    la première lancée est celle qu'une vérification dans ce thread aurait lancée.
+     */
+    private void checkInParallel(ASTBlock block) {
+        int count = block.jjtGetNumChildren();
+        int chunks = Math.min(count, m_pool.getParallelism() * CHUNKS_PER_THREAD);
+        Chunk[] tasks = new Chunk[chunks];
+        AtomicInteger failed = new AtomicInteger(chunks);
+        for (int c = 0; c < chunks; c++) {
+            tasks[c] = new Chunk(block, c, (int) ((long) count * c / chunks), (int) ((long) count * (c + 1) / chunks), failed);
+        }
+        m_pool.invoke(new AllChunks(tasks));
+        for (Chunk task : tasks) {
+            if (task.m_error != null) {
+                throw task.m_error;
+            }
+            m_diagnostics.addAll(task.m_diagnostics);
+        }
+    }
+
+    // Lance les tranches dans le pool (invokeAll doit être appelé par une de ses tâches)
+    private static class AllChunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk[] m_chunks;
+
+        AllChunks(Chunk[] chunks) {
+            m_chunks = chunks;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(m_chunks);
+        }
+    }
+
+    // Les éléments [from, to) d'un bloc. Quand les erreurs sont lancées, une tranche après
+    // une autre qui a échoué ne sert à rien et n'est pas vérifiée.
+    private class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ASTBlock m_block;
+        private final int m_index;
+        private final int m_from;
+        private final int m_to;
+        private final AtomicInteger m_failed;
+        private final Diagnostics m_diagnostics = new Diagnostics();
+        private SemantiqueError m_error;
+
+        Chunk(ASTBlock block, int index, int from, int to, AtomicInteger failed) {
+            m_block = block;
+            m_index = index;
+            m_from = from;
+            m_to = to;
+            m_failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (m_throwing && m_failed.get() < m_index) {
+                return;
+            }
+            SemantiqueVisitor visitor = new SemantiqueVisitor(null, m_symbols);
+            visitor.m_diagnostics = m_diagnostics;
+            visitor.m_throwing = m_throwing;
+            try {
+                for (int i = m_from; i < m_to; i++) {
+                    m_block.child(i).acceptInt(visitor, null);
+                }
+            } catch (SemantiqueError e) {
+                m_error = e;
+                int failed = m_failed.get();
+                while (m_index < failed && !m_failed.compareAndSet(failed, m_index)) {
+                    failed = m_failed.get();
+                }
+            }
+        }
     }
 
     @Override
-    public Object visit(ASTDeclaration node, Object data) {
+    public int visitDeclaration(ASTDeclaration node, Void arg) {
         ASTIdentifier id = (ASTIdentifier) node.jjtGetChild(0);
         VarType t;
         if(node.getValue().equals("bool")) {
@@ -68,225 +227,256 @@ public class SemantiqueVisitor implements ParserVisitor {
         } else {
             t = VarType.Number;
         }
-        SymbolTable.put(id.getValue(), t);
-        return null;
+        id.setSymbol(m_symbols.declare(id.getValue(), t));
+        return NO_TYPE;
     }
 
     @Override
-    public Object visit(ASTBlock node, Object data) {
-        node.childrenAccept(this, data);
-        return data;
+    public int visitBlock(ASTBlock node, Void arg) {
+        TreeWalker.walkChildren(node, this, arg);
+        return NO_TYPE;
     }
 
 
     @Override
-    public Object visit(ASTStmt node, Object data) {
-        node.childrenAccept(this, data);
-        return data;
+    public int visitStmt(ASTStmt node, Void arg) {
+        TreeWalker.walkChildren(node, this, arg);
+        return NO_TYPE;
     }
 
     @Override
-    public Object visit(ASTIfStmt node, Object data) {
-        DataStruct firstD = (DataStruct) node.jjtGetChild(0).jjtAccept(this, data);
-        if(!estCompatible(firstD.type, VarType.Bool)) {
-            throw new SemantiqueError("Invalid type in condition");
+    public int visitIfStmt(ASTIfStmt node, Void arg) {
+        int first = node.child(0).acceptInt(this, arg);
+        if((first & ERROR) == 0 && !estCompatible(type(first), VarType.Bool)) {
+            m_diagnostics.condition(node.child(0).getPosition());
+            failed();
         }
         for(int i = 1; i < node.jjtGetNumChildren(); i++) {
-            node.jjtGetChild(i).jjtAccept(this, data);
+            node.child(i).acceptInt(this, arg);
         }
 
-        return data;
+        return NO_TYPE;
     }
 
     @Override
-    public Object visit(ASTWhileStmt node, Object data) {
-        DataStruct firstD = (DataStruct) node.jjtGetChild(0).jjtAccept(this, data);
-        if(!estCompatible(firstD.type, VarType.Bool)) {
-            throw new SemantiqueError("Invalid type in condition");
+    public int visitWhileStmt(ASTWhileStmt node, Void arg) {
+        int first = node.child(0).acceptInt(this, arg);
+        if((first & ERROR) == 0 && !estCompatible(type(first), VarType.Bool)) {
+            m_diagnostics.condition(node.child(0).getPosition());
+            failed();
         }
         for(int i = 1; i < node.jjtGetNumChildren(); i++) {
-            node.jjtGetChild(i).jjtAccept(this, data);
+            node.child(i).acceptInt(this, arg);
         }
 
-        return data;
+        return NO_TYPE;
     }
 
 
     @Override
-    public Object visit(ASTAssignStmt node, Object data) {
-        DataStruct assignId = (DataStruct) node.jjtGetChild(0).jjtAccept(this, data);
-        DataStruct assignExpr = (DataStruct) node.jjtGetChild(1).jjtAccept(this, data);
-        if(!estCompatible(assignId.type, assignExpr.type)) {
-            throw new SemantiqueError("Invalid type in assignment");
+    public int visitAssignStmt(ASTAssignStmt node, Void arg) {
+        int assignId = node.child(0).acceptInt(this, arg);
+        int assignExpr = node.child(1).acceptInt(this, arg);
+        if(((assignId | assignExpr) & ERROR) == 0 && !estCompatible(type(assignId), type(assignExpr))) {
+            m_diagnostics.assignment(node.getPosition());
+            failed();
         }
-        return data;
+        return NO_TYPE;
     }
 
     @Override
-    public Object visit(ASTExpr node, Object data){
-        return node.jjtGetChild(0).jjtAccept(this, data);
+    public int visitExpr(ASTExpr node, Void arg){
+        return typed(node, node.child(0).acceptInt(this, arg));
     }
 
     @Override
-    public Object visit(ASTBoolExpr node, Object data) {
+    public int visitBoolExpr(ASTBoolExpr node, Void arg) {
 
-        return visitExprAst(node, data, VarType.Bool);
+        return visitExprAst(node, arg, VarType.Bool);
     }
 
     @Override
-    public Object visit(ASTCompExpr node, Object data) {
-        DataStruct firstD = (DataStruct) node.jjtGetChild(0).jjtAccept(this, data);
+    public int visitCompExpr(ASTCompExpr node, Void arg) {
+        int first = node.child(0).acceptInt(this, arg);
         String op = node.getValue();
 
         VarType expectedType = VarType.Number;
 
-        VarType newType = firstD.type;
+        VarType newType = type(first);
         if(op != null) {
             if(op.equals("==") || op.equals("!=")) {
-                expectedType = firstD.type;
+                expectedType = type(first);
 
             }
             newType = VarType.Bool;
         }
 
+        int errors = 0;
         for(int i = 1; i < node.jjtGetNumChildren(); i++) {
-            DataStruct d = (DataStruct) node.jjtGetChild(i).jjtAccept(this, data);
-            firstD.checkType(d, expectedType);
+            int d = node.child(i).acceptInt(this, arg);
+            errors |= checkType(node, first, d, expectedType);
         }
-        firstD.type = newType;
-        return firstD;
+        return typed(node, code(newType) | (first & (PARENTHESIZED | ERROR)) | errors);
     }
 
     @Override
-    public Object visit(ASTAddExpr node, Object data) {
-        return visitExprAst(node, data, VarType.Number);
+    public int visitAddExpr(ASTAddExpr node, Void arg) {
+        return visitExprAst(node, arg, VarType.Number);
     }
 
     @Override
-    public Object visit(ASTMulExpr node, Object data) {
-        return visitExprAst(node, data, VarType.Number);
+    public int visitMulExpr(ASTMulExpr node, Void arg) {
+        return visitExprAst(node, arg, VarType.Number);
     }
 
 
     //Unary operator
     @Override
-    public Object visit(ASTNotExpr node, Object data) {
-        Boolean haveOp = node.getOps().size() > 0;
+    public int visitNotExpr(ASTNotExpr node, Void arg) {
+        int first = node.child(0).acceptInt(this, arg);
 
-        DataStruct firstD = (DataStruct) node.jjtGetChild(0).jjtAccept(this, data);
-
-        if(haveOp) {
-            firstD.checkType(VarType.Bool);
+        if(node.getOpCount() > 0) {
+            first |= checkType(node, first, VarType.Bool);
         }
-        return firstD;
+        return typed(node, first);
     }
 
     @Override
-    public Object visit(ASTUnaExpr node, Object data) {
-        Boolean haveOp = node.getOps().size() > 0;
-
-        DataStruct firstD = (DataStruct) node.jjtGetChild(0).jjtAccept(this, data);
+    public int visitUnaExpr(ASTUnaExpr node, Void arg) {
+        int first = node.child(0).acceptInt(this, arg);
 
-        if(haveOp) {
-            firstD.checkType(VarType.Number);
+        if(node.getOpCount() > 0) {
+            first |= checkType(node, first, VarType.Number);
         }
-        return firstD;
+        return typed(node, first);
     }
 
-    private DataStruct visitExprAst(SimpleNode node, Object data, VarType expectedType) {
-        DataStruct firstD = (DataStruct) node.jjtGetChild(0).jjtAccept(this, data);
+    private int visitExprAst(ExpressionNode node, Void arg, VarType expectedType) {
+        int first = node.child(0).acceptInt(this, arg);
 
+        int errors = 0;
         for(int i = 1; i < node.jjtGetNumChildren(); i++) {
-            DataStruct d = (DataStruct) node.jjtGetChild(i).jjtAccept(this, data);
-            firstD.checkType(d, expectedType);
+            int d = node.child(i).acceptInt(this, arg);
+            errors |= checkType(node, first, d, expectedType);
         }
-        return firstD;
+        return typed(node, first | errors);
     }
 
+    // Le type de chaque expression est inscrit sur son noeud, les générateurs de code le lisent
+    // là. Le résultat de la valeur la plus à gauche remonte avec l'expression, comme le drapeau.
+    private int typed(ExpressionNode node, int result) {
+        node.setType(type(result));
+        node.setStartsWithParenthesis((result & PARENTHESIZED) != 0);
+        return result;
+    }
 
+    // NO_TYPE pour null, sinon l'ordinal du type plus un
+    private static int code(VarType type) {
+        return type == null ? NO_TYPE : type.ordinal() + 1;
+    }
 
-    @Override
-    public Object visit(ASTGenValue node, Object data) {
-        return node.jjtGetChild(0).jjtAccept(this, data);
+    private static VarType type(int result) {
+        int code = result & TYPE_MASK;
+        return code == NO_TYPE ? null : TYPES[code - 1];
     }
 
 
+
     @Override
-    public Object visit(ASTBoolValue node, Object data) {
-        DataStruct d = new DataStruct(VarType.Bool);
-        return d;
+    public int visitGenValue(ASTGenValue node, Void arg) {
+        int d = node.child(0).acceptInt(this, arg);
+        if (node.jjtGetChild(0) instanceof ASTExpr) {
+            d |= PARENTHESIZED;
+        }
+        return typed(node, d);
     }
 
 
     @Override
-    public Object visit(ASTIdentifier node, Object data) {
-        DataStruct d = new DataStruct();
+    public int visitBoolValue(ASTBoolValue node, Void arg) {
+        return typed(node, code(VarType.Bool));
+    }
 
-        if(data == null || !data.equals("declaration")) {
-            if(SymbolTable.get(node.getValue()) != null) {
-                d.type = SymbolTable.get(node.getValue());
-            } else {
-                throw new SemantiqueError("Invalid use of undefined Identifier " + node.getValue());
-            }
+
+    @Override
+    public int visitIdentifier(ASTIdentifier node, Void arg) {
+        int symbol = m_symbols.resolve(node);
+        if(symbol == SymbolTable.UNDEFINED) {
+            m_diagnostics.undefined(node.getValue(), node.getPosition());
+            return typed(node, failed());
         }
-        return d;
+        return typed(node, code(m_symbols.getType(symbol)));
     }
 
     @Override
-    public Object visit(ASTIntValue node, Object data) {
-        return new DataStruct(VarType.Number);
+    public int visitIntValue(ASTIntValue node, Void arg) {
+        return typed(node, code(VarType.Number));
     }
 
     @Override
-    public Object visit(ASTSwitchStmt node, Object data) {
+    public int visitSwitchStmt(ASTSwitchStmt node, Void arg) {
 
-        node.childrenAccept(this, null);
-        return null;
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            node.child(i).acceptInt(this, null);
+        }
+        return NO_TYPE;
     }
 
     @Override
-    public Object visit(ASTCaseStmt node, Object data) {
+    public int visitCaseStmt(ASTCaseStmt node, Void arg) {
 
-        node.childrenAccept(this, null);
-        return null;
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            node.child(i).acceptInt(this, null);
+        }
+        return NO_TYPE;
     }
 
     @Override
-    public Object visit(ASTDefaultStmt node, Object data) {
+    public int visitDefaultStmt(ASTDefaultStmt node, Void arg) {
 
-        node.childrenAccept(this, null);
-        return null;
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            node.child(i).acceptInt(this, null);
+        }
+        return NO_TYPE;
     }
 
     //des outils pour vous simplifier la vie et vous enligner dans le travail
-    public enum VarType {
-        Bool,
-        Number
-    }
-
     private boolean estCompatible(VarType a, VarType b) {
         return a == b;
     }
 
-    private class DataStruct {
-        public VarType type;
-
-        public DataStruct() {}
-
-        public DataStruct(VarType p_type){
-            type = p_type;
+    // Les vérifications retournent 0, ou ERROR si l'erreur est gardée (ou l'était déjà dans
+    // une opérande, elle n'est alors pas vérifiée)
+    private int checkType(PositionedNode node, int result, VarType expectedType) {
+        if((result & ERROR) != 0) {
+            return ERROR;
         }
+        VarType type = type(result);
+        if(!estCompatible(type, expectedType)) {
+            m_diagnostics.expression(type, expectedType, node.getPosition());
+            return failed();
+        }
+        return 0;
+    }
 
-        public void checkType(VarType expectedType) {
-            if(!estCompatible(type, expectedType)) {
-                throw new SemantiqueError("Invalid type in expression got " + type.toString() + " was expecting " + expectedType);
-            }
+    private int checkType(PositionedNode node, int first, int second, VarType expectedType) {
+        if(((first | second) & ERROR) != 0) {
+            return ERROR;
+        }
+        VarType type = type(first);
+        VarType d = type(second);
+        if(!estCompatible(type, expectedType) || !estCompatible(d, expectedType)) {
+            m_diagnostics.expression(type, d, expectedType, node.getPosition());
+            return failed();
         }
+        return 0;
+    }
 
-        public void checkType(DataStruct d, VarType expectedType) {
-            if(!estCompatible(type, expectedType) || !estCompatible(d.type, expectedType)) {
-                throw new SemantiqueError("Invalid type in expression got " + type.toString() + " and " + d.type.toString() + " was expecting " + expectedType);
-            }
+    // L'erreur qui vient d'être ajoutée est lancée, ou la visite continue avec ERROR
+    private int failed() {
+        if(m_throwing) {
+            throw m_diagnostics.get(m_diagnostics.size() - 1);
         }
+        return ERROR;
     }
 }
@@ -0,0 +1,131 @@
+package analyzer.visitors;
+
+import analyzer.ast.ASTIdentifier;
+import analyzer.ast.ExpressionNode;
+import analyzer.ast.Node;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Les temporaires des expressions déjà calculées par un générateur de code,
+ * pour les expressions partagées par ExpressionInterner. Une entrée est oubliée quand un
+ * identifiant ou une sous-expression qu'elle lit change (m_readers), et toutes à chaque
+ * label (d'autres chemins peuvent y mener, voir clear()).
+ *
+ * Les lecteurs d'un identifiant sont rangés à l'indice de son symbole dans la table du
+ * générateur (ou celle du SemantiqueVisitor qui a vérifié l'arbre), m_readSymbols garde
+ * les symboles lus pour ne vider que ceux-là. Chaque générateur a le sien.
+ */
+
+final class SharedExpressions {
+
+    private final IdentityHashMap<Node, String> m_temporaries = new IdentityHashMap<>();
+    private final IdentityHashMap<Node, ArrayList<Node>> m_readers = new IdentityHashMap<>();
+    private ArrayList<Node>[] m_symbolReaders = newReaders(16);
+    private int[] m_readSymbols = new int[16];
+    private int m_readCount = 0;
+
+    // Assez de place pour les lecteurs de symbols symboles
+    void reserve(int symbols) {
+        if (symbols > m_symbolReaders.length) {
+            ArrayList<Node>[] grown = newReaders(symbols);
+            System.arraycopy(m_symbolReaders, 0, grown, 0, m_symbolReaders.length);
+            m_symbolReaders = grown;
+        }
+    }
+
+    // Le temporaire d'une expression partagée calculée avant, null s'il n'y en a pas
+    String temporary(ExpressionNode node) {
+        return node.isShared() ? m_temporaries.get(node) : null;
+    }
+
+    // Seules les expressions partagées sont retenues, les autres ne reviendront pas. Les
+    // sous-expressions d'une expression partagée le sont aussi.
+    void remember(ExpressionNode node, String address) {
+        if (node.isShared()) {
+            m_temporaries.put(node, address);
+            findReads(node, node);
+        }
+    }
+
+    // Les identifiants lus par expr sous node. On s'arrête aux sous-expressions qui ont déjà
+    // un temporaire, expr en dépend : les imbrications profondes restent linéaires.
+    private void findReads(Node expr, Node node) {
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            Node child = node.jjtGetChild(i);
+            if (child instanceof ASTIdentifier) {
+                readBy(((ASTIdentifier) child).getSymbol(), expr);
+            } else if (m_temporaries.containsKey(child)) {
+                readBy(child, expr);
+            } else {
+                findReads(expr, child);
+            }
+        }
+    }
+
+    private void readBy(Node read, Node expr) {
+        ArrayList<Node> readers = m_readers.get(read);
+        if (readers == null) {
+            readers = new ArrayList<>();
+            m_readers.put(read, readers);
+        }
+        readers.add(expr);
+    }
+
+    // Un identifiant non déclaré n'a pas de symbole (-1), personne ne peut l'assigner
+    private void readBy(int symbol, Node expr) {
+        if (symbol < 0) return;
+        if (symbol >= m_symbolReaders.length) {
+            reserve(Math.max(symbol + 1, m_symbolReaders.length * 2));
+        }
+        ArrayList<Node> readers = m_symbolReaders[symbol];
+        if (readers == null) {
+            readers = new ArrayList<>();
+            m_symbolReaders[symbol] = readers;
+            if (m_readCount == m_readSymbols.length) {
+                int[] grown = new int[m_readCount * 2];
+                System.arraycopy(m_readSymbols, 0, grown, 0, m_readCount);
+                m_readSymbols = grown;
+            }
+            m_readSymbols[m_readCount++] = symbol;
+        }
+        readers.add(expr);
+    }
+
+    // symbol vient d'être assigné, les expressions qui le lisent doivent être recalculées
+    void forget(int symbol) {
+        if (symbol < 0 || symbol >= m_symbolReaders.length || m_symbolReaders[symbol] == null) return;
+        ArrayList<Node> pending = new ArrayList<>();
+        forget(m_symbolReaders[symbol], pending);
+        m_symbolReaders[symbol] = null;
+        while (!pending.isEmpty()) {
+            forget(m_readers.remove(pending.remove(pending.size() - 1)), pending);
+        }
+    }
+
+    private void forget(ArrayList<Node> readers, ArrayList<Node> pending) {
+        if (readers != null) {
+            for (Node expr : readers) {
+                if (m_temporaries.remove(expr) != null) pending.add(expr);
+            }
+        }
+    }
+
+    void clear() {
+        m_temporaries.clear();
+        m_readers.clear();
+        for (int i = 0; i < m_readCount; i++) {
+            m_symbolReaders[m_readSymbols[i]] = null;
+        }
+        m_readCount = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayList<Node>[] newReaders(int size) {
+        return (ArrayList<Node>[]) new ArrayList<?>[size];
+    }
+}
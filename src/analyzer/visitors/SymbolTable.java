@@ -0,0 +1,81 @@
+package analyzer.visitors;
+
+import analyzer.ast.ASTIdentifier;
+import analyzer.ast.VarType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The variables of a program, numbered 0, 1, 2... in the order of their
+ * declaration. The type of each one is kept in a byte[] indexed by its id, a code
+ * generator reads the table of its typer instead of keeping its own.
+ *
+ * A name is hashed when it is declared and the first time an ASTIdentifier is resolved:
+ * the id is kept on the node, the next passes on the same tree only check that it is
+ * still the id of the name (the declarations can change between two programs).
+ */
+
+public class SymbolTable {
+
+    public static final int UNDEFINED = -1;
+
+    private static final VarType[] TYPES = VarType.values();
+
+    private final HashMap<String, Integer> m_ids = new HashMap<>();
+    private String[] m_names = new String[16];
+    private byte[] m_types = new byte[16];
+    private int m_size;
+
+    // The id of name, a new one if it is not declared yet. Declared again, it takes the new type.
+    public int declare(String name, VarType type) {
+        Integer id = m_ids.get(name);
+        if (id == null) {
+            if (m_size == m_names.length) {
+                m_names = Arrays.copyOf(m_names, m_size * 2);
+                m_types = Arrays.copyOf(m_types, m_size * 2);
+            }
+            id = m_size++;
+            m_ids.put(name, id);
+            m_names[id] = name;
+        }
+        m_types[id] = (byte) type.ordinal();
+        return id;
+    }
+
+    // The id of the variable named by node, UNDEFINED if it was not declared
+    public int resolve(ASTIdentifier node) {
+        int id = node.getSymbol();
+        String name = node.getValue();
+        if (id >= 0 && id < m_size && m_names[id].equals(name)) {
+            return id;
+        }
+        Integer found = m_ids.get(name);
+        if (found == null) {
+            return UNDEFINED;
+        }
+        node.setSymbol(found);
+        return found;
+    }
+
+    public VarType getType(int id) {
+        return TYPES[m_types[id]];
+    }
+
+    public String getName(int id) {
+        return m_names[id];
+    }
+
+    public int size() {
+        return m_size;
+    }
+
+    public void clear() {
+        m_ids.clear();
+        Arrays.fill(m_names, 0, m_size, null);
+        m_size = 0;
+    }
+}
@@ -0,0 +1,79 @@
+package analyzer.visitors;
+
+import analyzer.ast.ASTBlock;
+import analyzer.ast.ASTStmt;
+import analyzer.ast.IntNodeVisitor;
+import analyzer.ast.Node;
+import analyzer.ast.NodeVisitor;
+import analyzer.ast.PositionedNode;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Visits the children of a node with an explicit work stack instead of
+ * childrenAccept(). The Block and Stmt children are not visited, their own children
+ * are walked in place, so "{ { { ... } } }" does not use the call stack at all.
+ * Only Block and Stmt are flattened: the bodies of If, While and Switch (and the
+ * expressions) are still visited recursively, a deep nesting of them still uses the
+ * call stack.
+ *
+ * A visitor can use it only if its visitBlock() and visitStmt() do nothing else than
+ * visiting their children in order with the same argument (this is the case of the
+ * visitors of this package). The other children are visited with accept().
+ * next() gives them one by one for the visitors which do something else with them.
+ */
+
+public class TreeWalker {
+
+    private Node[] m_nodes = new Node[16];
+    private int[] m_next = new int[16];
+    private int m_top;
+
+    public TreeWalker(Node node) {
+        m_nodes[0] = node;
+    }
+
+    public static <A, R> void walkChildren(Node node, NodeVisitor<A, R> visitor, A arg) {
+        TreeWalker walker = new TreeWalker(node);
+        for (PositionedNode child = walker.next(); child != null; child = walker.next()) {
+            child.accept(visitor, arg);
+        }
+    }
+
+    public static <A> void walkChildren(Node node, IntNodeVisitor<A> visitor, A arg) {
+        TreeWalker walker = new TreeWalker(node);
+        for (PositionedNode child = walker.next(); child != null; child = walker.next()) {
+            child.acceptInt(visitor, arg);
+        }
+    }
+
+    // The next child which is not a Block or a Stmt, null when all were given
+    public PositionedNode next() {
+        while (m_top >= 0) {
+            Node current = m_nodes[m_top];
+            int i = m_next[m_top];
+            if (i == current.jjtGetNumChildren()) {
+                m_nodes[m_top--] = null;
+                continue;
+            }
+            m_next[m_top] = i + 1;
+
+            Node child = current.jjtGetChild(i);
+            if (!(child instanceof ASTBlock || child instanceof ASTStmt)) {
+                return (PositionedNode) child;
+            }
+            if (++m_top == m_nodes.length) {
+                Node[] grownNodes = new Node[m_top * 2];
+                int[] grownNext = new int[m_top * 2];
+                System.arraycopy(m_nodes, 0, grownNodes, 0, m_top);
+                System.arraycopy(m_next, 0, grownNext, 0, m_top);
+                m_nodes = grownNodes;
+                m_next = grownNext;
+            }
+            m_nodes[m_top] = child;
+            m_next[m_top] = 0;
+        }
+        return null;
+    }
+}
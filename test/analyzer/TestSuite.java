@@ -19,7 +19,26 @@ import analyzer.tests.*;
 @Suite.SuiteClasses({
         SemantiqueTest.class,
         IntermediateCodeGenTest.class,
-        IntermediateCodeGenFallTest.class
+        IntermediateCodeGenFallTest.class,
+        LexerTest.class,
+        CompilerContextTest.class,
+        StreamingTest.class,
+        IncrementalParserTest.class,
+        FlatTreeTest.class,
+        ParseCacheTest.class,
+        OutputCacheTest.class,
+        ExpressionInternerTest.class,
+        PositionTest.class,
+        RecognizerTest.class,
+        NodeVisitorTest.class,
+        SymbolTableTest.class,
+        CompilerTest.class,
+        DiagnosticsTest.class,
+        ParallelCheckTest.class,
+        IncrementalCheckerTest.class,
+        CompilerServerTest.class,
+        ParenthesesTest.class,
+        FlatTreeAcceptTest.class
 })
 
 public class TestSuite {
@@ -0,0 +1,92 @@
+package analyzer.benchmarks;
+
+import analyzer.BatchCompiler;
+import analyzer.CompilerContext;
+import analyzer.VisitorKind;
+import analyzer.ast.NodeArena;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compiles files with BatchCompiler.compile() on the current thread, with
+ * the nodes allocated for each program then with the NodeArena of the CompilerContext.
+ * The time, the bytes allocated and the collections done while compiling all the files
+ * a few times are reported.
+ * args[0] (Optional): the number of files (default 500)
+ * args[1] (Optional): the number of statements of each file (default 200)
+ */
+
+public class ArenaBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int statements = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Path directory = Files.createTempDirectory("arena");
+        final List<Path> files = new ArrayList<>();
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            byte[] program = new ProgramGenerator(i, 20, 20).program(statements).getBytes(StandardCharsets.US_ASCII);
+            files.add(Files.write(directory.resolve("p" + i + ".txt"), program));
+            total += program.length;
+        }
+        System.out.println(String.format("%d files, %.1f MB", count, total / 1e6));
+
+        final BatchCompiler compiler = new BatchCompiler(VisitorKind.Tac, 1);
+        Bench.Case batch = new Bench.Case() {
+            @Override
+            public void run() {
+                for (Path file : files) {
+                    compiler.compile(file);
+                }
+            }
+        };
+
+        CompilerContext context = CompilerContext.current();
+        Bench bench = new Bench(3, 10);
+        try {
+            context.setNodeArena(null);
+            bench.measure("New nodes", batch);
+            bench.allocation("New nodes", batch, total);
+            collections("New nodes", batch);
+
+            context.setNodeArena(new NodeArena());
+            bench.measure("NodeArena", batch);
+            bench.allocation("NodeArena", batch, total);
+            collections("NodeArena", batch);
+        } finally {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    // Number and time of the collections during 10 runs
+    private static void collections(String name, Bench.Case c) throws Exception {
+        System.gc();
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count -= gc.getCollectionCount();
+            time -= gc.getCollectionTime();
+        }
+        for (int i = 0; i < 10; i++) {
+            c.run();
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += gc.getCollectionCount();
+            time += gc.getCollectionTime();
+        }
+        System.out.println(String.format("%-40s %6d collections %8d ms in 10 runs", name, count, time));
+    }
+}
@@ -0,0 +1,96 @@
+package analyzer.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: A very small timing harness for the benchmarks of this folder.
+ * Each case is warmed up before being measured, the best and the average
+ * time of the measured runs are printed.
+ * allocation() reports the bytes allocated by a case (HotSpot only), retained()
+ * the heap still used by what a builder returns.
+ */
+
+public class Bench {
+
+    public interface Case {
+        void run() throws Exception;
+    }
+
+    public interface Builder {
+        Object build() throws Exception;
+    }
+
+    // What retained() measures must stay reachable until the heap is read
+    private static volatile Object m_kept;
+
+    private final int m_warmup;
+    private final int m_runs;
+
+    public Bench(int warmup, int runs) {
+        m_warmup = warmup;
+        m_runs = runs;
+    }
+
+    // Returns the best time in milliseconds
+    public double measure(String name, Case c) throws Exception {
+        for (int i = 0; i < m_warmup; i++) {
+            c.run();
+        }
+
+        double best = Double.MAX_VALUE;
+        double total = 0;
+        for (int i = 0; i < m_runs; i++) {
+            long start = System.nanoTime();
+            c.run();
+            double ms = (System.nanoTime() - start) / 1e6;
+            best = Math.min(best, ms);
+            total += ms;
+        }
+
+        System.out.println(String.format("%-40s best %10.3f ms   avg %10.3f ms", name, best, total / m_runs));
+        return best;
+    }
+
+    // Bytes allocated by the current thread for one run, per KB of source
+    public double allocation(String name, Case c, long sourceBytes) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        for (int i = 0; i < m_warmup; i++) {
+            c.run();
+        }
+
+        long before = threads.getThreadAllocatedBytes(id);
+        c.run();
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        double perKB = allocated / (sourceBytes / 1024.0);
+        System.out.println(String.format("%-40s %12.0f bytes allocated / KB of source", name, perKB));
+        return perKB;
+    }
+
+    // Bytes of heap retained by the object built, per KB of source
+    public double retained(String name, Builder builder, long sourceBytes) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        collect();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        m_kept = builder.build();
+        collect();
+        long retained = memory.getHeapMemoryUsage().getUsed() - before;
+        m_kept = null;
+
+        double perKB = retained / (sourceBytes / 1024.0);
+        System.out.println(String.format("%-40s %12.0f bytes retained / KB of source", name, perKB));
+        return perKB;
+    }
+
+    private static void collect() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package analyzer.benchmarks;
+
+import analyzer.CompilerContext;
+import analyzer.VisitorKind;
+import analyzer.ast.Parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compiles many small programs one after the other, like the batch mode
+ * or the server do, with a new parser and visitor each time or with a CompilerContext.
+ * args[0] (Optional): the number of programs (default 2000)
+ */
+
+public class CompileBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        final byte[][] programs = new byte[count][];
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            programs[i] = new ProgramGenerator(i, 5, 5).program(10).getBytes(StandardCharsets.US_ASCII);
+            total += programs[i].length;
+        }
+        System.out.println(String.format("%d programs, %.1f KB", count, total / 1e3));
+
+        Bench.Case fresh = new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                for (byte[] program : programs) {
+                    StringWriter buffer = new StringWriter();
+                    PrintWriter writer = new PrintWriter(buffer);
+                    Parser.ParseTree(new ByteArrayInputStream(program)).jjtAccept(VisitorKind.Tac.create(writer), null);
+                    writer.flush();
+                }
+            }
+        };
+        Bench.Case pooled = new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                CompilerContext context = CompilerContext.current();
+                for (byte[] program : programs) {
+                    context.compile(VisitorKind.Tac, new ByteArrayInputStream(program));
+                }
+            }
+        };
+
+        Bench bench = new Bench(5, 10);
+        bench.measure("New parser and visitor", fresh);
+        bench.measure("CompilerContext", pooled);
+        bench.allocation("New parser and visitor", fresh, total);
+        bench.allocation("CompilerContext", pooled, total);
+    }
+}
@@ -0,0 +1,101 @@
+package analyzer.benchmarks;
+
+import analyzer.VisitorKind;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.Parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Runs the visitors on a program nested depth times in blocks and in
+ * parentheses, and checks that the output is the one of the same program without
+ * the nesting. The parser is still recursive, so it runs on a thread with a large
+ * stack, but the visitors run on the main thread.
+ * args[0] (Optional): the depth of the nesting (default 100000)
+ */
+
+public class DeepNestingBenchmark {
+
+    private static final String DECLARATIONS = "Declaration\n num a;\n bool c;\nEndDeclaration\n";
+
+    public static void main(String[] args) throws Exception {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+
+        StringBuilder nested = new StringBuilder(DECLARATIONS);
+        repeat(nested, "{", depth);
+        nested.append("a = ");
+        repeat(nested, "(", depth);
+        nested.append("1");
+        repeat(nested, ")", depth);
+        nested.append(";\nc = ");
+        repeat(nested, "(", depth);
+        nested.append("a > 0");
+        repeat(nested, ")", depth);
+        nested.append(";\n");
+        repeat(nested, "}", depth);
+
+        String flat = DECLARATIONS + "a = (1);\nc = (a > 0);\n";
+
+        final ASTProgram nestedTree = parse(nested.toString());
+        final ASTProgram flatTree = parse(flat);
+        System.out.println(String.format("depth %d, %.1f KB", depth, nested.length() / 1e3));
+
+        Bench bench = new Bench(3, 5);
+        for (final VisitorKind kind : VisitorKind.values()) {
+            String expected = visit(flatTree, kind);
+            String actual = visit(nestedTree, kind);
+            if (!expected.equals(actual)) {
+                throw new AssertionError(kind.getName() + ": expected\n" + expected + "\nbut got\n" + actual);
+            }
+
+            bench.measure(kind.getName() + " visitor, nested program", new Bench.Case() {
+                @Override
+                public void run() {
+                    visit(nestedTree, kind);
+                }
+            });
+        }
+        System.out.println("The outputs are the same as without the nesting");
+    }
+
+    private static void repeat(StringBuilder sb, String s, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+    }
+
+    private static String visit(ASTProgram tree, VisitorKind kind) {
+        StringWriter buffer = new StringWriter();
+        PrintWriter writer = new PrintWriter(buffer);
+        tree.jjtAccept(kind.create(writer), null);
+        writer.flush();
+        return buffer.toString();
+    }
+
+    private static ASTProgram parse(final String program) throws Exception {
+        final ASTProgram[] tree = new ASTProgram[1];
+        final Exception[] error = new Exception[1];
+        Thread parser = new Thread(null, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    tree[0] = Parser.ParseTree(new ByteArrayInputStream(program.getBytes(StandardCharsets.US_ASCII)));
+                } catch (Exception e) {
+                    error[0] = e;
+                }
+            }
+        }, "parser", 1L << 30);
+        parser.start();
+        parser.join();
+        if (error[0] != null) {
+            throw error[0];
+        }
+        return tree[0];
+    }
+}
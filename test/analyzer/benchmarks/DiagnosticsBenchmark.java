@@ -0,0 +1,83 @@
+package analyzer.benchmarks;
+
+import analyzer.Compiler;
+import analyzer.CompilerContext;
+import analyzer.SemantiqueError;
+import analyzer.VisitorKind;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks a large program where n0 and b0 are not declared, stopping at the
+ * first error then keeping all of them (see Diagnostics), and many small programs which
+ * all have an error, each one thrown as a SemantiqueError.
+ * args[0] (Optional): the number of statements of the large program (default 20000)
+ * args[1] (Optional): the number of small programs (default 5000)
+ */
+
+public class DiagnosticsBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+
+        final byte[] program = new ProgramGenerator(42, 10, 10).program(statements)
+                .replace("    num n0;\n", "").replace("    bool b0;\n", "").getBytes(StandardCharsets.US_ASCII);
+        final byte[][] programs = new byte[count][];
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            programs[i] = new ProgramGenerator(i, 5, 5).program(10)
+                    .replace("    num n0;\n", "").replace("    bool b0;\n", "").getBytes(StandardCharsets.US_ASCII);
+            total += programs[i].length;
+        }
+
+        CompilerContext context = new CompilerContext();
+        context.setParseCache(null);
+        final Compiler first = new Compiler(context);
+        final Compiler all = new Compiler(context);
+        all.setAllErrors(true);
+        System.out.println(String.format("%d statements, %.1f MB, %d errors", statements, program.length / 1e6,
+                all.compile(new ByteArrayInputStream(program)).diagnostics.size()));
+
+        Bench.Case firstError = new Bench.Case() {
+            @Override
+            public void run() {
+                first.compile(new ByteArrayInputStream(program), VisitorKind.Semantic);
+            }
+        };
+        Bench.Case allErrors = new Bench.Case() {
+            @Override
+            public void run() {
+                all.compile(new ByteArrayInputStream(program), VisitorKind.Semantic);
+            }
+        };
+
+        final CompilerContext pooled = new CompilerContext();
+        pooled.setParseCache(null);
+        pooled.setOutputCache(null);
+        Bench.Case small = new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                for (byte[] source : programs) {
+                    try {
+                        pooled.compile(VisitorKind.Semantic, new ByteArrayInputStream(source));
+                    } catch (SemantiqueError e) {
+                        // Expected, almost all of them use n0 or b0
+                    }
+                }
+            }
+        };
+
+        Bench bench = new Bench(5, 10);
+        bench.measure("First error", firstError);
+        bench.measure("All errors", allErrors);
+        bench.measure(count + " small programs", small);
+        bench.allocation("First error", firstError, program.length);
+        bench.allocation("All errors", allErrors, program.length);
+        bench.allocation(count + " small programs", small, total);
+    }
+}
@@ -0,0 +1,58 @@
+package analyzer.benchmarks;
+
+import analyzer.ast.ASTProgram;
+import analyzer.ast.FlatTree;
+import analyzer.ast.Parser;
+import analyzer.visitors.IntermediateCodeGenVisitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compares the heap retained by the tree of a program (ASTProgram) and by
+ * its FlatTree, then the time of the tac visitor run on each of them.
+ * args[0] (Optional): the number of top-level statements (default 100000)
+ */
+
+public class FlatTreeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        final byte[] program = new ProgramGenerator(42, 50, 50).program(statements).getBytes(StandardCharsets.US_ASCII);
+        System.out.println(String.format("%d statements, %.1f MB", statements, program.length / 1e6));
+
+        Bench bench = new Bench(3, 5);
+        bench.retained("ASTProgram", new Bench.Builder() {
+            @Override
+            public Object build() throws Exception {
+                return Parser.ParseTree(new ByteArrayInputStream(program));
+            }
+        }, program.length);
+        bench.retained("FlatTree", new Bench.Builder() {
+            @Override
+            public Object build() throws Exception {
+                return FlatTree.parse(program);
+            }
+        }, program.length);
+
+        final FlatTree flat = FlatTree.parse(program);
+        final ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(program));
+        bench.measure("Tac visitor on ASTProgram", new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                tree.jjtAccept(new IntermediateCodeGenVisitor(new PrintWriter(new StringWriter())), null);
+            }
+        });
+        bench.measure("Tac visitor on FlatTree", new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                flat.accept(new IntermediateCodeGenVisitor(new PrintWriter(new StringWriter())));
+            }
+        });
+    }
+}
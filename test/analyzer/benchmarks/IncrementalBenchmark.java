@@ -0,0 +1,58 @@
+package analyzer.benchmarks;
+
+import analyzer.ast.IncrementalParser;
+import analyzer.ast.Parser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Time from an edit of one char to the new tree, for a large program.
+ * A digit in the middle of the program is changed back and forth, so the source
+ * stays valid. IncrementalParser.apply() is compared with a complete parse.
+ * args[0] (Optional): the number of top-level statements (default 50000)
+ */
+
+public class IncrementalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        final String program = new ProgramGenerator(42, 50, 50).program(statements);
+        final byte[] bytes = program.getBytes(StandardCharsets.US_ASCII);
+        System.out.println(String.format("%d statements, %.1f MB", statements, bytes.length / 1e6));
+
+        int digit = program.length() / 2;
+        while (!Character.isDigit(program.charAt(digit))) {
+            digit++;
+        }
+        final List<IncrementalParser.Edit> toNine = Collections.singletonList(new IncrementalParser.Edit(digit, 1, "9"));
+        final List<IncrementalParser.Edit> toEight = Collections.singletonList(new IncrementalParser.Edit(digit, 1, "8"));
+        final IncrementalParser parser = new IncrementalParser(program);
+
+        Bench bench = new Bench(20, 50);
+        bench.measure("Parser.ParseTree (whole program)", new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                Parser.ParseTree(new ByteArrayInputStream(bytes));
+            }
+        });
+        bench.measure("IncrementalParser.apply (one edit)", new Bench.Case() {
+            private boolean m_nine = false;
+
+            @Override
+            public void run() throws Exception {
+                m_nine = !m_nine;
+                parser.apply(m_nine ? toNine : toEight);
+                if (!parser.wasLastIncremental()) {
+                    throw new IllegalStateException("The edit was not parsed incrementally");
+                }
+            }
+        });
+        System.out.println("Items reparsed by the last edit: " + parser.getLastReparsedItems());
+    }
+}
@@ -0,0 +1,79 @@
+package analyzer.benchmarks;
+
+import analyzer.Diagnostics;
+import analyzer.ast.IncrementalParser;
+import analyzer.visitors.IncrementalChecker;
+import analyzer.visitors.SemantiqueVisitor;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Edits a large program with IncrementalParser, then checks the tree again
+ * with a SemantiqueVisitor on the whole tree or with an IncrementalChecker. The time
+ * includes the edit. Two edits are measured: the type of one declaration is changed
+ * (num n3 to bool n3 and back), and one statement is added in the middle of the program
+ * (and removed).
+ * args[0] (Optional): the number of statements (default 100000)
+ */
+
+public class IncrementalCheckBenchmark {
+
+    private static final String STATEMENT = "n0 = n1 + 1;\n";
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        String source = new ProgramGenerator(42, 20, 20).program(statements);
+        final int offset = source.indexOf("num n3;");
+        final int middle = source.indexOf("// commentaire", source.length() / 2);
+
+        final IncrementalParser parser = new IncrementalParser(source);
+        final IncrementalChecker checker = new IncrementalChecker();
+        checker.check(parser.getTree());
+        final SemantiqueVisitor visitor = new SemantiqueVisitor(null);
+        final Diagnostics diagnostics = new Diagnostics();
+
+        Bench bench = new Bench(10, 20);
+        for (final boolean declaration : new boolean[]{true, false}) {
+            Bench.Case full = new Bench.Case() {
+                @Override
+                public void run() throws Exception {
+                    edit(parser, declaration, offset, middle);
+                    diagnostics.clear();
+                    visitor.reset(new PrintWriter(new StringWriter()), diagnostics);
+                    parser.getTree().jjtAccept(visitor, null);
+                }
+            };
+            Bench.Case incremental = new Bench.Case() {
+                @Override
+                public void run() throws Exception {
+                    edit(parser, declaration, offset, middle);
+                    checker.check(parser.getTree());
+                }
+            };
+            String name = declaration ? "declaration" : "statement";
+            bench.measure("Whole tree, " + name, full);
+            bench.measure("IncrementalChecker, " + name, incremental);
+        }
+        edit(parser, true, offset, middle);
+        System.out.println(String.format("%d statements, %d errors, %d items checked again",
+                statements, checker.check(parser.getTree()).size(), checker.getLastChecked()));
+    }
+
+    // num n3 becomes bool n3 (or the opposite), or the statement is added (or removed)
+    private static void edit(IncrementalParser parser, boolean declaration, int offset, int middle) throws Exception {
+        IncrementalParser.Edit edit;
+        if (declaration) {
+            boolean num = parser.getSource().startsWith("num", offset);
+            edit = new IncrementalParser.Edit(offset, num ? 3 : 4, num ? "bool" : "num");
+        } else {
+            boolean added = parser.getSource().startsWith(STATEMENT, middle);
+            edit = new IncrementalParser.Edit(middle, added ? STATEMENT.length() : 0, added ? "" : STATEMENT);
+        }
+        parser.apply(Collections.singletonList(edit));
+    }
+}
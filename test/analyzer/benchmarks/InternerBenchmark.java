@@ -0,0 +1,101 @@
+package analyzer.benchmarks;
+
+import analyzer.ast.ASTProgram;
+import analyzer.ast.ExpressionInterner;
+import analyzer.ast.Parser;
+import analyzer.visitors.IntermediateCodeGenVisitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Measures ExpressionInterner on a program which repeats its expressions,
+ * like the generated ones: every statement assigns one of a few hundred expressions.
+ * The heap retained by the tree, the time of the tac visitor and the size of its
+ * output are reported with and without the interning.
+ * args[0] (Optional): the number of statements (default 200000)
+ * args[1] (Optional): the number of different expressions (default 500)
+ */
+
+public class InternerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        final byte[] program = repeating(statements, distinct).getBytes(StandardCharsets.US_ASCII);
+        System.out.println(String.format("%d statements, %d expressions, %.1f MB", statements, distinct, program.length / 1e6));
+
+        ExpressionInterner interner = new ExpressionInterner();
+        final ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(program));
+        final ASTProgram interned = (ASTProgram) interner.intern(Parser.ParseTree(new ByteArrayInputStream(program)));
+        System.out.println(String.format("%d expression nodes, %d after interning", interner.getExpressionCount(), interner.getDistinctCount()));
+
+        Bench bench = new Bench(3, 5);
+        bench.retained("ASTProgram", new Bench.Builder() {
+            @Override
+            public Object build() throws Exception {
+                return Parser.ParseTree(new ByteArrayInputStream(program));
+            }
+        }, program.length);
+        bench.retained("ASTProgram interned", new Bench.Builder() {
+            @Override
+            public Object build() throws Exception {
+                return new ExpressionInterner().intern(Parser.ParseTree(new ByteArrayInputStream(program)));
+            }
+        }, program.length);
+
+        bench.measure("Parse and intern", new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                new ExpressionInterner().intern(Parser.ParseTree(new ByteArrayInputStream(program)));
+            }
+        });
+        bench.measure("Parse only", new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                Parser.ParseTree(new ByteArrayInputStream(program));
+            }
+        });
+        bench.measure("Tac visitor", new Bench.Case() {
+            @Override
+            public void run() {
+                tac(tree);
+            }
+        });
+        bench.measure("Tac visitor interned", new Bench.Case() {
+            @Override
+            public void run() {
+                tac(interned);
+            }
+        });
+        System.out.println(String.format("Tac output: %d chars, %d chars interned", tac(tree), tac(interned)));
+    }
+
+    private static int tac(ASTProgram tree) {
+        StringWriter output = new StringWriter();
+        tree.jjtAccept(new IntermediateCodeGenVisitor(new PrintWriter(output)), null);
+        return output.getBuffer().length();
+    }
+
+    // Straight-line numeric assignments, the right sides are taken among "distinct" expressions
+    private static String repeating(int statements, int distinct) {
+        ProgramGenerator generator = new ProgramGenerator(42, 50, 0);
+        String[] expressions = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            expressions[i] = generator.numExpr(3);
+        }
+
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder(generator.declarations());
+        for (int i = 0; i < statements; i++) {
+            sb.append(generator.numVar()).append(" = ").append(expressions[random.nextInt(distinct)]).append(";\n");
+        }
+        return sb.toString();
+    }
+}
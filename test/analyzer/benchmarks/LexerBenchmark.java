@@ -0,0 +1,77 @@
+package analyzer.benchmarks;
+
+import analyzer.ast.ByteBufferCharStream;
+import analyzer.ast.FastTokenManager;
+import analyzer.ast.Parser;
+import analyzer.ast.ParserTokenManager;
+import analyzer.ast.Token;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compares the token manager generated by JavaCC with FastTokenManager.
+ * The lexers read the same bytes through ByteBufferCharStream. The time and the
+ * allocations of the lexers alone, then of the whole parse, are reported.
+ * args[0] (Optional): the number of top-level statements (default 200000)
+ */
+
+public class LexerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        final byte[] program = new ProgramGenerator(42, 50, 50).program(statements).getBytes(StandardCharsets.US_ASCII);
+        System.out.println(String.format("%d statements, %.1f MB", statements, program.length / 1e6));
+
+        Bench.Case generated = new Bench.Case() {
+            @Override
+            public void run() {
+                count(new ParserTokenManager(new ByteBufferCharStream(ByteBuffer.wrap(program))));
+            }
+        };
+        Bench.Case fast = new Bench.Case() {
+            @Override
+            public void run() {
+                count(new FastTokenManager(new ByteBufferCharStream(ByteBuffer.wrap(program))));
+            }
+        };
+        Bench.Case reused = new Bench.Case() {
+            @Override
+            public void run() {
+                count(new FastTokenManager(new ByteBufferCharStream(ByteBuffer.wrap(program)), true));
+            }
+        };
+        Bench.Case parse = new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                Parser.ParseTree(new ByteArrayInputStream(program));
+            }
+        };
+
+        Bench bench = new Bench(5, 10);
+        bench.measure("ParserTokenManager (generated)", generated);
+        bench.measure("FastTokenManager", fast);
+        bench.measure("FastTokenManager reusing tokens", reused);
+
+        bench.allocation("ParserTokenManager (generated)", generated, program.length);
+        bench.allocation("FastTokenManager", fast, program.length);
+        bench.allocation("FastTokenManager reusing tokens", reused, program.length);
+
+        System.setProperty("analyzer.lexer", "generated");
+        bench.allocation("Parse with the generated lexer", parse, program.length);
+        System.clearProperty("analyzer.lexer");
+        bench.allocation("Parse with FastTokenManager", parse, program.length);
+    }
+
+    private static int count(ParserTokenManager lexer) {
+        int n = 0;
+        for (Token t = lexer.getNextToken(); t.kind != 0; t = lexer.getNextToken()) {
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,69 @@
+package analyzer.benchmarks;
+
+import analyzer.CompilerContext;
+import analyzer.OutputCache;
+import analyzer.VisitorKind;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compiles the same programs again and again, like a CI build where the
+ * sources did not change, without cache and with a warm OutputCache (tac visitor).
+ * args[0] (Optional): the number of programs (default 500)
+ */
+
+public class OutputCacheBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        final byte[][] programs = new byte[count][];
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            programs[i] = new ProgramGenerator(i, 20, 20).program(200).getBytes(StandardCharsets.US_ASCII);
+            total += programs[i].length;
+        }
+        System.out.println(String.format("%d programs, %.1f MB", count, total / 1e6));
+
+        Path directory = Files.createTempDirectory("output-cache-benchmark");
+        try {
+            final CompilerContext uncached = new CompilerContext();
+            uncached.setOutputCache(null);
+            final CompilerContext cached = new CompilerContext();
+            cached.setOutputCache(new OutputCache(directory, OutputCache.DEFAULT_MAX_BYTES));
+
+            Bench bench = new Bench(3, 10);
+            bench.measure("Without cache", new Bench.Case() {
+                @Override
+                public void run() throws Exception {
+                    compileAll(uncached, programs);
+                }
+            });
+            bench.measure("Warm output cache", new Bench.Case() {
+                @Override
+                public void run() throws Exception {
+                    compileAll(cached, programs);
+                }
+            });
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static void compileAll(CompilerContext context, byte[][] programs) throws Exception {
+        for (byte[] program : programs) {
+            context.compile(VisitorKind.Tac, new ByteArrayInputStream(program));
+        }
+    }
+}
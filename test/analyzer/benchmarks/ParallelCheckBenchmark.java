@@ -0,0 +1,60 @@
+package analyzer.benchmarks;
+
+import analyzer.ast.ASTProgram;
+import analyzer.ast.Parser;
+import analyzer.visitors.SemantiqueVisitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks the same large program with a pool of 1, 2, 4... threads up to the
+ * number of processors (see SemantiqueVisitor.setParallelism()). With 1 thread the check
+ * is done in the calling thread. The program is parsed once, it needs a large heap
+ * (-Xmx4g for 1M statements).
+ * args[0] (Optional): the number of statements (default 1000000)
+ * args[1] (Optional): the largest number of threads (default the number of processors)
+ */
+
+public class ParallelCheckBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        byte[] program = new ProgramGenerator(42, 20, 20).program(statements).getBytes(StandardCharsets.US_ASCII);
+        final ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(program));
+        System.out.println(String.format("%d statements, %.1f MB, %d processors", statements, program.length / 1e6,
+                Runtime.getRuntime().availableProcessors()));
+
+        Bench bench = new Bench(3, 5);
+        double single = 0;
+        for (int i = 1; ; i *= 2) {
+            int threads = Math.min(i, maxThreads);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            final SemantiqueVisitor visitor = new SemantiqueVisitor(null);
+            visitor.setParallelism(pool, SemantiqueVisitor.PARALLEL_THRESHOLD);
+            Bench.Case check = new Bench.Case() {
+                @Override
+                public void run() {
+                    visitor.reset(new PrintWriter(new StringWriter()));
+                    tree.jjtAccept(visitor, null);
+                }
+            };
+            double time = bench.measure(threads + " thread(s)", check);
+            if (threads == 1) {
+                single = time;
+            }
+            System.out.println(String.format("%d thread(s): speedup %.2f", threads, single / time));
+            pool.shutdown();
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
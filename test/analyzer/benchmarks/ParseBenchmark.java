@@ -0,0 +1,58 @@
+package analyzer.benchmarks;
+
+import analyzer.ast.JavaCharStream;
+import analyzer.ast.Parser;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compares the ways of feeding the parser on large generated programs.
+ * args[0] (Optional): the number of top-level statements (default 200000)
+ */
+
+public class ParseBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+
+        final Path file = Files.createTempFile("parse-benchmark", ".txt");
+        try {
+            String program = new ProgramGenerator(42, 50, 50).program(statements);
+            Files.write(file, program.getBytes(StandardCharsets.UTF_8));
+            System.out.println(String.format("%d statements, %.1f MB", statements, Files.size(file) / 1e6));
+
+            Bench bench = new Bench(3, 5);
+            bench.measure("JavaCharStream (unicode escapes)", new Bench.Case() {
+                @Override
+                public void run() throws Exception {
+                    try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+                        new Parser(new JavaCharStream(input)).Program();
+                    }
+                }
+            });
+            bench.measure("ParseTree(InputStream) ASCII", new Bench.Case() {
+                @Override
+                public void run() throws Exception {
+                    try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+                        Parser.ParseTree(input);
+                    }
+                }
+            });
+            bench.measure("ParseTree(Path) mapped", new Bench.Case() {
+                @Override
+                public void run() throws Exception {
+                    Parser.ParseTree(file);
+                }
+            });
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
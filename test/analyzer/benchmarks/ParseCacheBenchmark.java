@@ -0,0 +1,49 @@
+package analyzer.benchmarks;
+
+import analyzer.ast.ASTProgram;
+import analyzer.ast.Parser;
+import analyzer.ast.TreeSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compares the parse of a program with the load of its serialized tree
+ * (what the parse cache does for a source which did not change).
+ * args[0] (Optional): the number of top-level statements (default 100000)
+ */
+
+public class ParseCacheBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        final byte[] program = new ProgramGenerator(42, 50, 50).program(statements).getBytes(StandardCharsets.US_ASCII);
+        ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(program));
+        final byte[] serialized = TreeSerializer.write(tree);
+        System.out.println(String.format("%d statements, %.1f MB, serialized tree %.1f MB",
+                statements, program.length / 1e6, serialized.length / 1e6));
+
+        Bench bench = new Bench(5, 10);
+        bench.measure("Parser.ParseTree", new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                Parser.ParseTree(new ByteArrayInputStream(program));
+            }
+        });
+        bench.measure("TreeSerializer.read", new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                TreeSerializer.read(serialized);
+            }
+        });
+        bench.measure("TreeSerializer.write", new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                TreeSerializer.write(Parser.ParseTree(new ByteArrayInputStream(program)));
+            }
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package analyzer.benchmarks;
+
+import analyzer.Compiler;
+import analyzer.CompilerContext;
+import analyzer.VisitorKind;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks programs and generates their code with both backends, with one
+ * CompilerContext.compile() for each visitor (three parses, the code generators type the
+ * tree again) then with one Compiler.compile() (one parse and one check).
+ * args[0] (Optional): the number of programs (default 200)
+ * args[1] (Optional): the number of statements of each program (default 200)
+ */
+
+public class PipelineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int statements = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        final byte[][] programs = new byte[count][];
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            programs[i] = new ProgramGenerator(i, 10, 10).program(statements).getBytes(StandardCharsets.US_ASCII);
+            total += programs[i].length;
+        }
+        System.out.println(String.format("%d programs, %.1f KB", count, total / 1e3));
+
+        final CompilerContext context = new CompilerContext();
+        context.setOutputCache(null);
+        context.setParseCache(null);
+        Bench.Case separate = new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                for (byte[] program : programs) {
+                    for (VisitorKind kind : VisitorKind.values()) {
+                        context.compile(kind, new ByteArrayInputStream(program));
+                    }
+                }
+            }
+        };
+
+        CompilerContext parser = new CompilerContext();
+        parser.setParseCache(null);
+        final Compiler compiler = new Compiler(parser);
+        Bench.Case pipeline = new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                for (byte[] program : programs) {
+                    if (!compiler.compile(new ByteArrayInputStream(program), VisitorKind.values()).isOk()) {
+                        throw new IllegalStateException("The generated program has an error");
+                    }
+                }
+            }
+        };
+
+        Bench bench = new Bench(5, 10);
+        bench.measure("One compile() per visitor", separate);
+        bench.measure("Compiler", pipeline);
+        bench.allocation("One compile() per visitor", separate, total);
+        bench.allocation("Compiler", pipeline, total);
+    }
+}
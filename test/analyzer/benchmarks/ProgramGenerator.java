@@ -0,0 +1,105 @@
+package analyzer.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Generates large valid programs for the benchmarks. The same seed
+ * always gives the same program.
+ */
+
+public class ProgramGenerator {
+
+    private final Random m_random;
+    private final int m_numVariables;
+    private final int m_boolVariables;
+
+    public ProgramGenerator(long seed, int numVariables, int boolVariables) {
+        m_random = new Random(seed);
+        m_numVariables = numVariables;
+        m_boolVariables = boolVariables;
+    }
+
+    public String declarations() {
+        StringBuilder sb = new StringBuilder("Declaration\n");
+        for (int i = 0; i < m_numVariables; i++) {
+            sb.append("    num n").append(i).append(";\n");
+        }
+        for (int i = 0; i < m_boolVariables; i++) {
+            sb.append("    bool b").append(i).append(";\n");
+        }
+        return sb.append("EndDeclaration\n\n").toString();
+    }
+
+    // A program with the declarations and about "statements" top-level statements
+    public String program(int statements) {
+        StringBuilder sb = new StringBuilder(declarations());
+        for (int i = 0; i < statements; i++) {
+            statement(sb, 0);
+        }
+        return sb.toString();
+    }
+
+    public void statement(StringBuilder sb, int depth) {
+        int choice = depth > 2 ? m_random.nextInt(6) : m_random.nextInt(9);
+        if (choice < 3) {
+            sb.append(numVar()).append(" = ").append(numExpr(2)).append(";\n");
+        } else if (choice < 5) {
+            sb.append(boolVar()).append(" = ").append(boolExpr(2)).append(";\n");
+        } else if (choice == 5) {
+            sb.append("// commentaire ").append(depth).append('\n');
+        } else if (choice == 6) {
+            sb.append("if (").append(boolExpr(1)).append(") {\n");
+            statement(sb, depth + 1);
+            sb.append("} else {\n");
+            statement(sb, depth + 1);
+            sb.append("}\n");
+        } else if (choice == 7) {
+            sb.append("while (").append(boolExpr(1)).append(") {\n");
+            statement(sb, depth + 1);
+            sb.append("}\n");
+        } else {
+            sb.append("switch (").append(numVar()).append(") {\n");
+            sb.append("case ").append(m_random.nextInt(10)).append(" : ");
+            sb.append(numVar()).append(" = ").append(numExpr(1)).append(";\n");
+            sb.append("default : ");
+            sb.append(boolVar()).append(" = ").append(boolExpr(1)).append(";\n");
+            sb.append("}\n");
+        }
+    }
+
+    public String numVar() {
+        return "n" + m_random.nextInt(m_numVariables);
+    }
+
+    public String boolVar() {
+        return "b" + m_random.nextInt(m_boolVariables);
+    }
+
+    public String numExpr(int depth) {
+        if (depth == 0 || m_random.nextInt(3) == 0) {
+            return m_random.nextBoolean() ? numVar() : Integer.toString(m_random.nextInt(1000));
+        }
+        String[] ops = {"+", "-", "*", "/", "%"};
+        String op = ops[m_random.nextInt(ops.length)];
+        String expr = numExpr(depth - 1) + " " + op + " " + numExpr(depth - 1);
+        return m_random.nextBoolean() ? "(" + expr + ")" : expr;
+    }
+
+    public String boolExpr(int depth) {
+        int choice = m_random.nextInt(depth == 0 ? 3 : 5);
+        if (choice == 0) {
+            return boolVar();
+        } else if (choice == 1) {
+            return m_random.nextBoolean() ? "true" : "!false";
+        } else if (choice == 2) {
+            String[] ops = {"<", "<=", ">", ">=", "==", "!="};
+            return numVar() + " " + ops[m_random.nextInt(ops.length)] + " " + numExpr(1);
+        } else {
+            String op = m_random.nextBoolean() ? "&&" : "||";
+            return boolExpr(depth - 1) + " " + op + " " + boolExpr(depth - 1);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package analyzer.benchmarks;
+
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.ast.Recognizer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks the syntax of many files like a pre-commit hook would do it
+ * (see Main -check), with Recognizer then with a full parse of each file. The time,
+ * the throughput and the bytes allocated per KB of source are reported.
+ * args[0] (Optional): the number of files (default 2000)
+ * args[1] (Optional): the number of statements of each file (default 200)
+ */
+
+public class RecognizerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int statements = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Path directory = Files.createTempDirectory("recognizer");
+        final List<Path> files = new ArrayList<>();
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            byte[] program = new ProgramGenerator(i, 20, 20).program(statements).getBytes(StandardCharsets.US_ASCII);
+            files.add(Files.write(directory.resolve("p" + i + ".txt"), program));
+            total += program.length;
+        }
+        System.out.println(String.format("%d files, %.1f MB", count, total / 1e6));
+
+        Bench.Case recognize = new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                for (Path file : files) {
+                    if (Recognizer.check(file) != null) {
+                        throw new IllegalStateException(file.toString());
+                    }
+                }
+            }
+        };
+        Bench.Case parse = new Bench.Case() {
+            @Override
+            public void run() throws Exception {
+                for (Path file : files) {
+                    try {
+                        Parser.ParseTree(file);
+                    } catch (ParseException e) {
+                        throw new IllegalStateException(file.toString());
+                    }
+                }
+            }
+        };
+
+        Bench bench = new Bench(3, 10);
+        try {
+            throughput("Recognizer.check(Path)", bench.measure("Recognizer.check(Path)", recognize), total);
+            throughput("Parser.ParseTree(Path)", bench.measure("Parser.ParseTree(Path)", parse), total);
+            bench.allocation("Recognizer.check(Path)", recognize, total);
+            bench.allocation("Parser.ParseTree(Path)", parse, total);
+        } finally {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static void throughput(String name, double ms, long bytes) {
+        System.out.println(String.format("%-40s %10.1f MB/s", name, bytes / 1e3 / ms));
+    }
+}
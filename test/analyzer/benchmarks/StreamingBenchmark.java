@@ -0,0 +1,140 @@
+package analyzer.benchmarks;
+
+import analyzer.Main;
+import analyzer.VisitorKind;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compares the live heap of Main.Run and Main.RunStreaming (tac visitor)
+ * on generated programs of growing size. The output is discarded. The live heap is the
+ * largest heap usage seen right after a garbage collection, a small young generation
+ * (-Xmn8m for example) makes the collections frequent enough to see it.
+ * args (Optional): the numbers of top-level statements (default 20000 80000 320000)
+ */
+
+public class StreamingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {20000, 80000, 320000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        for (int statements : sizes) {
+            final Path file = Files.createTempFile("streaming-benchmark", ".txt");
+            try {
+                write(file, statements);
+                System.out.println(String.format("%d statements, %.1f MB", statements, Files.size(file) / 1e6));
+
+                peak("  Run", new Bench.Case() {
+                    @Override
+                    public void run() throws Exception {
+                        PrintWriter output = new PrintWriter(new NullWriter());
+                        try (InputStream input = Files.newInputStream(file)) {
+                            Main.Run(VisitorKind.Tac.create(output), input, output);
+                        }
+                    }
+                });
+                peak("  RunStreaming", new Bench.Case() {
+                    @Override
+                    public void run() throws Exception {
+                        PrintWriter output = new PrintWriter(new NullWriter());
+                        Main.RunStreaming(VisitorKind.Tac.create(output), file, output);
+                    }
+                });
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // The program is written by chunks, so the benchmark itself does not hold it
+    private static void write(Path file, int statements) throws Exception {
+        ProgramGenerator generator = new ProgramGenerator(42, 50, 50);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            writer.write(generator.declarations());
+            StringBuilder chunk = new StringBuilder();
+            for (int i = 0; i < statements; i++) {
+                generator.statement(chunk, 0);
+                if (chunk.length() > 65536) {
+                    writer.write(chunk.toString());
+                    chunk.setLength(0);
+                }
+            }
+            writer.write(chunk.toString());
+        }
+    }
+
+    private static void peak(String name, Bench.Case c) throws Exception {
+        final long[] live = new long[1];
+        NotificationListener listener = new NotificationListener() {
+            @Override
+            public void handleNotification(Notification notification, Object handback) {
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+                        (CompositeData) notification.getUserData());
+                long used = 0;
+                for (MemoryUsage usage : info.getGcInfo().getMemoryUsageAfterGc().values()) {
+                    used += usage.getUsed();
+                }
+                synchronized (live) {
+                    live[0] = Math.max(live[0], used);
+                }
+            }
+        };
+
+        System.gc();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+        }
+        long start = System.nanoTime();
+        try {
+            c.run();
+        } catch (OutOfMemoryError e) {
+            System.out.println(String.format("%-20s out of memory", name));
+            return;
+        } finally {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) gc).removeNotificationListener(listener);
+            }
+        }
+        double ms = (System.nanoTime() - start) / 1e6;
+
+        synchronized (live) {
+            System.out.println(String.format("%-20s %10.1f ms   live heap %8.1f MB", name, ms, live[0] / 1e6));
+        }
+    }
+
+    private static class NullWriter extends Writer {
+        @Override
+        public void write(char[] chars, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package analyzer.benchmarks;
+
+import analyzer.VisitorKind;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.Parser;
+import analyzer.visitors.ReusableVisitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Runs each visitor on the same tree, parsed once, with the visitor reused
+ * like CompilerContext does it and an output which is thrown away. Only the visit is
+ * measured: the time and the bytes allocated per KB of source are reported.
+ * args[0] (Optional): the number of statements (default 100000)
+ * args[1] (Optional): the number of variables of each type (default 20)
+ */
+
+public class VisitorBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int variables = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        byte[] program = new ProgramGenerator(42, variables, variables).program(statements).getBytes(StandardCharsets.US_ASCII);
+        final ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(program));
+        System.out.println(String.format("%d statements, %d variables, %.1f MB", statements, 2 * variables, program.length / 1e6));
+
+        Bench bench = new Bench(10, 10);
+        for (VisitorKind kind : VisitorKind.values()) {
+            final PrintWriter output = new PrintWriter(new NullWriter());
+            final ReusableVisitor visitor = kind.create(output);
+            Bench.Case visit = new Bench.Case() {
+                @Override
+                public void run() {
+                    visitor.reset(output);
+                    tree.jjtAccept(visitor, null);
+                }
+            };
+            bench.measure(kind.getName() + " visitor", visit);
+            bench.allocation(kind.getName() + " visitor", visit, program.length);
+        }
+    }
+
+    private static class NullWriter extends Writer {
+        @Override
+        public void write(char[] chars, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -9,14 +9,18 @@ import org.junit.Before;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.Assert.fail;
 
@@ -55,6 +59,34 @@ public class BaseTest {
         return paramsForAllTests;
     }
 
+    // All the programs of the test suite (test-suite/*/data), for the tests which
+    // are run on every one of them
+    public static List<File> getAllFiles() {
+        List<File> files = new ArrayList<>();
+        for (File test : new File("./test-suite").listFiles()) {
+            files.addAll(Arrays.asList(new File(test, "data").listFiles()));
+        }
+        return files;
+    }
+
+    // The parameters { path, file } of each program of the test suite
+    public static Collection<Object[]> getAllFileParameters() {
+        Collection<Object[]> params = new ArrayList<>();
+        for (File file : getAllFiles()) {
+            params.add(new Object[] { file.getPath(), file });
+        }
+        return params;
+    }
+
+    // The parameters { path, source } of each program of the test suite
+    public static Collection<Object[]> getAllSourceParameters() throws IOException {
+        Collection<Object[]> params = new ArrayList<>();
+        for (File file : getAllFiles()) {
+            params.add(new Object[] { file.getPath(), new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8) });
+        }
+        return params;
+    }
+
     // At the creation of the test, this function prepare all the files
     @Before
     public void prepare() throws Exception {
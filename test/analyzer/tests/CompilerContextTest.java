@@ -0,0 +1,113 @@
+package analyzer.tests;
+
+import analyzer.CompilerContext;
+import analyzer.VisitorKind;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.NodeArena;
+import analyzer.ast.Parser;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compiles all the files of a test-suite folder with the same CompilerContext,
+ * forward then backward, and checks that every output (or error) is the one of a
+ * compilation with a new parser and a new visitor. The nodes of the trees are reused
+ * from one file to the next (see NodeArena).
+ */
+
+@RunWith(Parameterized.class)
+public class CompilerContextTest {
+
+    private final VisitorKind m_kind;
+    private final String m_path;
+
+    public CompilerContextTest(VisitorKind kind, String path) {
+        m_kind = kind;
+        m_path = path;
+    }
+
+    @Test
+    public void run() throws Exception {
+        List<File> files = new ArrayList<>(Arrays.asList(new File(m_path).listFiles()));
+        Collections.sort(files);
+        List<File> order = new ArrayList<>(files);
+        Collections.reverse(files);
+        order.addAll(files);
+
+        CompilerContext context = new CompilerContext();
+        for (File file : order) {
+            byte[] source = Files.readAllBytes(file.toPath());
+            Assert.assertEquals(file.getPath(), fresh(source), reused(context, source));
+        }
+    }
+
+    // The second time, the trees of the files are built with the nodes of the first time
+    @Test
+    public void arena() throws Exception {
+        File[] files = new File(m_path).listFiles();
+        NodeArena arena = new NodeArena();
+        CompilerContext context = new CompilerContext();
+        context.setNodeArena(arena);
+        context.setOutputCache(null);
+
+        int size = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (File file : files) {
+                byte[] source = Files.readAllBytes(file.toPath());
+                Assert.assertEquals(file.getPath(), fresh(source), reused(context, source));
+            }
+            if (pass == 0) {
+                size = arena.size();
+            }
+        }
+        Assert.assertTrue(size > 0);
+        Assert.assertEquals(size, arena.size());
+    }
+
+    private String fresh(byte[] source) {
+        StringWriter buffer = new StringWriter();
+        PrintWriter writer = new PrintWriter(buffer);
+        try {
+            ASTProgram root = Parser.ParseTree(new ByteArrayInputStream(source));
+            root.jjtAccept(m_kind.create(writer), null);
+        } catch (Throwable e) {
+            writer.flush();
+            buffer.append(e.getClass().getName()).append(": ").append(e.getMessage());
+        }
+        writer.flush();
+        return buffer.toString();
+    }
+
+    private String reused(CompilerContext context, byte[] source) {
+        try {
+            return context.compile(m_kind, new ByteArrayInputStream(source));
+        } catch (Throwable e) {
+            return context.output() + e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getKinds() {
+        return Arrays.asList(new Object[][] {
+                { VisitorKind.Semantic, "./test-suite/SemantiqueTest/data" },
+                { VisitorKind.Tac, "./test-suite/IntermediateCodeGenTest/data" },
+                { VisitorKind.FallTac, "./test-suite/IntermediateCodeGenFallTest/data" }
+        });
+    }
+}
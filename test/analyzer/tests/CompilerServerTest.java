@@ -0,0 +1,147 @@
+package analyzer.tests;
+
+import analyzer.CompilerClient;
+import analyzer.CompilerServer;
+import analyzer.VisitorKind;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Sends programs to a CompilerServer listening on a port chosen by the
+ * system and checks the status and the output of each response: a good program, a
+ * syntax error, a semantic error, an invalid escape, a program nested too deeply and an
+ * invalid request, and a connection left idle.
+ */
+
+public class CompilerServerTest {
+
+    private static final String DECLARATIONS = "Declaration num a; bool b; EndDeclaration\n";
+
+    private CompilerServer m_server;
+    private Thread m_thread;
+    private int m_port;
+
+    @Before
+    public void start() throws IOException {
+        m_server = new CompilerServer(0, 1);
+        m_port = m_server.bind();
+        m_thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    m_server.serve();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        m_thread.start();
+    }
+
+    @After
+    public void stop() throws Exception {
+        m_server.close();
+        m_thread.join(10000);
+        Assert.assertFalse(m_thread.isAlive());
+    }
+
+    @Test
+    public void responses() throws IOException {
+        try (CompilerClient client = new CompilerClient(m_port)) {
+            CompilerClient.Response ok = compile(client, VisitorKind.Tac, DECLARATIONS + "a = 1;\n");
+            Assert.assertTrue(ok.output, ok.isOk());
+            Assert.assertEquals("a = 1", ok.output.trim());
+
+            CompilerClient.Response semantic = compile(client, VisitorKind.Semantic, DECLARATIONS + "c = 1;\n");
+            Assert.assertEquals(CompilerServer.STATUS_SEMANTIC_ERROR, semantic.status);
+            Assert.assertTrue(semantic.output, semantic.output.contains("Invalid use of undefined Identifier c"));
+
+            CompilerClient.Response parse = compile(client, VisitorKind.Semantic, DECLARATIONS + "a = ;\n");
+            Assert.assertEquals(CompilerServer.STATUS_PARSE_ERROR, parse.status);
+
+            // The connection is still usable after the errors
+            Assert.assertTrue(compile(client, VisitorKind.Semantic, DECLARATIONS + "a = 1;\n").isOk());
+        }
+    }
+
+    @Test
+    public void invalidEscape() throws IOException {
+        try (CompilerClient client = new CompilerClient(m_port)) {
+            CompilerClient.Response escape = compile(client, VisitorKind.Semantic, DECLARATIONS + "a = 1;\\u00zz\n");
+            Assert.assertEquals(CompilerServer.STATUS_PARSE_ERROR, escape.status);
+            Assert.assertTrue(escape.output, escape.output.contains("Invalid escape character"));
+            Assert.assertTrue(compile(client, VisitorKind.Semantic, DECLARATIONS + "a = 1;\n").isOk());
+        }
+    }
+
+    // The server has one thread, an idle connection must not keep the others waiting
+    @Test(timeout = 10000)
+    public void idleConnection() throws IOException {
+        try (CompilerClient idle = new CompilerClient(m_port)) {
+            Assert.assertTrue(compile(idle, VisitorKind.Semantic, DECLARATIONS + "a = 1;\n").isOk());
+            try (CompilerClient other = new CompilerClient(m_port)) {
+                Assert.assertTrue(compile(other, VisitorKind.Tac, DECLARATIONS + "a = 1;\n").isOk());
+            }
+            Assert.assertTrue(compile(idle, VisitorKind.Semantic, DECLARATIONS + "a = 1;\n").isOk());
+        }
+    }
+
+    @Test
+    public void nestedTooDeeply() throws IOException {
+        StringBuilder source = new StringBuilder(DECLARATIONS).append("a = ");
+        for (int i = 0; i < 200000; i++) {
+            source.append('(');
+        }
+        source.append('1');
+        for (int i = 0; i < 200000; i++) {
+            source.append(')');
+        }
+        source.append(";\n");
+
+        try (CompilerClient client = new CompilerClient(m_port)) {
+            CompilerClient.Response deep = compile(client, VisitorKind.Semantic, source.toString());
+            Assert.assertEquals(CompilerServer.STATUS_INTERNAL_ERROR, deep.status);
+            Assert.assertTrue(deep.output, deep.output.contains("StackOverflowError"));
+
+            // The handler and its context survive the error
+            CompilerClient.Response ok = compile(client, VisitorKind.Semantic, DECLARATIONS + "a = 1;\n");
+            Assert.assertTrue(ok.output, ok.isOk());
+        }
+    }
+
+    @Test
+    public void invalidLength() throws IOException {
+        for (int length : new int[]{-1, Integer.MAX_VALUE}) {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), m_port)) {
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                out.writeUTF(VisitorKind.Semantic.getName());
+                out.writeInt(length);
+                out.flush();
+
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                Assert.assertEquals(CompilerServer.STATUS_BAD_REQUEST, in.readByte());
+                byte[] message = new byte[in.readInt()];
+                in.readFully(message);
+                Assert.assertTrue(new String(message, StandardCharsets.UTF_8).contains(String.valueOf(length)));
+                // The server closes the connection
+                Assert.assertEquals(-1, in.read());
+            }
+        }
+    }
+
+    private static CompilerClient.Response compile(CompilerClient client, VisitorKind kind, String source) throws IOException {
+        return client.compile(kind, source.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,135 @@
+package analyzer.tests;
+
+import analyzer.Compiler;
+import analyzer.SemantiqueError;
+import analyzer.VisitorKind;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.ExpressionInterner;
+import analyzer.ast.Parser;
+import analyzer.visitors.SymbolTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compiles the files of the test-suite with all the backends at once and
+ * checks that each output is the one of its visitor run alone on a new tree, and that
+ * a program rejected by the SemantiqueVisitor gives its error and no output.
+ */
+
+public class CompilerTest {
+
+    private static final VisitorKind[] BACKENDS = VisitorKind.values();
+
+    @Test
+    public void sameOutputsAsTheVisitorsAlone() throws Exception {
+        Compiler compiler = new Compiler();
+        int ok = 0;
+        for (File file : files()) {
+            byte[] source = Files.readAllBytes(file.toPath());
+            Compiler.Result result = compiler.compile(new ByteArrayInputStream(source), BACKENDS);
+            String error = semanticError(source);
+            if (error == null) {
+                Assert.assertTrue(file + ": " + result.error, result.isOk());
+                for (VisitorKind kind : BACKENDS) {
+                    Assert.assertEquals(file + " " + kind, fresh(kind, source, false), result.output(kind));
+                }
+                ok++;
+            } else {
+                Assert.assertFalse(file.getPath(), result.isOk());
+                Assert.assertTrue(result.error, result.error.startsWith(error));
+                Assert.assertNull(result.output(VisitorKind.Tac));
+            }
+        }
+        Assert.assertTrue(ok > 0);
+    }
+
+    // The trees are interned after the check, the outputs are those of the interned trees
+    @Test
+    public void interning() throws Exception {
+        Compiler compiler = new Compiler();
+        compiler.setInterning(true);
+        for (File file : files()) {
+            byte[] source = Files.readAllBytes(file.toPath());
+            Compiler.Result result = compiler.compile(new ByteArrayInputStream(source), VisitorKind.Tac, VisitorKind.FallTac);
+            if (result.isOk()) {
+                Assert.assertEquals(file.getPath(), fresh(VisitorKind.Tac, source, true), result.output(VisitorKind.Tac));
+                Assert.assertEquals(file.getPath(), fresh(VisitorKind.FallTac, source, true), result.output(VisitorKind.FallTac));
+            }
+        }
+    }
+
+    @Test
+    public void onlyTheBackendsAsked() {
+        Compiler.Result result = new Compiler().compile(input("Declaration num a; bool b; EndDeclaration\na = 1;\n"), VisitorKind.Tac);
+        Assert.assertTrue(result.isOk());
+        Assert.assertEquals("a = 1", result.output(VisitorKind.Tac).trim());
+        Assert.assertNull(result.output(VisitorKind.Semantic));
+        Assert.assertNull(result.output(VisitorKind.FallTac));
+
+        SymbolTable symbols = result.symbols;
+        Assert.assertEquals(2, symbols.size());
+        Assert.assertEquals("b", symbols.getName(1));
+    }
+
+    @Test
+    public void errorsAreReturned() {
+        Compiler compiler = new Compiler();
+        Compiler.Result syntax = compiler.compile(input("Declaration num a; EndDeclaration\na = ;\n"), BACKENDS);
+        Assert.assertFalse(syntax.isOk());
+        Assert.assertNull(syntax.tree);
+
+        Compiler.Result semantic = compiler.compile(input("Declaration num a; EndDeclaration\nb = 1;\n"), BACKENDS);
+        Assert.assertEquals("Invalid use of undefined Identifier b (line 2, column 1)", semantic.error);
+        Assert.assertNull(semantic.output(VisitorKind.Semantic));
+    }
+
+    private static List<File> files() {
+        List<File> files = new ArrayList<>();
+        for (String path : new String[] { "./test-suite/SemantiqueTest/data", "./test-suite/IntermediateCodeGenTest/data",
+                "./test-suite/IntermediateCodeGenFallTest/data" }) {
+            files.addAll(Arrays.asList(new File(path).listFiles()));
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    // The message of the SemantiqueError of the program, null if it has none
+    private static String semanticError(byte[] source) throws Exception {
+        try {
+            fresh(VisitorKind.Semantic, source, false);
+            return null;
+        } catch (SemantiqueError e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String fresh(VisitorKind kind, byte[] source, boolean interned) throws Exception {
+        ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(source));
+        if (interned) {
+            tree = (ASTProgram) new ExpressionInterner().intern(tree);
+        }
+        StringWriter buffer = new StringWriter();
+        PrintWriter writer = new PrintWriter(buffer);
+        tree.jjtAccept(kind.create(writer), null);
+        writer.flush();
+        return buffer.toString();
+    }
+
+    private static ByteArrayInputStream input(String source) {
+        return new ByteArrayInputStream(source.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,136 @@
+package analyzer.tests;
+
+import analyzer.Compiler;
+import analyzer.Diagnostics;
+import analyzer.SemantiqueError;
+import analyzer.VisitorKind;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.Parser;
+import analyzer.visitors.SemantiqueVisitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks the SemantiqueVisitor which keeps all the errors in a Diagnostics.
+ * The programs of the test-suite are broken by removing a declaration or changing its
+ * type, the first error kept must be the SemantiqueError thrown without Diagnostics.
+ */
+
+public class DiagnosticsTest {
+
+    private static final Pattern DECLARATION = Pattern.compile("\\b(num|bool)\\s+\\w+\\s*;");
+
+    private static final String PROGRAM = "Declaration num a; bool b; EndDeclaration\n"
+            + "a = c + 1;\n"
+            + "b = a + true;\n"
+            + "if (a) { a = b; } else { c = d; }\n"
+            + "while (b) { a = !a; }\n"
+            + "b = (c);\n";
+
+    @Test
+    public void firstErrorIsTheThrownOne() throws Exception {
+        int broken = 0;
+        int several = 0;
+        for (String program : brokenPrograms()) {
+            ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(program.getBytes(StandardCharsets.UTF_8)));
+            StringWriter thrownOutput = new StringWriter();
+            SemantiqueError thrown = null;
+            try {
+                tree.jjtAccept(new SemantiqueVisitor(new PrintWriter(thrownOutput, true)), null);
+            } catch (SemantiqueError e) {
+                thrown = e;
+            }
+
+            StringWriter output = new StringWriter();
+            Diagnostics diagnostics = new Diagnostics();
+            SemantiqueVisitor visitor = new SemantiqueVisitor(null);
+            visitor.reset(new PrintWriter(output, true), diagnostics);
+            tree.jjtAccept(visitor, null);
+
+            if (thrown == null) {
+                Assert.assertEquals(program, 0, diagnostics.size());
+                Assert.assertEquals(thrownOutput.toString(), output.toString());
+            } else {
+                Assert.assertTrue(program, diagnostics.size() > 0);
+                Assert.assertEquals(program, thrown.getMessage(), diagnostics.message(0));
+                Assert.assertEquals(program, thrown.getPosition(), diagnostics.position(0));
+                Assert.assertEquals("", output.toString());
+                broken++;
+                if (diagnostics.size() > 1) {
+                    several++;
+                }
+            }
+        }
+        Assert.assertTrue(broken > 0);
+        Assert.assertTrue(several > 0);
+    }
+
+    // An undefined identifier or a wrong operand is reported once, not by each of its parents
+    @Test
+    public void allErrorsWithoutCascades() {
+        Compiler compiler = new Compiler();
+        compiler.setAllErrors(true);
+        Compiler.Result result = compiler.compile(new ByteArrayInputStream(PROGRAM.getBytes(StandardCharsets.US_ASCII)), VisitorKind.values());
+        Assert.assertFalse(result.isOk());
+        Assert.assertNull(result.output(VisitorKind.Tac));
+
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < result.diagnostics.size(); i++) {
+            errors.add(result.describe(i));
+        }
+        Assert.assertEquals(Arrays.asList(
+                "Invalid use of undefined Identifier c (line 2, column 5)",
+                "Invalid type in expression got Number and Bool was expecting Number (line 3, column 5)",
+                "Invalid type in condition (line 4, column 5)",
+                "Invalid type in assignment (line 4, column 10)",
+                "Invalid use of undefined Identifier c (line 4, column 26)",
+                "Invalid use of undefined Identifier d (line 4, column 30)",
+                "Invalid type in expression got Number was expecting Bool (line 5, column 17)",
+                "Invalid use of undefined Identifier c (line 6, column 6)"), errors);
+        Assert.assertEquals(errors.get(0), result.error);
+
+        compiler.setAllErrors(false);
+        result = compiler.compile(new ByteArrayInputStream(PROGRAM.getBytes(StandardCharsets.US_ASCII)), VisitorKind.Semantic);
+        Assert.assertEquals(1, result.diagnostics.size());
+        Assert.assertEquals(errors.get(0), result.error);
+    }
+
+    @Test
+    public void errorsHaveNoStackTrace() {
+        Assert.assertEquals(0, new SemantiqueError("Invalid type in condition").getStackTrace().length);
+    }
+
+    // Each program of the test-suite without one of its declarations, then with the type of one changed
+    private static List<String> brokenPrograms() throws Exception {
+        List<String> programs = new ArrayList<>();
+        for (String path : new String[] { "./test-suite/SemantiqueTest/data", "./test-suite/IntermediateCodeGenTest/data" }) {
+            for (File file : new File(path).listFiles()) {
+                String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+                Matcher matcher = DECLARATION.matcher(source);
+                while (matcher.find()) {
+                    String before = source.substring(0, matcher.start());
+                    String after = source.substring(matcher.end());
+                    String type = matcher.group(1);
+                    programs.add(before + after);
+                    programs.add(before + (type.equals("num") ? "bool" : "num") + matcher.group().substring(type.length()) + after);
+                }
+            }
+        }
+        return programs;
+    }
+}
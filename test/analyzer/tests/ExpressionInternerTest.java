@@ -0,0 +1,224 @@
+package analyzer.tests;
+
+import analyzer.VisitorKind;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.ExpressionInterner;
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.ast.TokenMgrError;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks ExpressionInterner on every file of the test-suite. The semantic
+ * visitor must print the same thing on the interned tree. The code generators may reuse
+ * temporaries, so their outputs are run by a small interpreter of the three address code:
+ * the values assigned to the variables of the program must be the same.
+ */
+
+@RunWith(Parameterized.class)
+public class ExpressionInternerTest {
+
+    private static final int MAX_STEPS = 10000;
+
+    private final File m_file;
+
+    public ExpressionInternerTest(String name, File file) {
+        m_file = file;
+    }
+
+    @Test
+    public void sameBehaviour() throws Exception {
+        byte[] source = Files.readAllBytes(m_file.toPath());
+        try {
+            Parser.ParseTree(new ByteArrayInputStream(source));
+        } catch (ParseException | TokenMgrError e) {
+            return;
+        }
+
+        for (VisitorKind kind : VisitorKind.values()) {
+            String expected = run(kind, source, false);
+            String actual = run(kind, source, true);
+            if (kind == VisitorKind.Semantic) {
+                Assert.assertEquals(expected, actual);
+            } else {
+                Assert.assertEquals(kind.getName(), execute(expected), execute(actual));
+                Assert.assertTrue(kind.getName(), lines(actual) <= lines(expected));
+            }
+        }
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return BaseTest.getAllFileParameters();
+    }
+
+    @Test
+    public void reusesTemporaries() throws Exception {
+        String source = "Declaration\n num a;\n num b;\n num c;\nEndDeclaration\n"
+                + "a = b * c + 1;\n"
+                + "c = b * c + 1;\n"
+                + "a = b * c + 1;\n"
+                + "b = b * c;\n";
+        byte[] bytes = source.getBytes(StandardCharsets.US_ASCII);
+
+        ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(bytes));
+        ExpressionInterner interner = new ExpressionInterner();
+        interner.intern(tree);
+        Assert.assertTrue(interner.getDistinctCount() < interner.getExpressionCount());
+
+        // The second statement reuses the first one, c is then assigned and "b * c" is
+        // computed again, once for the last two statements.
+        Assert.assertEquals(
+                "_t0 = b * c\n_t1 = _t0 + 1\na = _t1\n"
+                        + "c = _t1\n"
+                        + "_t2 = b * c\n_t3 = _t2 + 1\na = _t3\n"
+                        + "b = _t2\n",
+                run(VisitorKind.Tac, bytes, true).replace("\r\n", "\n"));
+    }
+
+    @Test
+    public void labelsEndReuse() throws Exception {
+        String source = "Declaration\n num a;\n num b;\n bool c;\nEndDeclaration\n"
+                + "a = b * 2;\n"
+                + "if (c) a = 1;\n"
+                + "a = b * 2;\n";
+        String tac = run(VisitorKind.Tac, source.getBytes(StandardCharsets.US_ASCII), true);
+        Assert.assertEquals(2, tac.split("= b \\* 2", -1).length - 1);
+    }
+
+    @Test
+    public void undeclaredIdentifiers() throws Exception {
+        // z has no symbol, "z + 1" is still reused until z is assigned
+        String source = "Declaration\n num a;\nEndDeclaration\n"
+                + "a = z + 1;\n"
+                + "a = z + 1;\n"
+                + "z = a + 1;\n"
+                + "a = z + 1;\n";
+        ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(source.getBytes(StandardCharsets.US_ASCII)));
+        new ExpressionInterner().intern(tree);
+        StringWriter output = new StringWriter();
+        tree.jjtAccept(VisitorKind.Tac.create(new PrintWriter(output)), null);
+    }
+
+    private static String run(VisitorKind kind, byte[] source, boolean intern) throws Exception {
+        StringWriter output = new StringWriter();
+        PrintWriter writer = new PrintWriter(output);
+        ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(source));
+        if (intern) {
+            new ExpressionInterner().intern(tree);
+        }
+        try {
+            tree.jjtAccept(kind.create(writer), null);
+        } catch (Throwable e) {
+            writer.flush();
+            output.append(e.getMessage());
+        }
+        writer.flush();
+        return output.toString();
+    }
+
+    private static int lines(String s) {
+        return s.split("\n", -1).length;
+    }
+
+    // The assignments to the variables of the program (not the temporaries) made by the
+    // three address code, up to MAX_STEPS instructions
+    private static List<String> execute(String code) {
+        String[] lines = code.replace("\r\n", "\n").split("\n");
+        HashMap<String, Integer> labels = new HashMap<>();
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].startsWith("_L") && !lines[i].contains(" ")) {
+                labels.put(lines[i], i);
+            }
+        }
+
+        HashMap<String, Integer> values = new HashMap<>();
+        List<String> trace = new ArrayList<>();
+        int pc = 0;
+        for (int steps = 0; steps < MAX_STEPS && pc < lines.length; steps++) {
+            String[] t = lines[pc].trim().split(" ");
+            pc++;
+            try {
+                if (t[0].equals("goto")) {
+                    pc = target(labels, t[1]);
+                } else if (t[0].equals("if") || t[0].equals("ifFalse")) {
+                    boolean test = compare(value(values, t[1]), t[2], value(values, t[3]));
+                    if (test == t[0].equals("if")) {
+                        pc = target(labels, t[5]);
+                    }
+                } else if (t.length >= 3 && t[1].equals("=")) {
+                    int result;
+                    if (t.length == 3) {
+                        result = value(values, t[2]);
+                    } else if (t.length == 4) {
+                        result = t[2].equals("-") ? -value(values, t[3]) : (value(values, t[3]) == 0 ? 1 : 0);
+                    } else {
+                        result = arithmetic(value(values, t[2]), t[3], value(values, t[4]));
+                    }
+                    values.put(t[0], result);
+                    if (!t[0].startsWith("_t")) {
+                        trace.add(t[0] + "=" + result);
+                    }
+                } else if (!labels.containsKey(t[0]) && !t[0].isEmpty()) {
+                    trace.add(lines[pc - 1]);
+                    break;
+                }
+            } catch (ArithmeticException e) {
+                trace.add(e.getMessage());
+                break;
+            }
+        }
+        return trace;
+    }
+
+    private static int target(HashMap<String, Integer> labels, String label) {
+        Integer line = labels.get(label);
+        return line == null ? Integer.MAX_VALUE : line;
+    }
+
+    private static int value(HashMap<String, Integer> values, String operand) {
+        if (Character.isDigit(operand.charAt(0))) {
+            return Integer.parseInt(operand);
+        }
+        Integer value = values.get(operand);
+        return value == null ? 0 : value;
+    }
+
+    private static boolean compare(int a, String op, int b) {
+        switch (op) {
+            case "==": return a == b;
+            case "!=": return a != b;
+            case "<": return a < b;
+            case "<=": return a <= b;
+            case ">": return a > b;
+            default: return a >= b;
+        }
+    }
+
+    private static int arithmetic(int a, String op, int b) {
+        switch (op) {
+            case "+": return a + b;
+            case "-": return a - b;
+            case "*": return a * b;
+            case "/": return a / b;
+            default: return a % b;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package analyzer.tests;
+
+import analyzer.VisitorKind;
+import analyzer.ast.ASTDeclaration;
+import analyzer.ast.ASTIdentifier;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.FlatTree;
+import analyzer.ast.Parser;
+import analyzer.ast.ParserTreeConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: FlatTree.accept() on the trees which are not a whole parsed program:
+ * a Program without Block is visited, a subtree which is not a Program is refused.
+ */
+
+public class FlatTreeAcceptTest {
+
+    @Test
+    public void programWithoutBlock() {
+        ASTProgram program = new ASTProgram(ParserTreeConstants.JJTPROGRAM);
+        ASTDeclaration declaration = new ASTDeclaration(ParserTreeConstants.JJTDECLARATION);
+        declaration.setValue("num");
+        ASTIdentifier identifier = new ASTIdentifier(ParserTreeConstants.JJTIDENTIFIER);
+        identifier.setValue("a");
+        declaration.jjtAddChild(identifier, 0);
+        identifier.jjtSetParent(declaration);
+        program.jjtAddChild(declaration, 0);
+        declaration.jjtSetParent(program);
+
+        StringWriter output = new StringWriter();
+        PrintWriter writer = new PrintWriter(output);
+        FlatTree.of(program).accept(VisitorKind.Semantic.create(writer));
+        writer.flush();
+        Assert.assertEquals("all good", output.toString().trim());
+    }
+
+    @Test
+    public void notAProgram() throws Exception {
+        String source = "Declaration num a; EndDeclaration\na = 1;\n";
+        ASTProgram program = Parser.ParseTree(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+        FlatTree block = FlatTree.of(program.jjtGetChild(program.jjtGetNumChildren() - 1));
+        try {
+            block.accept(VisitorKind.Semantic.create(new PrintWriter(new StringWriter())));
+            Assert.fail("Only a Program can be visited");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Block"));
+        }
+    }
+}
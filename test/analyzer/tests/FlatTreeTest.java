@@ -0,0 +1,91 @@
+package analyzer.tests;
+
+import analyzer.Main;
+import analyzer.VisitorKind;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.FlatTree;
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.ast.TokenMgrError;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Collection;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks that the nodes built again from a FlatTree are the nodes of a
+ * normal parse, and that every visitor gives the output of Main.Run on a FlatTree,
+ * for every file of the test-suite.
+ */
+
+@RunWith(Parameterized.class)
+public class FlatTreeTest {
+
+    private final File m_file;
+
+    public FlatTreeTest(String name, File file) {
+        m_file = file;
+    }
+
+    @Test
+    public void materialize() throws Exception {
+        byte[] source = Files.readAllBytes(m_file.toPath());
+        ASTProgram expected;
+        try {
+            expected = Parser.ParseTree(new ByteArrayInputStream(source));
+        } catch (ParseException | TokenMgrError e) {
+            try {
+                FlatTree.parse(source);
+                Assert.fail("A syntax error was expected");
+            } catch (ParseException | TokenMgrError ignored) {
+            }
+            return;
+        }
+
+        FlatTree tree = FlatTree.parse(source);
+        Assert.assertEquals(Trees.describe(expected), Trees.describe(tree.materialize()));
+        Assert.assertEquals(Trees.describe(expected), Trees.describe(FlatTree.of(expected).materialize()));
+    }
+
+    @Test
+    public void accept() throws Exception {
+        byte[] source = Files.readAllBytes(m_file.toPath());
+        for (VisitorKind kind : VisitorKind.values()) {
+            StringWriter expected = new StringWriter();
+            PrintWriter writer = new PrintWriter(expected);
+            try {
+                Main.Run(kind.create(writer), new ByteArrayInputStream(source), writer);
+            } catch (Throwable e) {
+                writer.flush();
+                expected.append(e.getMessage());
+            }
+
+            StringWriter actual = new StringWriter();
+            writer = new PrintWriter(actual);
+            try {
+                FlatTree.parse(source).accept(kind.create(writer));
+                writer.flush();
+            } catch (Throwable e) {
+                writer.flush();
+                actual.append(e.getMessage());
+            }
+
+            Assert.assertEquals(kind.getName(), expected.toString(), actual.toString());
+        }
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return BaseTest.getAllFileParameters();
+    }
+}
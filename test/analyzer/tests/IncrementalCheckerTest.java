@@ -0,0 +1,162 @@
+package analyzer.tests;
+
+import analyzer.Diagnostics;
+import analyzer.ast.ASTIdentifier;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.IncrementalParser;
+import analyzer.ast.Node;
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.ast.TokenMgrError;
+import analyzer.visitors.IncrementalChecker;
+import analyzer.visitors.SemantiqueVisitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Edits the files of the test-suite with IncrementalParser, changing the type
+ * of each declaration then adding random statements, and compares the errors found by
+ * IncrementalChecker with those of a SemantiqueVisitor on a complete parse of the source.
+ * When a type changes, only the items using the identifier must be checked again.
+ */
+
+@RunWith(Parameterized.class)
+public class IncrementalCheckerTest {
+
+    private static final Pattern DECLARATION = Pattern.compile("\\b(num|bool)(\\s+)(\\w+)\\s*;");
+
+    private static final String[] INSERTIONS = {
+            "a = 1;", "b = a + 2;", "{ c = true; }", "if (c) { a = 2; }", "while (c) { a = a - 1; }",
+            "\n", " ", "// c\n", "z = 1;"
+    };
+
+    private final String m_source;
+
+    public IncrementalCheckerTest(String name, String source) {
+        m_source = source;
+    }
+
+    @Test
+    public void run() throws Exception {
+        IncrementalParser parser;
+        try {
+            parser = new IncrementalParser(m_source);
+        } catch (ParseException | TokenMgrError e) {
+            return;
+        }
+        IncrementalChecker checker = new IncrementalChecker();
+        assertSameErrors(parser, checker);
+
+        // Each declaration changes its type, then gets it back
+        for (int pass = 0; pass < 2; pass++) {
+            Matcher matcher = DECLARATION.matcher(parser.getSource());
+            List<int[]> declarations = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            int end = parser.getSource().indexOf("EndDeclaration");
+            while (matcher.find() && matcher.start() < end) {
+                declarations.add(new int[] { matcher.start(), matcher.end(1) - matcher.start() });
+                names.add(matcher.group(3));
+            }
+            for (int i = declarations.size() - 1; i >= 0; i--) {
+                int offset = declarations.get(i)[0];
+                String type = parser.getSource().substring(offset, offset + declarations.get(i)[1]);
+                parser.apply(Collections.singletonList(
+                        new IncrementalParser.Edit(offset, type.length(), type.equals("num") ? "bool" : "num")));
+                assertSameErrors(parser, checker);
+                if (parser.wasLastIncremental()) {
+                    Assert.assertEquals(names.get(i), users(parser.getTree(), names.get(i)), checker.getLastChecked());
+                }
+            }
+        }
+
+        // Nothing changed, nothing is checked
+        parser.apply(Collections.singletonList(new IncrementalParser.Edit(0, 0, "")));
+        assertSameErrors(parser, checker);
+        Assert.assertEquals(0, checker.getLastChecked());
+
+        Random random = new Random(m_source.hashCode());
+        for (int i = 0; i < 20; i++) {
+            String source = parser.getSource();
+            int count = items(parser.getTree()).size();
+            int item = random.nextInt(count + 1);
+            int offset = item < count && parser.getItemStart(item) >= 0 ? parser.getItemStart(item) : source.length();
+            try {
+                parser.apply(Collections.singletonList(new IncrementalParser.Edit(offset, 0, INSERTIONS[random.nextInt(INSERTIONS.length)])));
+            } catch (ParseException | TokenMgrError e) {
+                parser.apply(Collections.singletonList(new IncrementalParser.Edit(0, parser.getSource().length(), source)));
+            }
+            assertSameErrors(parser, checker);
+        }
+    }
+
+    private static void assertSameErrors(IncrementalParser parser, IncrementalChecker checker) throws Exception {
+        ASTProgram full = Parser.ParseTree(new ByteArrayInputStream(parser.getSource().getBytes(StandardCharsets.UTF_8)));
+        Diagnostics expected = new Diagnostics();
+        SemantiqueVisitor visitor = new SemantiqueVisitor(null);
+        visitor.reset(new PrintWriter(new StringWriter()), expected);
+        full.jjtAccept(visitor, null);
+        Assert.assertEquals(parser.getSource(), describe(expected), describe(checker.check(parser.getTree())));
+    }
+
+    private static String describe(Diagnostics diagnostics) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < diagnostics.size(); i++) {
+            sb.append(diagnostics.message(i)).append(" at ").append(diagnostics.position(i)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Number of items of the tree using the identifier
+    private static int users(ASTProgram tree, String name) {
+        int users = 0;
+        for (Node item : items(tree)) {
+            if (uses(item, name)) {
+                users++;
+            }
+        }
+        return users;
+    }
+
+    private static boolean uses(Node node, String name) {
+        if (node instanceof ASTIdentifier && ((ASTIdentifier) node).getValue().equals(name)) {
+            return true;
+        }
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            if (uses(node.jjtGetChild(i), name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Node> items(ASTProgram tree) {
+        Node block = tree.jjtGetChild(tree.jjtGetNumChildren() - 1);
+        List<Node> items = new ArrayList<>();
+        for (int i = 0; i < block.jjtGetNumChildren(); i++) {
+            items.add(block.jjtGetChild(i));
+        }
+        return items;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() throws Exception {
+        return BaseTest.getAllSourceParameters();
+    }
+}
@@ -0,0 +1,140 @@
+package analyzer.tests;
+
+import analyzer.ast.ASTProgram;
+import analyzer.ast.IncrementalParser;
+import analyzer.ast.Node;
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.ast.TokenMgrError;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Applies random edits to the files of the test-suite with IncrementalParser
+ * and compares each tree (the offsets of its items and the positions of its nodes too)
+ * with the ones of a complete parse of the edited source. When the parse was incremental,
+ * the items which were not parsed again must be the same objects.
+ */
+
+@RunWith(Parameterized.class)
+public class IncrementalParserTest {
+
+    private static final String[] INSERTIONS = {
+            "a = 1;", "b = a + 2;", " ", "\n", "\r\n", "{", "}", "{ c = true; }", "if (c) a = 2;",
+            "while (c) { a = a - 1; }", "// c\n", "/*", "*/", ";", "x", "1", "(", ")", "+ 3",
+            "Declaration num z; EndDeclaration\n", "num y;", "EndDeclaration"
+    };
+
+    private final String m_source;
+
+    public IncrementalParserTest(String name, String source) {
+        m_source = source;
+    }
+
+    @Test
+    public void run() throws Exception {
+        Random random = new Random(m_source.hashCode());
+        IncrementalParser parser;
+        try {
+            parser = new IncrementalParser(m_source);
+        } catch (ParseException | TokenMgrError e) {
+            return;
+        }
+        String source = m_source;
+
+        for (int i = 0; i < 50; i++) {
+            String previous = source;
+            List<IncrementalParser.Edit> edits = new ArrayList<>();
+            StringBuilder edited = new StringBuilder(source);
+            for (int j = random.nextInt(3); j >= 0; j--) {
+                int offset = random.nextInt(edited.length() + 1);
+                int removed = random.nextInt(3) == 0 ? Math.min(random.nextInt(8), edited.length() - offset) : 0;
+                String text = removed > 0 && random.nextBoolean() ? "" : INSERTIONS[random.nextInt(INSERTIONS.length)];
+                edits.add(new IncrementalParser.Edit(offset, removed, text));
+                edited.replace(offset, offset + removed, text);
+            }
+            source = edited.toString();
+
+            List<Node> before = parser.getTree() == null ? Collections.<Node>emptyList() : items(parser.getTree());
+            ASTProgram oldTree = parser.getTree();
+
+            String expected;
+            String positions = null;
+            try {
+                ASTProgram full = Parser.ParseTree(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+                expected = Trees.describe(full);
+                positions = Trees.positions(full);
+            } catch (ParseException | TokenMgrError e) {
+                expected = null;
+            }
+
+            ASTProgram tree;
+            try {
+                tree = parser.apply(edits);
+            } catch (ParseException | TokenMgrError e) {
+                Assert.assertNull("Edit " + i + " should parse:\n" + source, expected);
+
+                // Back to the last valid source, most random edits break the program
+                parser.apply(Collections.singletonList(new IncrementalParser.Edit(0, source.length(), previous)));
+                source = previous;
+                continue;
+            }
+            Assert.assertEquals("Edit " + i + ":\n" + source, expected, Trees.describe(tree));
+            Assert.assertEquals("Edit " + i + ":\n" + source, positions, Trees.positions(tree));
+            Assert.assertEquals(source, parser.getSource());
+
+            IncrementalParser fresh = new IncrementalParser(source);
+            for (int j = 0; j < items(tree).size(); j++) {
+                Assert.assertEquals("Edit " + i + ", start of item " + j, fresh.getItemStart(j), parser.getItemStart(j));
+                Assert.assertEquals("Edit " + i + ", end of item " + j, fresh.getItemEnd(j), parser.getItemEnd(j));
+            }
+
+            if (parser.wasLastIncremental()) {
+                Assert.assertSame(oldTree, tree);
+                Map<Node, Boolean> old = new IdentityHashMap<>();
+                for (Node item : before) {
+                    old.put(item, true);
+                }
+                int created = 0;
+                for (Node item : items(tree)) {
+                    if (!old.containsKey(item)) {
+                        created++;
+                    }
+                }
+                Assert.assertEquals("Edit " + i, parser.getLastReparsedItems(), created);
+            }
+        }
+    }
+
+    private static List<Node> items(ASTProgram tree) {
+        Node block = tree.jjtGetChild(tree.jjtGetNumChildren() - 1);
+        List<Node> items = new ArrayList<>();
+        for (int i = 0; i < block.jjtGetNumChildren(); i++) {
+            items.add(block.jjtGetChild(i));
+        }
+        return items;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() throws Exception {
+        Collection<Object[]> params = BaseTest.getAllSourceParameters();
+        params.add(new Object[] { "empty", "" });
+        params.add(new Object[] { "statements only", "a = 1;\n{ b = 2; }\r\nc = 3;" });
+        return params;
+    }
+}
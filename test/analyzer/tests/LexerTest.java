@@ -0,0 +1,121 @@
+package analyzer.tests;
+
+import analyzer.ast.CharStream;
+import analyzer.ast.FastTokenManager;
+import analyzer.ast.JavaCharStream;
+import analyzer.ast.ParserConstants;
+import analyzer.ast.ParserTokenManager;
+import analyzer.ast.Token;
+import analyzer.ast.TokenMgrError;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks that FastTokenManager gives exactly the same tokens as the token
+ * manager generated by JavaCC. Both are run on every file of the test-suite and on
+ * random inputs built from pieces of tokens (valid or not). The values of the literals
+ * computed by FastTokenManager are checked too.
+ */
+
+@RunWith(Parameterized.class)
+public class LexerTest {
+
+    private static final String[] PIECES = {
+            "if", "then", "else", "while", "switch", "case", "default", "true", "false", "match", "with",
+            "do", "INPUT", "OUTPUT", "Declaration", "EndDeclaration", "bool", "num", "iff", "_a1", "truex",
+            "0", "007", "42", "2147483647", "2147483648", "99999999999", "1.5", "2e10", "3.e", "1e+", "12.5E-3", "0.0", "5.", "9e",
+            "=", "==", "<", "<=", ">", ">=", "!", "!=", "&&", "&", "||", "|", "*", "**", "/", "%",
+            "+", "-", "(", ")", "{", "}", ":", ";", ",", ".", "@",
+            "//c\n", "// x\r\n", "//y\r", "/* x */", "/** y */", "/**/", "/***/", "/*", "*/",
+            " ", "  ", "\t", "\n", "\r", "\r\n", "\\u0061", "é"
+    };
+
+    private final String m_source;
+
+    public LexerTest(String name, String source) {
+        m_source = source;
+    }
+
+    @Test
+    public void run() {
+        compare(new FastTokenManager(stream()));
+    }
+
+    // The tokens are described as soon as they are returned, so they can come from the ring
+    @Test
+    public void runReusingTokens() {
+        compare(new FastTokenManager(stream(), true));
+    }
+
+    private void compare(ParserTokenManager actual) {
+        ParserTokenManager expected = new ParserTokenManager(stream());
+
+        for (int i = 0; ; i++) {
+            Token e;
+            try {
+                e = expected.getNextToken();
+            } catch (TokenMgrError error) {
+                try {
+                    actual.getNextToken();
+                    Assert.fail("Token " + i + ": a lexical error was expected (" + error.getMessage() + ")");
+                } catch (TokenMgrError ignored) {
+                }
+                return;
+            }
+
+            Token a = actual.getNextToken();
+            Assert.assertEquals("Token " + i, describe(e), describe(a));
+            if (a.kind == ParserConstants.BOOLEAN) {
+                Assert.assertEquals("Token " + i, Boolean.parseBoolean(a.image), a.booleanValue());
+            } else if (a.kind == ParserConstants.INTEGER && a.image.length() < 10) {
+                Assert.assertTrue("Token " + i, a.hasLiteralValue);
+                Assert.assertEquals("Token " + i, Integer.parseInt(a.image), a.intValue());
+            }
+            if (e.kind == 0) {
+                return;
+            }
+        }
+    }
+
+    private CharStream stream() {
+        return new JavaCharStream(new StringReader(m_source));
+    }
+
+    private static String describe(Token t) {
+        StringBuilder sb = new StringBuilder();
+        for (Token s = t; s != null; s = s.specialToken) {
+            sb.append(s.kind).append(" [").append(s.image).append("] ")
+                    .append(s.beginLine).append(':').append(s.beginColumn).append('-')
+                    .append(s.endLine).append(':').append(s.endColumn).append(" | ");
+        }
+        return sb.toString();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() throws Exception {
+        Collection<Object[]> params = BaseTest.getAllSourceParameters();
+
+        Random random = new Random(3210);
+        for (int i = 0; i < 500; i++) {
+            StringBuilder sb = new StringBuilder();
+            int pieces = 1 + random.nextInt(30);
+            for (int j = 0; j < pieces; j++) {
+                sb.append(PIECES[random.nextInt(PIECES.length)]);
+                if (random.nextBoolean()) {
+                    sb.append(' ');
+                }
+            }
+            params.add(new Object[] { "random" + i, sb.toString() });
+        }
+        return params;
+    }
+}
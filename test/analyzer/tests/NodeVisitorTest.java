@@ -0,0 +1,113 @@
+package analyzer.tests;
+
+import analyzer.ast.ASTProgram;
+import analyzer.ast.IntNodeVisitor;
+import analyzer.ast.Node;
+import analyzer.ast.NodeVisitor;
+import analyzer.ast.Parser;
+import analyzer.ast.ParserTreeConstants;
+import analyzer.ast.PositionedNode;
+import analyzer.ast.SimpleNode;
+import analyzer.visitors.SemantiqueVisitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks that accept() and acceptInt() call the visit of the node, for each
+ * kind of node, and that jjtAccept() reaches the typed visits through the adapters.
+ */
+
+public class NodeVisitorTest {
+
+    private static final String PROGRAM = "Declaration num a; bool b; EndDeclaration\n"
+            + "{ a = -1 + 2 * a; }\n"
+            + "if (b || !(a < 2)) { a = 1; } else { b = true; }\n"
+            + "while (a == 1) ;\n"
+            + "switch (a) { case 1: a = 2; default: b = false; }\n";
+
+    // Each node is visited by the method named after it, with the argument of its parent
+    @Test
+    public void acceptCallsTheVisitOfTheNode() throws Exception {
+        final ASTProgram tree = parse(PROGRAM);
+        final StringBuilder visited = new StringBuilder();
+
+        InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(Object visitor, Method method, Object[] args) {
+                Node node = (Node) args[0];
+                Assert.assertEquals("visit" + node, method.getName());
+                Assert.assertSame(tree, args[1]);
+                visited.append(node).append(' ');
+                for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+                    if (visitor instanceof NodeVisitor) {
+                        ((PositionedNode) node).child(i).accept(typed(visitor), tree);
+                    } else {
+                        ((PositionedNode) node).child(i).acceptInt(typedInt(visitor), tree);
+                    }
+                }
+                return method.getReturnType() == int.class ? (Object) ((SimpleNode) node).getId() : node.toString();
+            }
+        };
+
+        NodeVisitor<Object, String> visitor = typed(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { NodeVisitor.class }, handler));
+        Assert.assertEquals("Program", tree.accept(visitor, tree));
+        String expected = visited.toString();
+        for (String kind : ParserTreeConstants.jjtNodeName) {
+            if (!kind.equals("void")) {
+                Assert.assertTrue(kind, expected.contains(kind + " "));
+            }
+        }
+
+        visited.setLength(0);
+        IntNodeVisitor<Object> intVisitor = typedInt(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { IntNodeVisitor.class }, handler));
+        Assert.assertEquals(ParserTreeConstants.JJTPROGRAM, tree.acceptInt(intVisitor, tree));
+        Assert.assertEquals(expected, visited.toString());
+    }
+
+    // A node of another class is given to visitNode()
+    @Test
+    public void otherNodesGoToVisitNode() {
+        SimpleNode node = new SimpleNode(ParserTreeConstants.JJTVOID);
+        NodeVisitor<Object, String> visitor = typed(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { NodeVisitor.class },
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object visitor, Method method, Object[] args) {
+                        return method.getName();
+                    }
+                }));
+        Assert.assertEquals("visitNode", node.accept(visitor, null));
+    }
+
+    // SemantiqueVisitor is an IntNodeVisitor, jjtAccept() still runs it as a ParserVisitor
+    @Test
+    public void adapterRunsTheTypedVisits() throws Exception {
+        StringWriter output = new StringWriter();
+        parse(PROGRAM).jjtAccept(new SemantiqueVisitor(new PrintWriter(output, true)), null);
+        Assert.assertEquals("all good", output.toString());
+    }
+
+    private static ASTProgram parse(String source) throws Exception {
+        return Parser.ParseTree(new ByteArrayInputStream(source.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NodeVisitor<Object, String> typed(Object visitor) {
+        return (NodeVisitor<Object, String>) visitor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IntNodeVisitor<Object> typedInt(Object visitor) {
+        return (IntNodeVisitor<Object>) visitor;
+    }
+}
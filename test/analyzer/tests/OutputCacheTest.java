@@ -0,0 +1,128 @@
+package analyzer.tests;
+
+import analyzer.CompilerContext;
+import analyzer.OutputCache;
+import analyzer.VisitorKind;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks that the outputs (and errors) of the programs compiled through an
+ * OutputCache are the ones of a compilation without cache, the first time and when
+ * they come from the cache, and that the entries used the least recently are evicted.
+ */
+
+public class OutputCacheTest {
+
+    private Path m_directory;
+
+    @Before
+    public void createDirectory() throws Exception {
+        m_directory = Files.createTempDirectory("output-cache-test");
+    }
+
+    @After
+    public void deleteDirectory() throws Exception {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(m_directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(m_directory);
+    }
+
+    @Test
+    public void compile() throws Exception {
+        OutputCache cache = new OutputCache(m_directory, OutputCache.DEFAULT_MAX_BYTES);
+        CompilerContext context = new CompilerContext();
+        context.setOutputCache(cache);
+        CompilerContext uncached = new CompilerContext();
+        uncached.setOutputCache(null);
+
+        for (File file : BaseTest.getAllFiles()) {
+            byte[] source = Files.readAllBytes(file.toPath());
+            for (VisitorKind kind : VisitorKind.values()) {
+                String name = kind.getName() + " " + file.getPath();
+                String expected = compile(uncached, kind, source);
+                Assert.assertEquals(name, expected, compile(context, kind, source));
+                Assert.assertEquals(name, expected, compile(context, kind, source));
+            }
+        }
+    }
+
+    @Test
+    public void hit() throws Exception {
+        OutputCache cache = new OutputCache(m_directory, OutputCache.DEFAULT_MAX_BYTES);
+        CompilerContext context = new CompilerContext();
+        context.setOutputCache(cache);
+        byte[] source = "Declaration num a; EndDeclaration a = 1;".getBytes(StandardCharsets.US_ASCII);
+
+        String key = cache.key(VisitorKind.Semantic, source, 0, source.length);
+        Assert.assertNull(cache.get(key));
+        String output = context.compile(VisitorKind.Semantic, new ByteArrayInputStream(source));
+        Assert.assertEquals(output, cache.get(key).output);
+        Assert.assertNull(cache.get(key).error);
+
+        // Another visitor or another source is another entry
+        Assert.assertNotEquals(key, cache.key(VisitorKind.Tac, source, 0, source.length));
+        Assert.assertNotEquals(key, cache.key(VisitorKind.Semantic, source, 0, source.length - 1));
+
+        // What is in the cache is returned, the program is not compiled again
+        cache.put(key, new OutputCache.Entry("cached\n", null));
+        Assert.assertEquals("cached\n", context.compile(VisitorKind.Semantic, new ByteArrayInputStream(source)));
+    }
+
+    @Test
+    public void evict() throws Exception {
+        OutputCache cache = new OutputCache(m_directory, 4000);
+        String[] keys = new String[10];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + i;
+            cache.put(keys[i], new OutputCache.Entry(new String(new char[500]), null));
+            Files.setLastModifiedTime(m_directory.resolve(keys[i] + ".out"), FileTime.fromMillis(1000000L * (i + 1)));
+            if (i == 6) {
+                // A hit makes key0 the most recently used
+                Assert.assertNotNull(cache.get(keys[0]));
+            }
+        }
+
+        Assert.assertTrue(cache.size() <= 4000);
+        Assert.assertNotNull(cache.get(keys[0]));
+        Assert.assertNotNull(cache.get(keys[9]));
+        Assert.assertNull(cache.get(keys[1]));
+    }
+
+    // Every file of the compiler is in the version, not only the visitors
+    @Test
+    public void version() {
+        List<String> files = OutputCache.versionFiles();
+        for (String file : new String[]{"analyzer/visitors/SymbolTable.class", "analyzer/visitors/TreeWalker.class",
+                "analyzer/Diagnostics.class", "analyzer/ast/FastTokenManager.class", "analyzer/ast/ExpressionInterner.class",
+                "analyzer/ast/Operator.class", "analyzer/ast/ASTExpr.class", "analyzer/OutputCache$Entry.class",
+                "analyzer/CompilerServer$1.class", "analyzer/ast/Langage.jjt"}) {
+            Assert.assertTrue(file, files.contains(file));
+        }
+    }
+
+    private static String compile(CompilerContext context, VisitorKind kind, byte[] source) {
+        try {
+            return context.compile(kind, new ByteArrayInputStream(source));
+        } catch (Throwable e) {
+            return context.output() + e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+}
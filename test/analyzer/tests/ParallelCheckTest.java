@@ -0,0 +1,102 @@
+package analyzer.tests;
+
+import analyzer.Diagnostics;
+import analyzer.SemantiqueError;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.Parser;
+import analyzer.visitors.SemantiqueVisitor;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks the programs of the test-suite, repeated to have many statements,
+ * with the statements split between the threads of a pool, and compares the output, the
+ * error thrown and the errors kept with those of a check done in one thread.
+ */
+
+public class ParallelCheckTest {
+
+    private static final Pattern DECLARATION = Pattern.compile("\\b(num|bool)\\s+\\w+\\s*;");
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void sameResultsAsOneThread() throws Exception {
+        int broken = 0;
+        for (String program : programs()) {
+            ASTProgram tree = Parser.ParseTree(new ByteArrayInputStream(program.getBytes(StandardCharsets.UTF_8)));
+            String sequential = check(tree, null, false);
+            Assert.assertEquals(program, sequential, check(tree, POOL, false));
+            Assert.assertEquals(program, check(tree, null, true), check(tree, POOL, true));
+            if (!sequential.equals("all good")) {
+                broken++;
+            }
+        }
+        Assert.assertTrue(broken > 0);
+    }
+
+    // What the check prints, or the error thrown, or all the errors kept
+    private static String check(ASTProgram tree, ForkJoinPool pool, boolean allErrors) {
+        StringWriter output = new StringWriter();
+        SemantiqueVisitor visitor = new SemantiqueVisitor(new PrintWriter(output, true));
+        visitor.setParallelism(pool, 1);
+        Diagnostics diagnostics = new Diagnostics();
+        if (allErrors) {
+            visitor.reset(new PrintWriter(output, true), diagnostics);
+        }
+        try {
+            tree.jjtAccept(visitor, null);
+        } catch (SemantiqueError e) {
+            return e.getMessage() + " at " + e.getPosition();
+        }
+        StringBuilder errors = new StringBuilder(output.toString());
+        for (int i = 0; i < diagnostics.size(); i++) {
+            errors.append(diagnostics.message(i)).append(" at ").append(diagnostics.position(i)).append('\n');
+        }
+        return errors.toString();
+    }
+
+    // The statements of each file repeated 50 times, then without each of its declarations
+    private static List<String> programs() throws Exception {
+        List<String> programs = new ArrayList<>();
+        for (File file : new File("./test-suite/IntermediateCodeGenTest/data").listFiles()) {
+            String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            int end = source.indexOf("EndDeclaration");
+            if (end < 0) {
+                continue;
+            }
+            end += "EndDeclaration".length();
+            StringBuilder repeated = new StringBuilder(source.substring(0, end));
+            for (int i = 0; i < 50; i++) {
+                repeated.append(source.substring(end)).append('\n');
+            }
+            String program = repeated.toString();
+            programs.add(program);
+            Matcher matcher = DECLARATION.matcher(source.substring(0, end));
+            while (matcher.find()) {
+                programs.add(program.substring(0, matcher.start()) + program.substring(matcher.end()));
+            }
+        }
+        return programs;
+    }
+}
@@ -0,0 +1,59 @@
+package analyzer.tests;
+
+import analyzer.ast.ASTGenValue;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.Node;
+import analyzer.ast.Parser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: The redundant parentheses are not kept in the tree: "((e))" gives the
+ * same tree as "(e)", with one parenthesized GenValue. The parentheses around an
+ * expression with an operator are kept.
+ */
+
+public class ParenthesesTest {
+
+    private static final String DECLARATIONS = "Declaration num a; bool b; EndDeclaration\n";
+
+    @Test
+    public void redundantParenthesesAreRemoved() throws Exception {
+        String expected = Trees.describe(parse("a = (a + 1);"));
+        Assert.assertEquals(expected, Trees.describe(parse("a = ((a + 1));")));
+        Assert.assertEquals(expected, Trees.describe(parse("a = ((((((a + 1))))));")));
+        Assert.assertEquals(Trees.describe(parse("a = (a);")), Trees.describe(parse("a = (((a)));")));
+        Assert.assertEquals(1, parenthesized(parse("a = ((((((a + 1))))));")));
+    }
+
+    @Test
+    public void parenthesesWithAnOperatorAreKept() throws Exception {
+        Assert.assertEquals(2, parenthesized(parse("a = (-(a));")));
+        Assert.assertEquals(2, parenthesized(parse("b = (!(b));")));
+        Assert.assertEquals(2, parenthesized(parse("a = ((a) + 1);")));
+        Assert.assertNotEquals(Trees.describe(parse("a = (a + 1) * 2;")), Trees.describe(parse("a = a + 1 * 2;")));
+    }
+
+    private static ASTProgram parse(String statement) throws Exception {
+        String source = DECLARATIONS + statement + "\n";
+        return Parser.ParseTree(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // The number of GenValue holding an Expr (between parentheses) in the tree
+    private static int parenthesized(Node node) {
+        int count = 0;
+        if (node instanceof ASTGenValue && node.jjtGetNumChildren() == 1 && node.jjtGetChild(0).toString().equals("Expr")) {
+            count++;
+        }
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            count += parenthesized(node.jjtGetChild(i));
+        }
+        return count;
+    }
+}
@@ -0,0 +1,136 @@
+package analyzer.tests;
+
+import analyzer.CompilerContext;
+import analyzer.ParseCache;
+import analyzer.VisitorKind;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.ast.TokenMgrError;
+import analyzer.ast.TreeSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks that TreeSerializer gives back the tree it wrote (with the positions
+ * of its nodes), that a tree loaded from a ParseCache has the positions of a parse, and
+ * that the programs compiled through a ParseCache (empty, filled, then with a corrupted
+ * file) give the output of a compilation without cache, for every file of the test-suite.
+ */
+
+@RunWith(Parameterized.class)
+public class ParseCacheTest {
+
+    private final File m_file;
+
+    public ParseCacheTest(String name, File file) {
+        m_file = file;
+    }
+
+    @Test
+    public void serialize() throws Exception {
+        ASTProgram tree;
+        try {
+            tree = Parser.ParseTree(new ByteArrayInputStream(Files.readAllBytes(m_file.toPath())));
+        } catch (ParseException | TokenMgrError e) {
+            return;
+        }
+        byte[] bytes = TreeSerializer.write(tree);
+        ASTProgram read = TreeSerializer.read(bytes);
+        Assert.assertEquals(Trees.describe(tree), Trees.describe(read));
+        Assert.assertEquals(Trees.positions(tree), Trees.positions(read));
+
+        try {
+            TreeSerializer.read(Arrays.copyOf(bytes, bytes.length - 1));
+            Assert.fail("A truncated tree must not be read");
+        } catch (ParseException expected) {
+        }
+    }
+
+    // The positions survive the cache, the errors of a cached tree have their line and column
+    @Test
+    public void positions() throws Exception {
+        byte[] source = Files.readAllBytes(m_file.toPath());
+        String expected;
+        try {
+            expected = Trees.positions(Parser.ParseTree(new ByteArrayInputStream(source)));
+        } catch (ParseException | TokenMgrError e) {
+            return;
+        }
+        Path directory = Files.createTempDirectory("parse-cache-test");
+        try {
+            ParseCache cache = new ParseCache(directory);
+            CompilerContext context = new CompilerContext();
+            context.setParseCache(cache);
+            Assert.assertEquals(expected, Trees.positions(context.parse(new ByteArrayInputStream(source))));
+            Assert.assertNotNull(cache.get(cache.key(source, 0, source.length)));
+            ASTProgram cached = context.parse(new ByteArrayInputStream(source));
+            Assert.assertTrue(cached.hasPosition());
+            Assert.assertEquals(expected, Trees.positions(cached));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void compile() throws Exception {
+        byte[] source = Files.readAllBytes(m_file.toPath());
+        Path directory = Files.createTempDirectory("parse-cache-test");
+        try {
+            ParseCache cache = new ParseCache(directory);
+            CompilerContext context = new CompilerContext();
+            context.setParseCache(cache);
+            String key = cache.key(source, 0, source.length);
+
+            for (VisitorKind kind : VisitorKind.values()) {
+                String expected = compile(new CompilerContext(), kind, source);
+                Assert.assertEquals(kind.getName(), expected, compile(context, kind, source));
+                Assert.assertEquals(kind.getName(), expected, compile(context, kind, source));
+
+                if (cache.get(key) != null) {
+                    Files.write(directory.resolve(key + ".ast"), new byte[] { 'A', 'S' });
+                    Assert.assertNull(cache.get(key));
+                    Assert.assertEquals(kind.getName(), expected, compile(context, kind, source));
+                    Assert.assertNotNull(cache.get(key));
+                }
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static void delete(Path directory) throws Exception {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static String compile(CompilerContext context, VisitorKind kind, byte[] source) {
+        try {
+            return context.compile(kind, new ByteArrayInputStream(source));
+        } catch (Throwable e) {
+            return context.output() + e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return BaseTest.getAllFileParameters();
+    }
+}
@@ -0,0 +1,151 @@
+package analyzer.tests;
+
+import analyzer.CompilerContext;
+import analyzer.SemantiqueError;
+import analyzer.VisitorKind;
+import analyzer.ast.ASTIdentifier;
+import analyzer.ast.ASTIntValue;
+import analyzer.ast.ASTProgram;
+import analyzer.ast.ByteBufferCharStream;
+import analyzer.ast.CharStream;
+import analyzer.ast.JavaCharStream;
+import analyzer.ast.LineIndex;
+import analyzer.ast.Node;
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.ast.PositionedNode;
+import analyzer.ast.TokenMgrError;
+import analyzer.visitors.SemantiqueVisitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks the positions of the nodes (see PositionedNode) on every file of the
+ * test-suite: both CharStreams and both lexers give the same ones, the image of each
+ * identifier and integer is found at its position, and the children are inside their
+ * parent, in order. The positions of the SemantiqueError and LineIndex are checked on
+ * small sources.
+ */
+
+@RunWith(Parameterized.class)
+public class PositionTest {
+
+    private final File m_file;
+
+    public PositionTest(String name, File file) {
+        m_file = file;
+    }
+
+    @Test
+    public void positions() throws Exception {
+        byte[] source = Files.readAllBytes(m_file.toPath());
+        ByteBufferCharStream stream = new ByteBufferCharStream(ByteBuffer.wrap(source));
+        if (!stream.isPlainAscii()) {
+            return;
+        }
+        ASTProgram tree;
+        try {
+            tree = Parser.Create(stream).Program();
+        } catch (ParseException | TokenMgrError e) {
+            return;
+        }
+
+        String text = new String(source, StandardCharsets.US_ASCII);
+        check(text, tree);
+        Assert.assertEquals(text.length(), tree.getEndOffset());
+
+        String expected = Trees.positions(tree);
+        Assert.assertEquals(expected, Trees.positions(parse(new JavaCharStream(new ByteArrayInputStream(source)), false)));
+        Assert.assertEquals(expected, Trees.positions(parse(new ByteBufferCharStream(ByteBuffer.wrap(source)), true)));
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return BaseTest.getAllFileParameters();
+    }
+
+    @Test
+    public void semantiqueError() throws Exception {
+        String source = "Declaration\r\n num a;\r\nEndDeclaration\r\na = 1;\r\nwhile (a > 0) {\n\ta = a - b;\n}\n";
+        CompilerContext context = new CompilerContext();
+        context.setOutputCache(null);
+        try {
+            context.compile(VisitorKind.Semantic, new ByteArrayInputStream(source.getBytes(StandardCharsets.US_ASCII)));
+            Assert.fail();
+        } catch (SemantiqueError e) {
+            Assert.assertEquals("Invalid use of undefined Identifier b", e.getMessage());
+            Assert.assertEquals("b", source.substring(PositionedNode.begin(e.getPosition()), PositionedNode.end(e.getPosition())));
+            LineIndex lines = LineIndex.of(source);
+            Assert.assertEquals(6, lines.line(PositionedNode.begin(e.getPosition())));
+            Assert.assertEquals(10, lines.column(PositionedNode.begin(e.getPosition())));
+            Assert.assertEquals("Invalid use of undefined Identifier b (line 6, column 10)", e.describe(lines));
+            Assert.assertEquals(e.describe(lines), e.describe(context.lineIndex()));
+        }
+
+        // The error of an expression is at the operator node
+        source = "Declaration num a; EndDeclaration\na = (1 + 2) + true;";
+        try {
+            Parser.ParseTree(new ByteArrayInputStream(source.getBytes(StandardCharsets.US_ASCII)))
+                    .jjtAccept(new SemantiqueVisitor(new PrintWriter(new StringWriter())), null);
+            Assert.fail();
+        } catch (SemantiqueError e) {
+            Assert.assertEquals("(1 + 2) + true", source.substring(PositionedNode.begin(e.getPosition()), PositionedNode.end(e.getPosition())));
+        }
+    }
+
+    @Test
+    public void lineIndex() {
+        String text = "ab\r\ncd\re\n\nf";
+        for (LineIndex lines : new LineIndex[] { LineIndex.of(text), LineIndex.of(text.getBytes(StandardCharsets.US_ASCII), 0, text.length()) }) {
+            Assert.assertEquals(5, lines.getLineCount());
+            int[] expectedLines = { 1, 1, 1, 1, 2, 2, 2, 3, 3, 4, 5 };
+            int[] expectedColumns = { 1, 2, 3, 4, 1, 2, 3, 1, 2, 1, 1 };
+            for (int offset = 0; offset < text.length(); offset++) {
+                Assert.assertEquals(expectedLines[offset], lines.line(offset));
+                Assert.assertEquals(expectedColumns[offset], lines.column(offset));
+                Assert.assertEquals(offset, lines.offset(lines.line(offset), lines.column(offset)));
+            }
+            Assert.assertEquals(5, lines.line(text.length()));
+            Assert.assertEquals("line 2, column 2", lines.describe(PositionedNode.position(5, 6)));
+        }
+    }
+
+    // With the token manager of JavaCC when generated is set
+    private static ASTProgram parse(CharStream stream, boolean generated) throws ParseException {
+        return generated ? new Parser(stream).Program() : Parser.Create(stream).Program();
+    }
+
+    private static void check(String text, Node node) {
+        PositionedNode positioned = (PositionedNode) node;
+        int begin = positioned.getBeginOffset();
+        int end = positioned.getEndOffset();
+        Assert.assertTrue(begin >= 0 && begin <= end && end <= text.length());
+        if (node instanceof ASTIdentifier) {
+            Assert.assertEquals(((ASTIdentifier) node).getValue(), text.substring(begin, end));
+        } else if (node instanceof ASTIntValue) {
+            Assert.assertEquals(((ASTIntValue) node).getValue(), Integer.parseInt(text.substring(begin, end)));
+        }
+
+        int previous = begin;
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            PositionedNode child = (PositionedNode) node.jjtGetChild(i);
+            Assert.assertTrue(node + " " + i, child.getBeginOffset() >= previous && child.getEndOffset() <= end);
+            previous = child.getEndOffset();
+            check(text, node.jjtGetChild(i));
+        }
+    }
+}
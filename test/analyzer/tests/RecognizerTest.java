@@ -0,0 +1,88 @@
+package analyzer.tests;
+
+import analyzer.ast.ParseException;
+import analyzer.ast.Parser;
+import analyzer.ast.Recognizer;
+import analyzer.ast.TokenMgrError;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Compares Recognizer with the parser on the files of the test-suite and
+ * on random edits of them: a source must be accepted by both or rejected by both, with
+ * the same message.
+ */
+
+@RunWith(Parameterized.class)
+public class RecognizerTest {
+
+    private static final String[] INSERTIONS = {
+            "a = 1;", "b = a + 2;", " ", "\n", "{", "}", "{ c = true; }", "if (c) a = 2;", "else", "else b = 1;",
+            "while (c) { a = a - 1; }", "switch (a) { case 1: b = 2; default: ; }", "case", "default", ":",
+            "// c\n", "/*", ";", "x", "1", "(", ")", "+", "-", "!", "*", "&&", "==", "<", "=", "true", "#",
+            "Declaration num z; EndDeclaration\n", "num y;", "EndDeclaration", "Declaration"
+    };
+
+    private final String m_source;
+
+    public RecognizerTest(String name, String source) {
+        m_source = source;
+    }
+
+    @Test
+    public void sameErrors() {
+        compare(m_source);
+
+        Random random = new Random(m_source.hashCode());
+        for (int i = 0; i < 200; i++) {
+            StringBuilder edited = new StringBuilder(m_source);
+            for (int j = random.nextInt(3); j >= 0; j--) {
+                int offset = random.nextInt(edited.length() + 1);
+                int removed = random.nextInt(3) == 0 ? Math.min(random.nextInt(8), edited.length() - offset) : 0;
+                edited.replace(offset, offset + removed, INSERTIONS[random.nextInt(INSERTIONS.length)]);
+            }
+            compare(edited.toString());
+        }
+    }
+
+    private static void compare(String source) {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        String expected = null;
+        try {
+            Parser.ParseTree(new ByteArrayInputStream(bytes));
+        } catch (ParseException | TokenMgrError e) {
+            expected = e.getMessage();
+        } catch (Error e) {
+            // An invalid unicode escape stops JavaCharStream, the Recognizer too
+            String actual = null;
+            try {
+                Recognizer.check(bytes);
+            } catch (Error recognizer) {
+                actual = recognizer.getMessage();
+            }
+            Assert.assertEquals(source, e.getMessage(), actual);
+            return;
+        }
+
+        ParseException error = Recognizer.check(bytes);
+        Assert.assertEquals(source, expected, error == null ? null : error.getMessage());
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() throws Exception {
+        Collection<Object[]> params = BaseTest.getAllSourceParameters();
+        params.add(new Object[] { "empty", "" });
+        params.add(new Object[] { "unicode escape", "a = \\u0031;\nb = a \\u002b 2;" });
+        return params;
+    }
+}
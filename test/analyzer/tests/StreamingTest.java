@@ -0,0 +1,73 @@
+package analyzer.tests;
+
+import analyzer.Main;
+import analyzer.VisitorKind;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks that Main.RunStreaming gives exactly the output of Main.Run,
+ * errors included, for every file of the test-suite and every visitor.
+ */
+
+@RunWith(Parameterized.class)
+public class StreamingTest {
+
+    private final VisitorKind m_kind;
+    private final File m_file;
+
+    public StreamingTest(String name, VisitorKind kind, File file) {
+        m_kind = kind;
+        m_file = file;
+    }
+
+    @Test
+    public void run() throws Exception {
+        byte[] source = Files.readAllBytes(m_file.toPath());
+
+        StringWriter expected = new StringWriter();
+        PrintWriter writer = new PrintWriter(expected);
+        try {
+            Main.Run(m_kind.create(writer), new ByteArrayInputStream(source), writer);
+        } catch (Throwable e) {
+            writer.flush();
+            expected.append(e.getMessage());
+        }
+
+        StringWriter actual = new StringWriter();
+        writer = new PrintWriter(actual);
+        try {
+            Main.RunStreaming(m_kind.create(writer), m_file.toPath(), writer);
+        } catch (Throwable e) {
+            writer.flush();
+            actual.append(e.getMessage());
+        }
+
+        Assert.assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        Collection<Object[]> params = new ArrayList<>();
+        for (VisitorKind kind : VisitorKind.values()) {
+            for (File file : BaseTest.getAllFiles()) {
+                params.add(new Object[] { kind.getName() + " " + file.getPath(), kind, file });
+            }
+        }
+        return params;
+    }
+}
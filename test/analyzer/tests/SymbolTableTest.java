@@ -0,0 +1,66 @@
+package analyzer.tests;
+
+import analyzer.ast.ASTIdentifier;
+import analyzer.ast.ParserTreeConstants;
+import analyzer.ast.VarType;
+import analyzer.visitors.SymbolTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Checks the ids given by SymbolTable and the id it keeps on the identifiers.
+ */
+
+public class SymbolTableTest {
+
+    // The ids follow the order of the declarations, a redeclaration keeps its id
+    @Test
+    public void declareGivesDenseIds() {
+        SymbolTable table = new SymbolTable();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, table.declare("v" + i, i % 2 == 0 ? VarType.Number : VarType.Bool));
+        }
+        Assert.assertEquals(100, table.size());
+        Assert.assertEquals(VarType.Bool, table.getType(99));
+        Assert.assertEquals(7, table.declare("v7", VarType.Number));
+        Assert.assertEquals(VarType.Number, table.getType(7));
+        Assert.assertEquals("v7", table.getName(7));
+        Assert.assertEquals(100, table.size());
+    }
+
+    // The id is kept on the node, and resolved again when it is not the one of its name
+    @Test
+    public void resolveKeepsTheIdOnTheNode() {
+        SymbolTable table = new SymbolTable();
+        table.declare("a", VarType.Number);
+        table.declare("b", VarType.Bool);
+        ASTIdentifier node = identifier("b");
+        Assert.assertEquals(1, table.resolve(node));
+        Assert.assertEquals(1, node.getSymbol());
+
+        table.clear();
+        table.declare("b", VarType.Number);
+        table.declare("a", VarType.Bool);
+        Assert.assertEquals(0, table.resolve(node));
+        Assert.assertEquals(0, node.getSymbol());
+        Assert.assertEquals(VarType.Number, table.getType(0));
+    }
+
+    @Test
+    public void undeclaredNamesAreUndefined() {
+        SymbolTable table = new SymbolTable();
+        table.declare("a", VarType.Number);
+        ASTIdentifier node = identifier("c");
+        Assert.assertEquals(SymbolTable.UNDEFINED, table.resolve(node));
+        Assert.assertEquals(SymbolTable.UNDEFINED, node.getSymbol());
+    }
+
+    private static ASTIdentifier identifier(String name) {
+        ASTIdentifier node = new ASTIdentifier(ParserTreeConstants.JJTIDENTIFIER);
+        node.setValue(name);
+        return node;
+    }
+}
@@ -0,0 +1,55 @@
+package analyzer.tests;
+
+import analyzer.ast.Node;
+import analyzer.ast.OperatorNode;
+import analyzer.ast.PositionedNode;
+import org.junit.Assert;
+
+import java.lang.reflect.Method;
+
+/**
+ * Created: 26-10-18
+ * Last Changed: 26-10-18
+ *
+ * Description: Describes a tree in a String, for the tests which compare the trees
+ * built in different ways. The parents are checked on the way.
+ */
+
+public class Trees {
+
+    private Trees() {
+    }
+
+    // The name, the value and the ops of each node, and the parents must be right
+    public static String describe(Node node) throws Exception {
+        StringBuilder sb = new StringBuilder(node.toString());
+        try {
+            Method method = node.getClass().getMethod("getValue");
+            sb.append(' ').append(method.invoke(node));
+        } catch (NoSuchMethodException ignored) {
+        }
+        if (node instanceof OperatorNode) {
+            OperatorNode operators = (OperatorNode) node;
+            for (int i = 0; i < operators.getOpCount(); i++) {
+                sb.append(' ').append(operators.getOp(i).getSymbol());
+            }
+        }
+        sb.append(" [");
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            Assert.assertSame(node, node.jjtGetChild(i).jjtGetParent());
+            sb.append(describe(node.jjtGetChild(i))).append(' ');
+        }
+        return sb.append(']').toString();
+    }
+
+    // The begin and end offsets of each node, in the same order as describe()
+    public static String positions(Node node) {
+        PositionedNode positioned = (PositionedNode) node;
+        StringBuilder sb = new StringBuilder();
+        sb.append(positioned.getBeginOffset()).append('-').append(positioned.getEndOffset()).append(" [");
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            sb.append(positions(node.jjtGetChild(i))).append(' ');
+        }
+        return sb.append(']').toString();
+    }
+}